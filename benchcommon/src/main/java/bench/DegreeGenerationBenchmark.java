@@ -0,0 +1,52 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PowerLawGraph.generateSequence: muestreo del histograma de grados en el driver
+ * (o en cada mapper con -distributed), y su expansión a int[] como la hacía el driver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DegreeGenerationBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int numNodes;
+
+    @Param({"1.5", "2.0", "2.5"})
+    public double tau;
+
+    private GraphHooks hooks;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        hooks = GraphHooks.load();
+    }
+
+    @Benchmark
+    public Object generateSequence() {
+        return hooks.generate(numNodes, tau, seed++);
+    }
+
+    @Benchmark
+    public int[] generateAndExpand() {
+        Object sequence = hooks.generate(numNodes, tau, seed++);
+        return hooks.slice(sequence, 0, numNodes);
+    }
+}
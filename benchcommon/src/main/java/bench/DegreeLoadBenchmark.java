@@ -0,0 +1,75 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Carga de grados del setup() de los mappers: decodificar degrees.dat y expandir el
+ * rango de una tarea de 8, frente a regenerarlo desde la semilla (-distributed).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DegreeLoadBenchmark {
+
+    private static final int MAPPERS = 8;
+
+    @Param({"100000", "1000000", "10000000"})
+    public int numNodes;
+
+    @Param({"1.5", "2.0", "2.5"})
+    public double tau;
+
+    private GraphHooks hooks;
+    private File dir;
+    private String path;
+    private int start;
+    private int end;
+
+    @Setup
+    public void setup() throws IOException {
+        hooks = GraphHooks.load();
+        Object sequence = hooks.generate(numNodes, tau, 42L);
+        dir = Files.createTempDirectory("hsp-bench").toFile();
+        path = new File(dir, "degrees.dat").getAbsolutePath();
+        hooks.writeDegreeFile(sequence, path);
+
+        // Rango central: el de los hubs tiene muy pocos nodos
+        int[] bounds = hooks.balancedBounds(sequence, MAPPERS);
+        start = bounds[MAPPERS / 2];
+        end = bounds[MAPPERS / 2 + 1];
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public int[] readSlice() throws IOException {
+        return hooks.readDegreeRange(path, numNodes, start, end);
+    }
+
+    @Benchmark
+    public int[] regenerateSlice() {
+        return hooks.slice(hooks.generate(numNodes, tau, 42L), start, end);
+    }
+}
@@ -0,0 +1,78 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bucle de emisión de aristas del reducer sobre EdgeSink, serializando como el
+ * OutputFormat del job. Cada operación emite las aristas del rango de un reducer de 16
+ * (el siguiente al de los hubs); el contador "edges" da las aristas por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EdgeEmissionBenchmark {
+
+    private static final int REDUCERS = 16;
+
+    @Param({"100000", "1000000"})
+    public int numNodes;
+
+    @Param({"1.5", "2.0", "2.5"})
+    public double tau;
+
+    @Param({"text", "intervals"})
+    public String format;
+
+    private GraphHooks hooks;
+    private Object sink;
+    private int[] degrees;
+    private int blockStart;
+    private int blockEnd;
+    private long edgesPerOp;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Edges {
+        public long edges;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            edges = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        hooks = GraphHooks.load();
+        Object sequence = hooks.generate(numNodes, tau, 42L);
+        int[] bounds = hooks.balancedBounds(sequence, REDUCERS);
+        blockStart = bounds[1];
+        blockEnd = bounds[2];
+        degrees = hooks.slice(sequence, blockStart, blockEnd);
+        for (int d : degrees) edgesPerOp += d;
+        sink = hooks.newSink(NullOutputContext.create(format));
+    }
+
+    @Benchmark
+    public void emitReducerRange(Edges counter) throws Exception {
+        hooks.emitEdges(sink, degrees, blockStart, numNodes, blockStart, blockEnd);
+        hooks.flush(sink);
+        counter.edges += edgesPerOp;
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+
+/**
+ * Puente hacia las clases de hsp, que están en el paquete por defecto: JMH exige que
+ * los benchmarks tengan paquete y Java no permite importar el paquete por defecto.
+ * La implementación (GraphHooksImpl) sí está en el paquete por defecto, una en cada
+ * módulo bench (hspdg/bench, hspug/bench); el resto de benchmarks se comparten desde
+ * benchcommon.
+ */
+public interface GraphHooks {
+
+    static GraphHooks load() {
+        try {
+            return (GraphHooks) Class.forName("GraphHooksImpl").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encuentra GraphHooksImpl", e);
+        }
+    }
+
+    /** PowerLawGraph.generateSequence; devuelve la DegreeSequence. */
+    Object generate(int numNodes, double tau, long seed);
+
+    long totalDegree(Object sequence);
+
+    int[] balancedBounds(Object sequence, int parts);
+
+    int[] slice(Object sequence, int start, int end);
+
+    void writeDegreeFile(Object sequence, String path) throws IOException;
+
+    /** Carga de grados del setup de los mappers (DegreeFile.readRange). */
+    int[] readDegreeRange(String path, int numNodes, int start, int end) throws IOException;
+
+    /** EdgeSink.create sobre el contexto dado. */
+    Object newSink(TaskInputOutputContext<?, ?, Writable, Writable> context);
+
+    /**
+     * Emite con la regla del reducer del proyecto las aristas de los nodos
+     * [firstNode, firstNode + degrees.length), dentro del bloque [blockStart, blockEnd).
+     */
+    void emitEdges(Object sink, int[] degrees, int firstNode, int numNodes, int blockStart, int blockEnd)
+            throws IOException, InterruptedException;
+
+    void flush(Object sink) throws IOException, InterruptedException;
+
+    /** Nombre del proyecto ("hspdg" o "hspug"). */
+    String generator();
+
+    /** Main completo con ToolRunner sobre conf; devuelve su código de salida. */
+    int runMain(Configuration conf, String[] args) throws Exception;
+}
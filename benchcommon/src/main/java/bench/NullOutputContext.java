@@ -0,0 +1,57 @@
+package bench;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+
+/**
+ * Contexto de tarea mínimo para los benchmarks de emisión: serializa cada registro
+ * como lo haría el OutputFormat del job ("text" con TextOutputFormat, "intervals"
+ * con el Writable binario) y descarta los bytes.
+ */
+public final class NullOutputContext {
+
+    private NullOutputContext() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static TaskInputOutputContext<?, ?, Writable, Writable> create(String format) {
+        Configuration conf = new Configuration(false);
+        conf.set("output.format", format);
+        DataOutputStream out = new DataOutputStream(OutputStream.nullOutputStream());
+        RecordWriter<Writable, Writable> text = TextWriter.create(out);
+
+        return (TaskInputOutputContext<?, ?, Writable, Writable>) Proxy.newProxyInstance(
+                NullOutputContext.class.getClassLoader(),
+                new Class<?>[] {TaskInputOutputContext.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "write":
+                            if ("text".equals(format)) {
+                                text.write((Writable) args[0], (Writable) args[1]);
+                            } else {
+                                ((Writable) args[1]).write(out);
+                            }
+                            return null;
+                        case "getConfiguration":
+                            return conf;
+                        case "progress":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /** Acceso al LineRecordWriter de TextOutputFormat, que es protegido. */
+    private static final class TextWriter extends TextOutputFormat<Writable, Writable> {
+        static RecordWriter<Writable, Writable> create(DataOutputStream out) {
+            return new LineRecordWriter<>(out);
+        }
+    }
+}
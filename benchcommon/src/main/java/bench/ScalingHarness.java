@@ -0,0 +1,278 @@
+package bench;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Barrido de escalado de extremo a extremo: ejecuta el Main real del proyecto con
+ * LocalJobRunner (job MapReduce completo en este proceso, sistema de ficheros local)
+ * para cada N y número de workers, y guarda en un CSV las fases del informe de
+ * ejecución, los bytes de shuffle, los registros derramados y el tamaño de la salida.
+ * El resumen da la aceleración (strong scaling, N fijo) y, con -weak, la eficiencia
+ * con N proporcional a los workers (weak scaling).
+ *
+ * <pre>
+ *   java -cp target/benchmarks.jar bench.ScalingHarness -n 100000,1000000 -w 1,2,4,8 \
+ *       [-weak] [-format text] [-repeat 3] [-warmup 1] [-out scaling.csv] [-baseline anterior.csv] \
+ *       [-tolerance 0.2] [-- otros argumentos de Main]
+ * </pre>
+ *
+ * Las primeras ejecuciones (-warmup, 1 por defecto) calientan la JVM con el primer N y
+ * el primer número de workers y no se guardan. Main escribe en /graph_output y /graph_input como siempre; cada ejecución los
+ * sobrescribe. Con -baseline compara el mejor total_ms de cada (N, workers) con el de
+ * un CSV anterior y termina con código 1 si alguno empeora más que la tolerancia.
+ */
+public class ScalingHarness {
+
+    private static final String HEADER = "generator,nodes,workers,mappers,reducers,run,total_ms,degrees_ms,"
+            + "upload_ms,job_ms,post_ms,edges,map_output_bytes,shuffle_bytes,spilled_records,output_bytes,success";
+    private static final Pattern PHASE = Pattern.compile("\"([^\"]+)\": (\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> nodes = List.of(100_000, 1_000_000);
+        List<Integer> workers = List.of(1, 2, 4);
+        boolean weak = false;
+        String format = "text";
+        int repeat = 1;
+        int warmup = 1;
+        String out = "scaling.csv";
+        String baseline = null;
+        double tolerance = 0.2;
+        List<String> extra = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("-n".equals(args[i]) && i + 1 < args.length) {
+                nodes = parseList(args[++i]);
+            } else if ("-w".equals(args[i]) && i + 1 < args.length) {
+                workers = parseList(args[++i]);
+            } else if ("-weak".equals(args[i])) {
+                weak = true;
+            } else if ("-format".equals(args[i]) && i + 1 < args.length) {
+                format = args[++i];
+            } else if ("-repeat".equals(args[i]) && i + 1 < args.length) {
+                repeat = Integer.parseInt(args[++i]);
+            } else if ("-warmup".equals(args[i]) && i + 1 < args.length) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if ("-out".equals(args[i]) && i + 1 < args.length) {
+                out = args[++i];
+            } else if ("-baseline".equals(args[i]) && i + 1 < args.length) {
+                baseline = args[++i];
+            } else if ("-tolerance".equals(args[i]) && i + 1 < args.length) {
+                tolerance = Double.parseDouble(args[++i]);
+            } else if ("--".equals(args[i])) {
+                for (i++; i < args.length; i++) extra.add(args[i]);
+            } else {
+                System.err.println("Uso: ScalingHarness [-n <N,...>] [-w <workers,...>] [-weak] [-format <formato>]"
+                        + " [-repeat <veces>] [-warmup <veces>] [-out <csv>] [-baseline <csv>] [-tolerance <fracción>] [-- args de Main]");
+                System.exit(1);
+            }
+        }
+
+        GraphHooks hooks = GraphHooks.load();
+        java.nio.file.Path work = Files.createTempDirectory("hsp-scaling");
+        for (int run = 1; run <= warmup && !nodes.isEmpty() && !workers.isEmpty(); run++) {
+            runOnce(hooks, work, nodes.get(0), workers.get(0), 0, format, extra);
+        }
+
+        List<Row> rows = new ArrayList<>();
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))) {
+            csv.println(HEADER);
+            for (int n : nodes) {
+                for (int w : workers) {
+                    // Weak scaling: N es el tamaño por worker
+                    int numNodes = weak ? Math.multiplyExact(n, w) : n;
+                    for (int run = 1; run <= repeat; run++) {
+                        Row row = runOnce(hooks, work, numNodes, w, run, format, extra);
+                        row.base = n;
+                        rows.add(row);
+                        csv.println(row.toCsv());
+                        csv.flush();
+                        System.out.printf("[escalado] %s N=%d w=%d: %d ms%n", row.generator, numNodes, w, row.totalMs);
+                    }
+                }
+            }
+        }
+
+        String summary = summary(rows, weak);
+        String summaryPath = out.replaceAll("\\.csv$", "") + "-summary.txt";
+        Files.write(Paths.get(summaryPath), summary.getBytes(StandardCharsets.UTF_8));
+        System.out.print(summary);
+        System.out.println("CSV en " + out + ", resumen en " + summaryPath);
+
+        if (baseline != null && regressions(rows, baseline, tolerance) > 0) System.exit(1);
+    }
+
+    private static Row runOnce(GraphHooks hooks, java.nio.file.Path work, int numNodes, int numWorkers, int run,
+            String format, List<String> extra) throws Exception {
+        Configuration conf = new Configuration();
+        conf.set("fs.defaultFS", "file:///");
+        conf.set("mapreduce.framework.name", "local");
+        conf.set("hadoop.tmp.dir", work.resolve("tmp").toString());
+        // LocalJobRunner ejecuta en paralelo tantas tareas map y reduce como workers
+        conf.setInt("mapreduce.local.map.tasks.maximum", numWorkers);
+        conf.setInt("mapreduce.local.reduce.tasks.maximum", numWorkers);
+
+        java.nio.file.Path report = work.resolve(String.format("report-%d-%d-%d.json", numNodes, numWorkers, run));
+        List<String> args = new ArrayList<>(List.of("-n", Integer.toString(numNodes), "-w", Integer.toString(numWorkers),
+                "-seed", "42", "-engine", "hadoop", "-format", format, "-report", report.toString()));
+        args.addAll(extra);
+        int status = hooks.runMain(conf, args.toArray(new String[0]));
+
+        String json = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+        Map<String, Long> phases = phases(json);
+        Row row = new Row();
+        row.generator = hooks.generator();
+        row.nodes = numNodes;
+        row.workers = numWorkers;
+        row.mappers = number(json, "mappers");
+        // Un reducer por worker; en map-only el job no tiene reducers
+        row.reducers = json.contains("\"map_only\": true") ? 0 : numWorkers;
+        row.run = run;
+        row.totalMs = number(json, "total_ms");
+        row.degreesMs = phases.getOrDefault("degrees", 0L);
+        row.uploadMs = phases.getOrDefault("upload", 0L);
+        row.jobMs = phases.getOrDefault("job", 0L);
+        row.postMs = phases.values().stream().mapToLong(Long::longValue).sum() - row.degreesMs - row.uploadMs - row.jobMs;
+        row.edges = number(json, "EDGES");
+        row.mapOutputBytes = number(json, "MAP_OUTPUT_BYTES");
+        row.shuffleBytes = number(json, "REDUCE_SHUFFLE_BYTES");
+        row.spilledRecords = number(json, "SPILLED_RECORDS");
+        FileSystem fs = FileSystem.get(conf);
+        Path output = new Path("/graph_output");
+        row.outputBytes = fs.exists(output) ? fs.getContentSummary(output).getLength() : 0;
+        row.success = status == 0 && json.contains("\"success\": true");
+        return row;
+    }
+
+    /**
+     * Aceleración y eficiencia frente al menor número de workers, con el mejor total_ms
+     * de las repeticiones.
+     */
+    private static String summary(List<Row> rows, boolean weak) {
+        Map<Integer, Map<Integer, Row>> best = new TreeMap<>();
+        for (Row row : rows) {
+            Row current = best.computeIfAbsent(row.base, k -> new TreeMap<>()).get(row.workers);
+            if (current == null || row.totalMs < current.totalMs) best.get(row.base).put(row.workers, row);
+        }
+
+        StringBuilder text = new StringBuilder();
+        String generator = rows.isEmpty() ? "" : rows.get(0).generator;
+        text.append(String.format("%s, %s scaling (mejor de las repeticiones)%n", generator, weak ? "weak" : "strong"));
+        for (Map.Entry<Integer, Map<Integer, Row>> group : best.entrySet()) {
+            text.append(String.format("%n%s%n", weak ? "Nodos por worker: " + group.getKey() : "N = " + group.getKey()));
+            text.append(String.format("%8s %12s %10s %10s %8s %8s %12s%n",
+                    "workers", "N", "total_ms", "job_ms", "acel.", "efic.", "shuffle_MB"));
+            Row first = group.getValue().values().iterator().next();
+            for (Row row : group.getValue().values()) {
+                // Strong: acel. = T0 / T. Weak: efic. = T0 / T y acel. la escalada por el trabajo
+                double ratio = (double) first.totalMs / Math.max(1, row.totalMs);
+                double scale = (double) row.workers / first.workers;
+                double speedup = weak ? ratio * scale : ratio;
+                double efficiency = weak ? ratio : ratio / scale;
+                text.append(String.format("%8d %12d %10d %10d %8.2f %8.2f %12.1f%n", row.workers, row.nodes,
+                        row.totalMs, row.jobMs, speedup, efficiency, row.shuffleBytes / 1e6));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Compara el mejor total_ms de cada (generador, N, workers) con el del CSV anterior.
+     */
+    private static int regressions(List<Row> rows, String baseline, double tolerance) throws IOException {
+        Map<String, Long> previous = bestTotals(Files.readAllLines(Paths.get(baseline), StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+        for (Row row : rows) lines.add(row.toCsv());
+        Map<String, Long> current = bestTotals(lines);
+
+        int regressions = 0;
+        for (Map.Entry<String, Long> entry : current.entrySet()) {
+            Long before = previous.get(entry.getKey());
+            if (before == null) continue;
+            if (entry.getValue() > before * (1 + tolerance)) {
+                System.out.printf("REGRESIÓN %s: %d ms frente a %d ms%n", entry.getKey(), entry.getValue(), before);
+                regressions++;
+            }
+        }
+        System.out.println(regressions == 0 ? "Sin regresiones frente a " + baseline
+                : regressions + " regresiones frente a " + baseline);
+        return regressions;
+    }
+
+    private static Map<String, Long> bestTotals(List<String> lines) {
+        Map<String, Long> best = new LinkedHashMap<>();
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            if (fields.length < 7 || "generator".equals(fields[0])) continue;
+            String key = fields[0] + " N=" + fields[1] + " w=" + fields[2];
+            best.merge(key, Long.parseLong(fields[6]), Math::min);
+        }
+        return best;
+    }
+
+    private static Map<String, Long> phases(String json) {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        int start = json.indexOf("\"phases_ms\": {");
+        if (start < 0) return phases;
+        int end = json.indexOf('}', start);
+        Matcher m = PHASE.matcher(json.substring(start + "\"phases_ms\": {".length(), end));
+        while (m.find()) phases.put(m.group(1), Long.parseLong(m.group(2)));
+        return phases;
+    }
+
+    /**
+     * Primer valor numérico de la clave en el informe (parámetro, total o contador), o 0.
+     */
+    private static long number(String json, String key) {
+        Matcher m = Pattern.compile("\"" + Pattern.quote(key) + "\": (-?\\d+)").matcher(json);
+        return m.find() ? Long.parseLong(m.group(1)) : 0;
+    }
+
+    private static List<Integer> parseList(String value) {
+        List<Integer> list = new ArrayList<>();
+        for (String item : value.split(",")) list.add(Integer.parseInt(item.trim()));
+        return list;
+    }
+
+    private static class Row {
+        String generator;
+        int base;
+        int nodes;
+        int workers;
+        long mappers;
+        long reducers;
+        int run;
+        long totalMs;
+        long degreesMs;
+        long uploadMs;
+        long jobMs;
+        long postMs;
+        long edges;
+        long mapOutputBytes;
+        long shuffleBytes;
+        long spilledRecords;
+        long outputBytes;
+        boolean success;
+
+        String toCsv() {
+            return String.join(",", generator, Integer.toString(nodes), Integer.toString(workers),
+                    Long.toString(mappers), Long.toString(reducers), Integer.toString(run), Long.toString(totalMs),
+                    Long.toString(degreesMs), Long.toString(uploadMs), Long.toString(jobMs), Long.toString(postMs),
+                    Long.toString(edges), Long.toString(mapOutputBytes), Long.toString(shuffleBytes),
+                    Long.toString(spilledRecords), Long.toString(outputBytes), Boolean.toString(success));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * Mapper de -model ba|copy: todos los nodos tienen grado m, así que no lee el vector de
+ * grados. Emite (nodo, m) para DirectedGraphReducer o, en modo map-only, escribe
+ * directamente las aristas de su rango con AttachmentModel.
+ */
+public class AttachmentGraphMapper extends Mapper<NullWritable, NullWritable, Writable, Writable> {
+
+    @Override
+    public void map(NullWritable key, NullWritable value, Context context) throws IOException, InterruptedException {
+        Configuration conf = context.getConfiguration();
+        AttachmentModel model = AttachmentModel.fromConf(conf);
+        int m = conf.getInt(AttachmentModel.EDGES, 1);
+        boolean mapOnly = conf.getBoolean("map.only", false);
+        EmptyInputFormat.EmptySplit split = (EmptyInputFormat.EmptySplit) context.getInputSplit();
+        Checkpoint.PendingNodes pending = Checkpoint.pendingNodes(conf, context.getNumReduceTasks());
+
+        GraphStats stats = new GraphStats();
+        EdgeSink sink = mapOnly ? stats.track(EdgeSink.create(context)) : null;
+        LongWritable outKey = new LongWritable();
+        LongWritable outValue = new LongWritable(m);
+        long nodes = 0;
+        for (int i = split.getStart(); i < split.getEnd(); i++) {
+            // Al reanudar (-checkpoint) se omiten los nodos de rangos ya terminados
+            if (!pending.contains(i)) continue;
+            if (mapOnly) {
+                stats.node(i, m);
+                model.writeEdges(i, sink);
+            } else {
+                outKey.set(i);
+                context.write(outKey, outValue);
+            }
+            nodes++;
+        }
+
+        if (mapOnly) {
+            sink.flush();
+            stats.write(context, null);
+            context.getCounter(GraphCounters.NODES_EXPANDED).increment(nodes);
+            context.getCounter(GraphCounters.EDGES).increment(nodes * m);
+            context.getCounter(GraphCounters.ATTACHMENT_STEPS).increment(model.steps());
+        } else {
+            context.getCounter(GraphCounters.NODES_EMITTED).increment(nodes);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Modelos de crecimiento (-model) como alternativa a la secuencia de grados de
+ * PowerLawGraph: cada nodo i llega con m aristas hacia nodos ya existentes (j <= i).
+ *
+ * <pre>
+ *   ba     Barabási–Albert: el destino se elige con probabilidad proporcional al grado
+ *   copy   modelo de copia: con probabilidad alpha un nodo anterior uniforme; si no,
+ *          el mismo destino que la arista j de un nodo anterior uniforme (prototipo)
+ * </pre>
+ *
+ * Ninguna tarea necesita las aristas de las demás: el destino de cada arista es una
+ * función determinista de la semilla y de su número k = i * m + j. En "ba" la arista k
+ * ocupa las posiciones 2k (origen) y 2k + 1 (destino) de la lista de aristas; el
+ * destino copia la posición r, uniforme en [0, 2k + 1) según un hash de 2k + 1: si r es
+ * par es el origen de la arista r / 2, y si no se resuelve igual el destino r. Elegir
+ * una posición uniforme de la lista es elegir un nodo según su grado (Sanders y Schulz,
+ * "Scalable generation of scale-free graphs"). Cada salto acaba con probabilidad 1/2
+ * en "ba" y alpha en "copy", así que el número esperado de saltos está acotado.
+ *
+ * Todos los nodos tienen grado de salida m (sequence()), así que los jobs, los índices
+ * y los rangos de reducer son los de una secuencia de grados constante. El nodo 0 solo
+ * puede apuntarse a sí mismo, y en "ba" un nodo puede elegir sus propias posiciones de
+ * origen: el grafo tiene lazos y aristas repetidas, que cuentan las estadísticas.
+ */
+public class AttachmentModel {
+
+    // "sequence" (PowerLawGraph, por defecto), "ba" o "copy"
+    public static final String MODEL = "graph.model";
+    // Aristas de cada nodo (m)
+    public static final String EDGES = "attachment.edges";
+    // Probabilidad de destino uniforme en "copy"
+    public static final String ALPHA = "attachment.copy.alpha";
+    public static final double DEFAULT_ALPHA = 0.5;
+
+    private final boolean copy;
+    private final long seed;
+    private final int m;
+    private final double alpha;
+    private long[] targets = new long[0];
+    private long steps;
+
+    public AttachmentModel(String model, long seed, int m, double alpha) {
+        if (!"ba".equals(model) && !"copy".equals(model)) {
+            throw new IllegalArgumentException("Modelo desconocido: " + model);
+        }
+        if (m < 1) {
+            throw new IllegalArgumentException("Cada nodo necesita al menos una arista: " + m);
+        }
+        this.copy = "copy".equals(model);
+        this.seed = seed;
+        this.m = m;
+        this.alpha = alpha;
+    }
+
+    /**
+     * Modelo del job, o null si el grafo sale de la secuencia de grados.
+     */
+    public static AttachmentModel fromConf(Configuration conf) {
+        String model = conf.get(MODEL, "sequence");
+        if ("sequence".equals(model)) return null;
+        return new AttachmentModel(model, conf.getLong("degrees.seed", 0L), conf.getInt(EDGES, 1),
+                conf.getDouble(ALPHA, DEFAULT_ALPHA));
+    }
+
+    /**
+     * Grados de salida del modelo: m para cada uno de los numNodes nodos.
+     */
+    public static DegreeSequence sequence(int numNodes, int m) {
+        return new DegreeSequence(new int[] {m}, new int[] {numNodes});
+    }
+
+    /**
+     * Destino de la arista k.
+     */
+    public long target(long edge) {
+        if (copy) {
+            while (true) {
+                long node = edge / m;
+                steps++;
+                if (node == 0) return 0;
+                long choice = uniform(hash(2 * edge + 1), node);
+                if (unit(hash(2 * edge)) < alpha) return choice;
+                edge = choice * m + edge % m;
+            }
+        }
+        long position = 2 * edge + 1;
+        while (true) {
+            steps++;
+            long r = uniform(hash(position), position);
+            if ((r & 1) == 0) return (r >>> 1) / m;
+            position = r;
+        }
+    }
+
+    /**
+     * Escribe las m aristas del nodo, con los destinos ordenados y los consecutivos
+     * en un solo tramo.
+     */
+    public void writeEdges(long source, EdgeSink sink) throws IOException, InterruptedException {
+        if (targets.length < m) targets = new long[m];
+        for (int j = 0; j < m; j++) targets[j] = target(source * m + j);
+        Arrays.sort(targets, 0, m);
+        for (int i = 0; i < m; ) {
+            int j = i + 1;
+            while (j < m && targets[j] == targets[j - 1] + 1) j++;
+            sink.writeRange(source, targets[i], j - i);
+            i = j;
+        }
+    }
+
+    /**
+     * Saltos dados hasta ahora para resolver destinos.
+     */
+    public long steps() {
+        return steps;
+    }
+
+    private long hash(long x) {
+        // SplitMix64 sobre la semilla y la posición
+        long z = seed + x * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long uniform(long hash, long bound) {
+        return (hash >>> 1) % bound;
+    }
+
+    private static double unit(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Motor local del modelo: los rangos de reducer (los de los mappers en map-only)
+     * en hilos de este proceso. Cada rango deja sus estadísticas en un _stats-*, como
+     * las tareas del job.
+     */
+    public static void runLocal(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws IOException {
+        boolean mapOnly = conf.getBoolean("map.only", false);
+        int[] bounds = sequence.balancedBounds(mapOnly ? conf.getInt("num.mappers", 1) : conf.getInt("num.workers", 1));
+
+        LocalEngine.RangeWriter writer = (start, end, sink) -> {
+            AttachmentModel model = fromConf(conf);
+            GraphStats rangeStats = new GraphStats();
+            EdgeSink tracked = rangeStats.track(sink);
+            for (int i = start; i < end; i++) {
+                rangeStats.node(i, model.m);
+                model.writeEdges(i, tracked);
+            }
+            if (start < end) {
+                rangeStats.write(fs, new Path(outputDir, GraphStats.taskFile(mapOnly ? 'm' : 'r',
+                        DegreeRangePartitioner.rangeOf(bounds, start))));
+            }
+        };
+
+        String outputFormat = conf.get("output.format", "text");
+        if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+            Path file = new Path(outputDir, "csr".equals(outputFormat)
+                    ? CsrOutput.TARGETS : EdgeBinaryOutputFormat.shardName(0));
+            LocalEngine.writeAtOffsets(conf, fs, file, bounds, EdgeIndex.fromDegrees(sequence), writer);
+            fs.create(new Path(outputDir, "_SUCCESS"), true).close();
+        } else {
+            LocalEngine.writeParts(conf, fs, outputDir, bounds, mapOnly ? "part-m-" : "part-r-", writer);
+        }
+    }
+}
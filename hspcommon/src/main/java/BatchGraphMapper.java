@@ -0,0 +1,45 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * Mapper de un lote de grafos: emite (GraphBatch.key(grafo, nodo), grado) para los
+ * nodos de su split. En los grafos no dirigidos el grado es el reducido de
+ * UndirectedGraphMapper; en los dirigidos, el de la secuencia.
+ */
+public class BatchGraphMapper extends Mapper<NullWritable, NullWritable, LongWritable, LongWritable> {
+
+    private int graph;
+    private int start;
+    private boolean directed;
+    private int[] degrees;
+
+    @Override
+    protected void setup(Context context) throws IOException {
+        Configuration conf = context.getConfiguration();
+        BatchInputFormat.BatchSplit split = (BatchInputFormat.BatchSplit) context.getInputSplit();
+        this.graph = split.getGraph();
+        this.start = split.getStart();
+        this.directed = GraphBatch.isDirected(conf, graph);
+
+        long started = System.nanoTime();
+        this.degrees = DegreeFile.readRange(context, GraphBatch.degreesPath(conf, graph).toUri(),
+                GraphBatch.numNodes(conf, graph), split.getStart(), split.getEnd());
+        context.getCounter(GraphCounters.DEGREE_LOAD_MILLIS).increment((System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    protected void map(NullWritable key, NullWritable value, Context context) throws IOException, InterruptedException {
+        int[] emitted = directed ? degrees : UndirectedGraphMapper.reduceLocally(degrees, context);
+
+        long nodes = 0;
+        for (int i = 0; i < emitted.length; i++) {
+            if (emitted[i] <= 0) continue;
+            context.write(new LongWritable(GraphBatch.key(graph, start + i)), new LongWritable(emitted[i]));
+            nodes++;
+        }
+        context.getCounter(GraphCounters.NODES_EMITTED).increment(nodes);
+    }
+}
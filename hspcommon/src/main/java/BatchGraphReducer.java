@@ -0,0 +1,78 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+
+/**
+ * Reducer de un lote de grafos. Cada reducer recibe un rango de un solo grafo
+ * (BatchPartitioner) y le aplica la regla de su modo: la de DirectedGraphReducer o la
+ * de UndirectedGraphReducer, dentro de ese rango. Escribe las aristas con
+ * MultipleOutputs bajo GraphBatch.baseOutput(grafo) y sus estadísticas (GraphStats)
+ * en el mismo directorio.
+ */
+public class BatchGraphReducer extends Reducer<LongWritable, LongWritable, Writable, Writable> {
+
+    private MultipleOutputs<Writable, Writable> outputs;
+    private EdgeSink sink;
+    private final GraphStats stats = new GraphStats();
+    private UndirectedGraphReducer.BorderDuplicates duplicates;
+    private String graphDir;
+    private boolean directed;
+    private int N;
+    private long blockStart;
+    private long blockEnd;
+    private long nodes;
+    private long edges;
+    private long wrapped;
+
+    @Override
+    protected void setup(Context context) {
+        Configuration conf = context.getConfiguration();
+        int reducer = context.getTaskAttemptID().getTaskID().getId();
+        int graph = GraphBatch.graphOfReducer(conf, reducer, context.getNumReduceTasks());
+        int[] bounds = GraphBatch.reducerBounds(conf, graph);
+        int range = reducer % (bounds.length - 1);
+        this.blockStart = bounds[range];
+        this.blockEnd = bounds[range + 1];
+        this.N = GraphBatch.numNodes(conf, graph);
+        this.directed = GraphBatch.isDirected(conf, graph);
+        if (!directed) this.duplicates = new UndirectedGraphReducer.BorderDuplicates(blockStart, blockEnd, N);
+
+        String base = GraphBatch.baseOutput(graph);
+        this.graphDir = GraphBatch.graphDir(graph);
+        this.outputs = new MultipleOutputs<>(context);
+        this.sink = stats.track(EdgeSink.create(conf, (key, value) -> {
+            outputs.write(key, value, base);
+            context.progress();
+        }));
+    }
+
+    @Override
+    public void reduce(LongWritable key, Iterable<LongWritable> values, Context context)
+            throws IOException, InterruptedException {
+        long degree = 0;
+        for (LongWritable v : values) degree += v.get();
+
+        long source = GraphBatch.nodeOf(key.get());
+        stats.node(source, degree);
+        if (!directed) duplicates.node(source, degree);
+        wrapped += directed
+                ? DirectedGraphReducer.writeEdgeAlwaysGoingForward(degree, source, N, sink)
+                : UndirectedGraphReducer.writeEdges(source, degree, blockStart, blockEnd, N, sink);
+        nodes++;
+        edges += degree;
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        sink.flush();
+        outputs.close();
+        if (!directed) duplicates.finish(stats);
+        stats.write(context, graphDir);
+        context.getCounter(GraphCounters.NODES_EXPANDED).increment(nodes);
+        context.getCounter(GraphCounters.EDGES).increment(edges);
+        context.getCounter(GraphCounters.WRAPPED_EDGES).increment(wrapped);
+    }
+}
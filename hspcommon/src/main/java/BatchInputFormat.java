@@ -0,0 +1,76 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+/**
+ * Splits de un lote de grafos (GraphBatch): los de cada grafo son los mismos que
+ * crearía EmptyInputFormat en una ejecución suelta, con el índice del grafo.
+ */
+public class BatchInputFormat extends InputFormat<NullWritable, NullWritable> {
+
+    @Override
+    public List<InputSplit> getSplits(JobContext context) throws IOException, InterruptedException {
+        Configuration conf = context.getConfiguration();
+        List<InputSplit> splits = new ArrayList<>();
+        for (int graph = 0; graph < GraphBatch.numGraphs(conf); graph++) {
+            Path degrees = GraphBatch.degreesPath(conf, graph);
+            FileSystem fs = degrees.getFileSystem(conf);
+            DegreeSequence sequence = DegreeFile.read(fs, degrees, GraphBatch.numNodes(conf, graph));
+
+            int[] bounds = sequence.balancedBounds(GraphBatch.numMappers(conf, graph));
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long work = sequence.degreeSumBefore(bounds[i + 1]) - sequence.degreeSumBefore(bounds[i]);
+                splits.add(new BatchSplit(graph, bounds[i], bounds[i + 1], work));
+            }
+        }
+        return splits;
+    }
+
+    @Override
+    public RecordReader<NullWritable, NullWritable> createRecordReader(InputSplit split, TaskAttemptContext context) {
+        return new EmptyInputFormat.EmptyRecordReader();
+    }
+
+    /**
+     * Rango de nodos [start, end) de un grafo del lote.
+     */
+    public static class BatchSplit extends EmptyInputFormat.EmptySplit {
+        private int graph;
+
+        public BatchSplit() {
+            // Necesario para la deserialización
+        }
+
+        public BatchSplit(int graph, int start, int end, long work) {
+            super(start, end, work);
+            this.graph = graph;
+        }
+
+        public int getGraph() {
+            return graph;
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            super.write(out);
+            out.writeInt(graph);
+        }
+
+        @Override
+        public void readFields(DataInput in) throws IOException {
+            super.readFields(in);
+            graph = in.readInt();
+        }
+    }
+}
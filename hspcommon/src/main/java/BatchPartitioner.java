@@ -0,0 +1,34 @@
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ * DegreeRangePartitioner para un lote de grafos (GraphBatch): el grafo g ocupa los
+ * reducers [g * w, (g + 1) * w) y dentro de ellos se reparte por sus propias fronteras.
+ */
+public class BatchPartitioner extends Partitioner<LongWritable, Writable> implements Configurable {
+
+    private Configuration conf;
+    private int[][] bounds;
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+        this.bounds = new int[GraphBatch.numGraphs(conf)][];
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    @Override
+    public int getPartition(LongWritable key, Writable value, int numPartitions) {
+        int graph = GraphBatch.graphOf(key.get());
+        if (bounds[graph] == null) bounds[graph] = GraphBatch.reducerBounds(conf, graph);
+        int perGraph = numPartitions / bounds.length;
+        return graph * perGraph + DegreeRangePartitioner.rangeOf(bounds[graph], GraphBatch.nodeOf(key.get()));
+    }
+}
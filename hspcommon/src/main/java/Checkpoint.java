@@ -0,0 +1,279 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Estado de una ejecución reanudable (-checkpoint), en checkpoint.dir
+ * (/graph_checkpoint por defecto):
+ *
+ * <pre>
+ *   run.properties     parámetros que determinan el grafo, incluida la semilla
+ *   degrees.dat        secuencia de grados (DegreeFile) que usan todos los intentos
+ *   done/range-0000i   el rango de reducer i tiene su part-r-0000i en la salida;
+ *                      el fichero guarda su longitud
+ *   attempt-*          salida de cada job
+ * </pre>
+ *
+ * Los jobs usan FileOutputCommitter v2, que mueve cada part-r-* a la salida del job al
+ * confirmar su tarea: aunque el job falle, los rangos ya confirmados se recogen en el
+ * siguiente arranque y solo se vuelven a programar los que faltan.
+ */
+public class Checkpoint {
+
+    public static final String DIR = "checkpoint.dir";
+    public static final String DEFAULT_DIR = "/graph_checkpoint";
+    // Rangos de reducer ya terminados, que los mappers no emiten
+    public static final String DONE_RANGES = "checkpoint.done.ranges";
+
+    private static final String PARAMS = "run.properties";
+    private static final String SEED = "seed";
+    private static final String PART_PREFIX = "part-r-";
+
+    private final FileSystem fs;
+    private final Path dir;
+
+    public Checkpoint(FileSystem fs, Configuration conf) {
+        this.fs = fs;
+        this.dir = new Path(conf.get(DIR, DEFAULT_DIR));
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    /**
+     * Empieza o reanuda la ejecución con estos parámetros. Devuelve la semilla: seed si
+     * la ejecución es nueva o la guardada si se reanuda (explicitSeed: seed viene de -seed
+     * y tiene que coincidir).
+     */
+    public long begin(Map<String, String> params, long seed, boolean explicitSeed) throws IOException {
+        Path file = new Path(dir, PARAMS);
+        if (!fs.exists(file)) {
+            Properties saved = new Properties();
+            saved.putAll(params);
+            saved.setProperty(SEED, Long.toString(seed));
+            fs.mkdirs(dir);
+            try (OutputStream out = fs.create(file, true)) {
+                saved.store(out, "Parámetros de la ejecución");
+            }
+            return seed;
+        }
+
+        Properties saved = new Properties();
+        try (InputStream in = fs.open(file)) {
+            saved.load(in);
+        }
+        for (Map.Entry<String, String> param : new TreeMap<>(params).entrySet()) {
+            if (!param.getValue().equals(saved.getProperty(param.getKey()))) {
+                throw new IOException("El checkpoint de " + dir + " es de otra ejecución (" + param.getKey() + "="
+                        + saved.getProperty(param.getKey()) + "): usa los mismos parámetros o bórralo");
+            }
+        }
+        long savedSeed = Long.parseLong(saved.getProperty(SEED));
+        if (explicitSeed && seed != savedSeed) {
+            throw new IOException("El checkpoint de " + dir + " usa la semilla " + savedSeed);
+        }
+        return savedSeed;
+    }
+
+    public Path degreesPath() {
+        return new Path(dir, "degrees.dat");
+    }
+
+    /**
+     * Grados guardados en el checkpoint, o null si la ejecución es nueva.
+     */
+    public DegreeSequence savedDegrees(int numNodes) throws IOException {
+        if (!fs.exists(degreesPath())) return null;
+        return DegreeFile.read(fs, degreesPath(), numNodes);
+    }
+
+    public void saveDegrees(DegreeSequence sequence) throws IOException {
+        DegreeFile.write(fs, degreesPath(), sequence);
+    }
+
+    /**
+     * Recoge los part-r-* confirmados por intentos anteriores, deja en outputDir solo
+     * los part-r-* (y sus estadísticas) de rangos terminados y devuelve qué rangos lo están.
+     */
+    public boolean[] prepare(Path outputDir, int ranges) throws IOException {
+        fs.mkdirs(outputDir);
+        boolean[] done = new boolean[ranges];
+        for (int i = 0; i < ranges; i++) {
+            Path marker = marker(i);
+            if (!fs.exists(marker)) continue;
+            FileStatus part = status(part(outputDir, i));
+            done[i] = part != null && part.getLen() == committedLength(marker);
+            if (!done[i]) fs.delete(marker, false);
+        }
+        for (FileStatus attempt : fs.listStatus(dir, path -> path.getName().startsWith("attempt-"))) {
+            harvest(attempt.getPath(), outputDir, done);
+        }
+
+        // Lo demás (part-* a medias, fragmentos renombrados, índices...) se regenera
+        for (FileStatus file : fs.listStatus(outputDir)) {
+            String name = file.getPath().getName();
+            boolean committed = name.startsWith(PART_PREFIX) && isRange(name, ranges)
+                    && done[Integer.parseInt(name.substring(PART_PREFIX.length()))];
+            for (int i = 0; i < ranges && !committed; i++) {
+                committed = done[i] && name.equals(GraphStats.taskFile('r', i));
+            }
+            if (!committed) fs.delete(file.getPath(), true);
+        }
+        return done;
+    }
+
+    /**
+     * Directorio de salida para un nuevo job.
+     */
+    public Path newAttempt() {
+        return new Path(dir, "attempt-" + System.currentTimeMillis());
+    }
+
+    /**
+     * Mueve a outputDir los part-r-* confirmados en attempt de rangos que no estaban
+     * terminados, con sus estadísticas (GraphStats), los marca y borra el intento.
+     */
+    public void harvest(Path attempt, Path outputDir, boolean[] done) throws IOException {
+        if (!fs.exists(attempt)) return;
+        for (FileStatus file : fs.listStatus(attempt, path -> path.getName().startsWith(PART_PREFIX))) {
+            String name = file.getPath().getName();
+            if (!file.isFile() || !isRange(name, done.length)) continue;
+            int range = Integer.parseInt(name.substring(PART_PREFIX.length()));
+            if (done[range]) continue;
+
+            Path target = part(outputDir, range);
+            if (fs.exists(target)) fs.delete(target, false);
+            if (!fs.rename(file.getPath(), target)) {
+                throw new IOException("No se pudo mover " + file.getPath() + " a " + target);
+            }
+            Path stats = new Path(attempt, GraphStats.taskFile('r', range));
+            if (fs.exists(stats)) {
+                Path statsTarget = new Path(outputDir, stats.getName());
+                fs.delete(statsTarget, false);
+                if (!fs.rename(stats, statsTarget)) {
+                    throw new IOException("No se pudo mover " + stats + " a " + statsTarget);
+                }
+            }
+            try (Writer out = new OutputStreamWriter(fs.create(marker(range), true), StandardCharsets.UTF_8)) {
+                out.write(Long.toString(file.getLen()));
+            }
+            done[range] = true;
+        }
+        fs.delete(attempt, true);
+    }
+
+    /**
+     * Borra el checkpoint al terminar la ejecución completa.
+     */
+    public void delete() throws IOException {
+        fs.delete(dir, true);
+    }
+
+    public static int countPending(boolean[] done) {
+        int pending = 0;
+        for (boolean d : done) {
+            if (!d) pending++;
+        }
+        return pending;
+    }
+
+    public static void setDoneRanges(Configuration conf, boolean[] done) {
+        StringBuilder ranges = new StringBuilder();
+        for (int i = 0; i < done.length; i++) {
+            if (!done[i]) continue;
+            if (ranges.length() > 0) ranges.append(',');
+            ranges.append(i);
+        }
+        conf.set(DONE_RANGES, ranges.toString());
+    }
+
+    /**
+     * Nodos cuyos rangos de reducer faltan por generar en este job: todos si no se
+     * reanuda (ni hay reducers, como en map-only).
+     */
+    public static PendingNodes pendingNodes(Configuration conf, int numReducers) {
+        if (conf.get(DONE_RANGES) == null || numReducers == 0) {
+            return new PendingNodes(null, new boolean[0]);
+        }
+        boolean[] done = new boolean[numReducers];
+        for (int range : conf.getInts(DONE_RANGES)) {
+            if (range < numReducers) done[range] = true;
+        }
+        return new PendingNodes(DegreeRangePartitioner.getBounds(conf, numReducers), done);
+    }
+
+    private Path marker(int range) {
+        return new Path(dir, String.format("done/range-%05d", range));
+    }
+
+    private static Path part(Path outputDir, int range) {
+        return new Path(outputDir, String.format("%s%05d", PART_PREFIX, range));
+    }
+
+    private static boolean isRange(String name, int ranges) {
+        String index = name.substring(PART_PREFIX.length());
+        return index.matches("\\d{5}") && Integer.parseInt(index) < ranges;
+    }
+
+    private FileStatus status(Path path) throws IOException {
+        return fs.exists(path) ? fs.getFileStatus(path) : null;
+    }
+
+    private long committedLength(Path marker) throws IOException {
+        try (FSDataInputStream in = fs.open(marker)) {
+            return Long.parseLong(new String(in.readAllBytes(), StandardCharsets.UTF_8).trim());
+        }
+    }
+
+    /**
+     * Rangos de reducer pendientes sobre los nodos, con las fronteras de
+     * DegreeRangePartitioner (un nodo en una frontera repetida va al último rango).
+     */
+    public static class PendingNodes {
+        private final int[] bounds;
+        private final boolean[] done;
+        private final boolean anyDone;
+        private int range;
+
+        PendingNodes(int[] bounds, boolean[] done) {
+            this.bounds = bounds;
+            this.done = done;
+            boolean any = false;
+            for (boolean d : done) any |= d;
+            this.anyDone = any;
+        }
+
+        /**
+         * Si hay que generar el nodo; es más rápido con nodos en orden creciente.
+         */
+        public boolean contains(int node) {
+            if (!anyDone) return true;
+            if (node < bounds[range]) range = 0;
+            while (range + 1 < done.length && node >= bounds[range + 1]) range++;
+            return !done[range];
+        }
+
+        /**
+         * Si algún nodo de [start, end) está pendiente.
+         */
+        public boolean anyIn(int start, int end) {
+            if (!anyDone) return true;
+            for (int r = 0; r < done.length; r++) {
+                if (!done[r] && Math.max(start, bounds[r]) < Math.min(end, bounds[r + 1])) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.function.IntConsumer;
+
+/**
+ * Lector de la salida CSR (ver CsrOutput) en disco local. offsets.bin y targets.bin se
+ * proyectan en memoria con mmap y se consultan sin parsear ni copiar: el sistema
+ * operativo carga las páginas al tocarlas.
+ *
+ * <pre>
+ *   try (CsrGraph graph = CsrGraph.open(new File("/graph_output"))) {
+ *       graph.forEachNeighbor(node, target -> use(node, target));
+ *   }
+ * </pre>
+ */
+public class CsrGraph implements Closeable {
+
+    // Un MappedByteBuffer no pasa de 2 GB: los arrays se proyectan por segmentos
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+
+    private final int numNodes;
+    private final long numEdges;
+    private final FileChannel offsetsChannel;
+    private final FileChannel targetsChannel;
+    private final MappedByteBuffer[] offsets;
+    private final MappedByteBuffer[] targets;
+
+    private CsrGraph(File dir, Properties header) throws IOException {
+        this.numNodes = Integer.parseInt(header.getProperty("nodes"));
+        this.numEdges = Long.parseLong(header.getProperty("edges"));
+        this.offsetsChannel = FileChannel.open(new File(dir, CsrOutput.OFFSETS).toPath(), StandardOpenOption.READ);
+        this.targetsChannel = FileChannel.open(new File(dir, CsrOutput.TARGETS).toPath(), StandardOpenOption.READ);
+
+        long offsetBytes = (numNodes + 1L) * CsrOutput.OFFSET_BYTES;
+        long targetBytes = numEdges * CsrOutput.TARGET_BYTES;
+        if (offsetsChannel.size() != offsetBytes || targetsChannel.size() != targetBytes) {
+            close();
+            throw new IOException("Los ficheros CSR de " + dir + " no coinciden con " + CsrOutput.HEADER);
+        }
+        this.offsets = map(offsetsChannel, offsetBytes);
+        this.targets = map(targetsChannel, targetBytes);
+    }
+
+    public static CsrGraph open(File dir) throws IOException {
+        Properties header = new Properties();
+        try (InputStream in = new FileInputStream(new File(dir, CsrOutput.HEADER))) {
+            header.load(in);
+        }
+        int version = Integer.parseInt(header.getProperty("version", "0"));
+        if (version != CsrOutput.VERSION) {
+            throw new IOException("Versión de CSR no soportada: " + version);
+        }
+        return new CsrGraph(dir, header);
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, long bytes) throws IOException {
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((bytes + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT)];
+        for (int i = 0; i < segments.length; i++) {
+            long position = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_BYTES, bytes - position));
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    public int numNodes() {
+        return numNodes;
+    }
+
+    public long numEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Posición en targets de la primera arista de node; offset(N) es el total.
+     */
+    public long offset(int node) {
+        if (node < 0 || node > numNodes) {
+            throw new IndexOutOfBoundsException("Nodo fuera de rango: " + node);
+        }
+        // Los segmentos son múltiplo de 8 bytes: un offset nunca queda partido
+        long position = (long) node * CsrOutput.OFFSET_BYTES;
+        return offsets[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & (SEGMENT_BYTES - 1)));
+    }
+
+    public int degree(int node) {
+        return (int) (offset(node + 1) - offset(node));
+    }
+
+    /**
+     * Destino de la arista en la posición edge.
+     */
+    public int target(long edge) {
+        long position = edge * CsrOutput.TARGET_BYTES;
+        return targets[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & (SEGMENT_BYTES - 1)));
+    }
+
+    public int[] neighbors(int node) {
+        long first = offset(node);
+        int[] neighbors = new int[(int) (offset(node + 1) - first)];
+        for (int i = 0; i < neighbors.length; i++) neighbors[i] = target(first + i);
+        return neighbors;
+    }
+
+    public void forEachNeighbor(int node, IntConsumer action) {
+        long end = offset(node + 1);
+        for (long edge = offset(node); edge < end; edge++) action.accept(target(edge));
+    }
+
+    /**
+     * Cierra los canales. Las proyecciones se liberan cuando el recolector las descarta.
+     */
+    @Override
+    public void close() throws IOException {
+        offsetsChannel.close();
+        targetsChannel.close();
+    }
+}
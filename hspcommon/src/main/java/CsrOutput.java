@@ -0,0 +1,84 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Salida CSR (compressed sparse row) para cargar el grafo con mmap sin parsear:
+ *
+ * <pre>
+ *   offsets.bin     int64 little-endian, N + 1 valores: las aristas de n son
+ *                   targets[offsets[n] .. offsets[n + 1])
+ *   targets.bin     int32 little-endian, un destino por arista, agrupados por origen
+ *   csr.properties  versión, N, número de aristas y formato de los dos arrays
+ * </pre>
+ *
+ * Los destinos los escriben las tareas con EdgeSink.TargetSink; los offsets salen del
+ * índice de aristas (EdgeIndex) sin leer la salida. Se lee con CsrGraph.
+ */
+public class CsrOutput {
+
+    public static final int TARGET_BYTES = 4;
+    public static final int OFFSET_BYTES = 8;
+    public static final String OFFSETS = "offsets.bin";
+    public static final String TARGETS = "targets.bin";
+    public static final String HEADER = "csr.properties";
+    public static final int VERSION = 1;
+
+    /**
+     * Completa la salida de un job: une los part-r-* (el reducer i tiene el rango de
+     * nodos [bounds[i], bounds[i + 1])) en targets.bin, comprobando el tamaño de cada
+     * uno contra el índice, y escribe offsets y cabecera.
+     */
+    public static void finishJob(FileSystem fs, Path dir, EdgeIndex index, int[] bounds) throws IOException {
+        FileStatus[] parts = new FileStatus[bounds.length - 1];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = fs.getFileStatus(new Path(dir, String.format("part-r-%05d", i)));
+            long expected = (index.offset(bounds[i + 1]) - index.offset(bounds[i])) * TARGET_BYTES;
+            if (parts[i].getLen() != expected) {
+                throw new IOException(parts[i].getPath() + " tiene " + parts[i].getLen()
+                        + " bytes y el índice indica " + expected);
+            }
+        }
+        // targets.bin tiene que ser un único fichero: concat en HDFS, copia paralela si no
+        PartMerger.merge(fs, dir, parts, new Path(dir, TARGETS), "concat");
+        for (FileStatus part : parts) {
+            if (fs.exists(part.getPath())) fs.delete(part.getPath(), false);
+        }
+        finish(fs, dir, index);
+    }
+
+    /**
+     * Escribe offsets.bin y csr.properties junto a un targets.bin ya completo.
+     */
+    public static void finish(FileSystem fs, Path dir, EdgeIndex index) throws IOException {
+        writeOffsets(fs, new Path(dir, OFFSETS), index);
+        try (Writer out = new OutputStreamWriter(fs.create(new Path(dir, HEADER), true), StandardCharsets.UTF_8)) {
+            out.write("version=" + VERSION + "\n");
+            out.write("nodes=" + index.numNodes() + "\n");
+            out.write("edges=" + index.totalEdges() + "\n");
+            out.write("offsets=" + OFFSETS + " int64le\n");
+            out.write("targets=" + TARGETS + " int32le\n");
+        }
+    }
+
+    static void writeOffsets(FileSystem fs, Path path, EdgeIndex index) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        try (FSDataOutputStream out = fs.create(path, true)) {
+            for (int node = 0; node <= index.numNodes(); node++) {
+                if (!buffer.hasRemaining()) {
+                    out.write(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                buffer.putLong(index.offset(node));
+            }
+            out.write(buffer.array(), 0, buffer.position());
+        }
+    }
+}
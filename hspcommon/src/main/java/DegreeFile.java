@@ -0,0 +1,205 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.zip.CRC32;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.mapreduce.JobContext;
+
+/**
+ * Lectura y escritura de degrees.dat en formato por tramos (versión 1):
+ *
+ * <pre>
+ *   int   MAGIC ("HSPD")
+ *   byte  versión
+ *   int   N
+ *   long  suma total de grados
+ *   long  CRC32 de la carga
+ *   carga: vint número de tramos, y por tramo vint grado y vint número de nodos
+ * </pre>
+ *
+ * Los grados están ordenados de forma descendente (por partes en un grafo ampliado
+ * con -grow), así que el archivo ocupa unos pocos KB aunque N sea muy grande. Cada
+ * tarea decodifica solo los tramos y reconstruye su rango de nodos sin expandir el
+ * vector completo.
+ */
+public class DegreeFile {
+
+    public static final String PATH = "degrees.path";
+
+    private static final int MAGIC = 0x48535044;
+    private static final byte VERSION = 1;
+
+    public static void write(FileSystem fs, Path path, DegreeSequence sequence) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(payload)) {
+            WritableUtils.writeVInt(dos, sequence.numRuns());
+            for (int r = 0; r < sequence.numRuns(); r++) {
+                WritableUtils.writeVInt(dos, sequence.runDegree(r));
+                WritableUtils.writeVInt(dos, sequence.runCount(r));
+            }
+        }
+        byte[] bytes = payload.toByteArray();
+
+        try (FSDataOutputStream out = fs.create(path, true)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(sequence.numNodes());
+            out.writeLong(sequence.totalDegree());
+            out.writeLong(checksum(bytes));
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Secuencia de grados completa (por tramos) del archivo indicado, leída de su
+     * sistema de archivos. Es la lectura del driver, que no tiene caché distribuida.
+     */
+    public static DegreeSequence read(URI uri, Configuration conf, int numNodes) throws IOException {
+        return read(FileSystem.get(uri, conf), new Path(uri), numNodes);
+    }
+
+    /**
+     * Lectura desde una tarea: si uri está en la caché distribuida del job y ya se
+     * localizó, se lee la copia local por el nombre de su enlace en el directorio de
+     * trabajo; si no, la del sistema de archivos.
+     */
+    public static DegreeSequence read(JobContext context, URI uri, int numNodes) throws IOException {
+        File localized = localized(context, uri);
+        if (localized == null) return read(uri, context.getConfiguration(), numNodes);
+        try (InputStream in = new FileInputStream(localized)) {
+            return read(new DataInputStream(in), numNodes, localized.getPath());
+        }
+    }
+
+    /**
+     * Secuencia de grados completa del archivo en fs, sin buscar copias localizadas.
+     */
+    public static DegreeSequence read(FileSystem fs, Path path, int numNodes) throws IOException {
+        try (InputStream in = fs.open(path)) {
+            return read(new DataInputStream(in), numNodes, path.toString());
+        }
+    }
+
+    /**
+     * Secuencia de grados completa del archivo en fs, con el N que indique su cabecera.
+     */
+    public static DegreeSequence read(FileSystem fs, Path path) throws IOException {
+        return read(fs, path, -1);
+    }
+
+    /**
+     * Secuencia de grados del job: la constante de -model ba|copy, regenerada desde la
+     * semilla en modo distribuido o leída del archivo indicado en degrees.path.
+     */
+    public static DegreeSequence load(Configuration conf) throws IOException {
+        return load(conf, null);
+    }
+
+    /**
+     * load() desde una tarea, con la copia de la caché distribuida si la hay.
+     */
+    public static DegreeSequence load(JobContext context) throws IOException {
+        return load(context.getConfiguration(), context);
+    }
+
+    private static DegreeSequence load(Configuration conf, JobContext context) throws IOException {
+        int numNodes = conf.getInt("num.nodes", 1000);
+        if (AttachmentModel.fromConf(conf) != null) {
+            return AttachmentModel.sequence(numNodes, conf.getInt(AttachmentModel.EDGES, 1));
+        }
+        if (conf.getBoolean("degrees.distributed", false)) {
+            return PowerLawGraph.generateSequence(numNodes, conf.getLong("degrees.seed", 0L));
+        }
+        String path = conf.get(PATH);
+        if (path == null) {
+            throw new IOException("Falta " + PATH + " en la configuración del job");
+        }
+        URI uri = new Path(path).toUri();
+        return context == null ? read(uri, conf, numNodes) : read(context, uri, numNodes);
+    }
+
+    /**
+     * Grados de los nodos [start, end) del archivo indicado.
+     */
+    public static int[] readRange(URI uri, Configuration conf, int numNodes, int start, int end) throws IOException {
+        return read(uri, conf, numNodes).slice(start, end);
+    }
+
+    /**
+     * readRange() desde una tarea, con la copia de la caché distribuida si la hay.
+     */
+    public static int[] readRange(JobContext context, URI uri, int numNodes, int start, int end) throws IOException {
+        return read(context, uri, numNodes).slice(start, end);
+    }
+
+    /**
+     * Copia localizada de uri en el directorio de trabajo de la tarea: el enlace se
+     * llama como el fragmento de la URI de caché o, sin fragmento, como el archivo.
+     */
+    private static File localized(JobContext context, URI uri) throws IOException {
+        URI[] cacheFiles = context.getCacheFiles();
+        if (cacheFiles == null) return null;
+        String target = new Path(uri).toUri().getPath();
+        for (URI cached : cacheFiles) {
+            if (!new Path(cached).toUri().getPath().equals(target)) continue;
+            String link = cached.getFragment() != null ? cached.getFragment() : new Path(cached.getPath()).getName();
+            File file = new File(link);
+            return file.isFile() ? file : null;
+        }
+        return null;
+    }
+
+    private static DegreeSequence read(DataInputStream in, int numNodes, String source) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException(source + " no tiene el formato de un archivo de grados");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Versión de " + source + " no soportada: " + version);
+        }
+        int nodesCount = in.readInt();
+        if (numNodes >= 0 && nodesCount != numNodes) {
+            throw new IOException("El número de nodos en " + source + " (" + nodesCount
+                    + ") no coincide con la configuración (" + numNodes + ")");
+        }
+        long totalDegree = in.readLong();
+        long expectedChecksum = in.readLong();
+        byte[] bytes = in.readAllBytes();
+        if (checksum(bytes) != expectedChecksum) {
+            throw new IOException("Checksum incorrecto en " + source);
+        }
+
+        DegreeSequence sequence;
+        try (DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int runs = WritableUtils.readVInt(payload);
+            int[] runDegrees = new int[runs];
+            int[] runCounts = new int[runs];
+            for (int r = 0; r < runs; r++) {
+                runDegrees[r] = WritableUtils.readVInt(payload);
+                runCounts[r] = WritableUtils.readVInt(payload);
+            }
+            sequence = new DegreeSequence(runDegrees, runCounts);
+        }
+
+        if (sequence.numNodes() != nodesCount || sequence.totalDegree() != totalDegree) {
+            throw new IOException("Los tramos de " + source + " no coinciden con la cabecera");
+        }
+        return sequence;
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+}
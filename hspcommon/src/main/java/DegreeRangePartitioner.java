@@ -0,0 +1,91 @@
+import java.util.Arrays;
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ * Asigna a cada reducer un rango contiguo de nodos. Las fronteras las calcula el
+ * driver a partir de las sumas acumuladas de grados, de modo que todos los reducers
+ * emiten un número parecido de aristas aunque los hubs estén en los primeros índices.
+ * Al estar ordenados, concatenar los part-r-* en orden da la lista ordenada por origen.
+ */
+public class DegreeRangePartitioner extends Partitioner<LongWritable, Writable> implements Configurable {
+
+    public static final String BOUNDS = "partition.bounds";
+
+    private Configuration conf;
+    private int[] bounds;
+
+    /**
+     * Guarda en la configuración las fronteras de los rangos de cada reducer.
+     */
+    public static void setBounds(Configuration conf, DegreeSequence sequence, int numPartitions) {
+        setBounds(conf, sequence.balancedBounds(numPartitions));
+    }
+
+    /**
+     * Guarda fronteras ya calculadas: bounds.length - 1 rangos.
+     */
+    public static void setBounds(Configuration conf, int[] bounds) {
+        String[] values = new String[bounds.length];
+        for (int i = 0; i < bounds.length; i++) values[i] = Integer.toString(bounds[i]);
+        conf.setStrings(BOUNDS, values);
+    }
+
+    /**
+     * Fronteras de los rangos; si no están en la configuración, rangos de igual número de nodos.
+     */
+    public static int[] getBounds(Configuration conf, int numPartitions) {
+        int[] bounds = conf.getInts(BOUNDS);
+        if (bounds.length == numPartitions + 1) return bounds;
+
+        int numNodes = conf.getInt("num.nodes", 1000);
+        bounds = new int[numPartitions + 1];
+        for (int i = 0; i <= numPartitions; i++) {
+            bounds[i] = (int) ((long) numNodes * i / numPartitions);
+        }
+        return bounds;
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+        this.bounds = null;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    @Override
+    public int getPartition(LongWritable key, Writable value, int numPartitions) {
+        return partitionOf((int) key.get(), numPartitions);
+    }
+
+    /**
+     * Rango al que pertenece el nodo.
+     */
+    protected int partitionOf(int node, int numPartitions) {
+        if (bounds == null || bounds.length != numPartitions + 1) {
+            bounds = getBounds(conf, numPartitions);
+        }
+        return rangeOf(bounds, node);
+    }
+
+    /**
+     * Rango de bounds (bounds.length - 1 rangos) al que pertenece el nodo.
+     */
+    static int rangeOf(int[] bounds, int node) {
+        int i = Arrays.binarySearch(bounds, node);
+        // Con rangos vacíos hay fronteras repetidas: el nodo va al último rango que empieza en él
+        if (i >= 0) {
+            while (i + 1 < bounds.length && bounds[i + 1] == bounds[i]) i++;
+        } else {
+            i = -i - 2;
+        }
+        return Math.max(0, Math.min(i, bounds.length - 2));
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+
+/**
+ * Secuencia de grados ordenada de forma descendente, guardada como tramos
+ * (grado, número de nodos). Como PowerLawGraph genera los grados ordenados,
+ * el número de tramos es muy pequeño frente a N y cualquier rango de nodos
+ * se puede reconstruir sin expandir el vector completo. Un grafo ampliado con
+ * -grow concatena dos secuencias descendentes (append).
+ */
+public class DegreeSequence {
+
+    private final int[] runDegrees;
+    private final int[] runEnds;      // nodo final (exclusivo) de cada tramo
+    private final long[] runSums;     // suma acumulada de grados al final de cada tramo
+
+    public DegreeSequence(int[] runDegrees, int[] runCounts) {
+        if (runDegrees.length != runCounts.length) {
+            throw new IllegalArgumentException("Tramos de grado y de nodos con distinta longitud");
+        }
+        this.runDegrees = runDegrees.clone();
+        this.runEnds = new int[runDegrees.length];
+        this.runSums = new long[runDegrees.length];
+
+        long nodes = 0;
+        long sum = 0;
+        for (int r = 0; r < runDegrees.length; r++) {
+            if (runCounts[r] < 0 || runDegrees[r] < 0) {
+                throw new IllegalArgumentException("Tramo con grado o número de nodos negativo");
+            }
+            nodes += runCounts[r];
+            sum += (long) runDegrees[r] * runCounts[r];
+            if (nodes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Demasiados nodos en la secuencia");
+            }
+            runEnds[r] = (int) nodes;
+            runSums[r] = sum;
+        }
+    }
+
+    public int numNodes() {
+        return runEnds.length == 0 ? 0 : runEnds[runEnds.length - 1];
+    }
+
+    public long totalDegree() {
+        return runSums.length == 0 ? 0 : runSums[runSums.length - 1];
+    }
+
+    public int numRuns() {
+        return runDegrees.length;
+    }
+
+    public int runDegree(int run) {
+        return runDegrees[run];
+    }
+
+    public int runCount(int run) {
+        return runEnds[run] - runStart(run);
+    }
+
+    private int runStart(int run) {
+        return run == 0 ? 0 : runEnds[run - 1];
+    }
+
+    /**
+     * Índice del tramo que contiene al nodo dado.
+     */
+    private int runOf(int node) {
+        if (node < 0 || node >= numNodes()) {
+            throw new IndexOutOfBoundsException("Nodo fuera de rango: " + node);
+        }
+        int r = Arrays.binarySearch(runEnds, node + 1);
+        return r >= 0 ? firstRunEndingAt(r) : -r - 1;
+    }
+
+    private int firstRunEndingAt(int r) {
+        // Los tramos vacíos repiten el mismo final; el nodo pertenece al primero
+        while (r > 0 && runEnds[r - 1] == runEnds[r]) r--;
+        return r;
+    }
+
+    public int degree(int node) {
+        return runDegrees[runOf(node)];
+    }
+
+    /**
+     * Suma de los grados de los nodos [0, node).
+     */
+    public long degreeSumBefore(int node) {
+        if (node <= 0) return 0;
+        if (node >= numNodes()) return totalDegree();
+        int r = runOf(node);
+        long before = r == 0 ? 0 : runSums[r - 1];
+        return before + (long) runDegrees[r] * (node - runStart(r));
+    }
+
+    /**
+     * Primer nodo n tal que la suma de grados de [0, n) alcanza el objetivo.
+     */
+    public int nodeAtDegreeSum(long target) {
+        if (target <= 0) return 0;
+        if (target >= totalDegree()) return firstNodeAfterLastEdge();
+        int r = Arrays.binarySearch(runSums, target);
+        r = r >= 0 ? r : -r - 1;
+        while (r > 0 && runSums[r - 1] >= target) r--;
+        long before = r == 0 ? 0 : runSums[r - 1];
+        long inRun = (target - before + runDegrees[r] - 1) / runDegrees[r];
+        return (int) (runStart(r) + inRun);
+    }
+
+    private int firstNodeAfterLastEdge() {
+        // Los nodos de grado 0 van al final: el último nodo con aristas cierra la suma
+        for (int r = runDegrees.length - 1; r >= 0; r--) {
+            if (runDegrees[r] > 0) return runEnds[r];
+        }
+        return 0;
+    }
+
+    /**
+     * Divide [0, N) en rangos contiguos con una suma de grados similar. Devuelve
+     * parts + 1 fronteras: el rango i es [bounds[i], bounds[i + 1]).
+     */
+    public int[] balancedBounds(int parts) {
+        int[] bounds = new int[parts + 1];
+        long total = totalDegree();
+        for (int i = 1; i < parts; i++) {
+            bounds[i] = total > 0
+                    ? nodeAtDegreeSum((long) Math.ceil((double) total * i / parts))
+                    : (int) ((long) numNodes() * i / parts);
+            bounds[i] = Math.max(bounds[i], bounds[i - 1]);
+        }
+        bounds[parts] = numNodes();
+        return bounds;
+    }
+
+    /**
+     * Grados de los nodos [start, end) en un vector nuevo.
+     */
+    public int[] slice(int start, int end) {
+        if (start < 0 || end > numNodes() || start > end) {
+            throw new IndexOutOfBoundsException("Rango fuera de la secuencia: [" + start + ", " + end + ")");
+        }
+        int[] out = new int[end - start];
+        if (out.length == 0) return out;
+
+        int r = runOf(start);
+        int i = start;
+        while (i < end) {
+            int to = Math.min(end, runEnds[r]);
+            Arrays.fill(out, i - start, to - start, runDegrees[r]);
+            i = to;
+            r++;
+        }
+        return out;
+    }
+
+    /**
+     * Esta secuencia seguida de los nodos de tail (numerados a partir de numNodes()).
+     */
+    public DegreeSequence append(DegreeSequence tail) {
+        int runs = numRuns() + tail.numRuns();
+        int[] degrees = new int[runs];
+        int[] counts = new int[runs];
+        for (int r = 0; r < runs; r++) {
+            boolean head = r < numRuns();
+            degrees[r] = head ? runDegree(r) : tail.runDegree(r - numRuns());
+            counts[r] = head ? runCount(r) : tail.runCount(r - numRuns());
+        }
+        return new DegreeSequence(degrees, counts);
+    }
+
+    /**
+     * La misma secuencia con los grados mayores que maxDegree reducidos a maxDegree.
+     * Los tramos consecutivos que quedan con el mismo grado se unen.
+     */
+    public DegreeSequence capped(int maxDegree) {
+        int[] degrees = new int[numRuns()];
+        int[] counts = new int[numRuns()];
+        int runs = 0;
+        for (int r = 0; r < numRuns(); r++) {
+            int degree = Math.min(runDegree(r), maxDegree);
+            if (runs > 0 && degrees[runs - 1] == degree) {
+                counts[runs - 1] += runCount(r);
+            } else {
+                degrees[runs] = degree;
+                counts[runs++] = runCount(r);
+            }
+        }
+        return new DegreeSequence(Arrays.copyOf(degrees, runs), Arrays.copyOf(counts, runs));
+    }
+
+    public int[] toArray() {
+        return slice(0, numNodes());
+    }
+}
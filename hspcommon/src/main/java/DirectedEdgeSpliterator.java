@@ -0,0 +1,53 @@
+import java.io.IOException;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Aristas del grafo dirigido con la misma regla que DirectedGraphReducer: cada
+ * nodo solo depende de su grado y de N, así que el rango se divide en cualquier
+ * punto, equilibrando por suma de grados, y el tamaño es exacto.
+ */
+public class DirectedEdgeSpliterator extends EdgeSpliterator {
+
+    private final long numNodes;
+
+    public DirectedEdgeSpliterator(DegreeSequence degrees, int start, int end) {
+        super(degrees, start, end);
+        this.numNodes = degrees.numNodes();
+    }
+
+    /**
+     * Aristas empaquetadas (ver EdgeSpliterator.pack) de los nodos origen [start, end).
+     */
+    public static LongStream edges(DegreeSequence degrees, int start, int end) {
+        return StreamSupport.longStream(new DirectedEdgeSpliterator(degrees, start, end), false);
+    }
+
+    public static LongStream edges(DegreeSequence degrees) {
+        return edges(degrees, 0, degrees.numNodes());
+    }
+
+    @Override
+    protected void emitRuns(int node, EdgeSink sink) throws IOException, InterruptedException {
+        int degree = degrees.degree(node);
+        if (degree > 0) DirectedGraphReducer.writeEdgeAlwaysGoingForward(degree, node, numNodes, sink);
+    }
+
+    @Override
+    protected int splitPoint() {
+        long from = degrees.degreeSumBefore(node + 1);
+        long to = degrees.degreeSumBefore(end);
+        if (to - from < 2) return -1;
+        return degrees.nodeAtDegreeSum(from + (to - from) / 2);
+    }
+
+    @Override
+    protected EdgeSpliterator splitPrefix(int mid) {
+        return new DirectedEdgeSpliterator(degrees, node, mid);
+    }
+
+    @Override
+    public int characteristics() {
+        return super.characteristics() | SIZED | SUBSIZED;
+    }
+}
@@ -0,0 +1,72 @@
+import java.io.IOException;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * The Reducer builds the final edges of the graph in an undirected fashion.
+ */
+public class DirectedGraphReducer extends Reducer<LongWritable, LongWritable, Writable, Writable> {
+
+    private long N;
+    private EdgeSink sink;
+    private final GraphStats stats = new GraphStats();
+    private long nodes;
+    private long edges;
+    private long wrapped;
+    // -model ba|copy: destinos del modelo en lugar de los consecutivos
+    private AttachmentModel model;
+
+    @Override
+    protected void setup(Context context) {
+        this.N = context.getConfiguration().getInt("num.nodes", 1000);
+        this.sink = stats.track(EdgeSink.create(context));
+        this.model = AttachmentModel.fromConf(context.getConfiguration());
+    }
+
+    @Override
+    public void reduce(LongWritable key, Iterable<LongWritable> values, Context context) throws IOException, InterruptedException {
+        long source = key.get();
+        long degree = 0;
+
+        for (LongWritable val : values) {
+            degree += val.get();
+        }
+        
+        // The main logic generates the edges of the undirected graph
+        stats.node(source, degree);
+        if (model != null) {
+            model.writeEdges(source, sink);
+        } else {
+            wrapped += writeEdgeAlwaysGoingForward(degree, source, N, sink);
+        }
+        nodes++;
+        edges += degree;
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        sink.flush();
+        stats.write(context, null);
+        context.getCounter(GraphCounters.NODES_EXPANDED).increment(nodes);
+        context.getCounter(GraphCounters.EDGES).increment(edges);
+        context.getCounter(GraphCounters.WRAPPED_EDGES).increment(wrapped);
+        if (model != null) context.getCounter(GraphCounters.ATTACHMENT_STEPS).increment(model.steps());
+    }
+
+    /**
+     * Helper method to write edges, ensuring each edge is only written once.
+     * The method works by always creating an edge from a lower index node to a higher index node.
+     * It only depends on the node's degree and N, so the map-only mode calls it from the mapper.
+     * Returns the number of edges that wrap around to lower indices.
+     */
+    static long writeEdgeAlwaysGoingForward(long degree, long source, long N, EdgeSink sink) throws IOException, InterruptedException {
+        // Generates edges to nodes with a higher index
+        long forward = Math.max(0, Math.min(degree, N - source - 1));
+        sink.writeRange(source, source + 1, forward);
+
+        // If needed, generates edges to nodes with a lower index to reach the desired degree
+        sink.writeRange(source, 0, degree - forward);
+        return Math.max(0, degree - forward);
+    }
+}
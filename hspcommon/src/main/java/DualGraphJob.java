@@ -0,0 +1,80 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.OutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+
+/**
+ * Modo -both: el grafo dirigido y el no dirigido de la misma secuencia de grados en un
+ * solo job, con una generación de grados, una subida y un shuffle. Cada uno queda en su
+ * subdirectorio de la salida (directed/ y undirected/) con los mismos part-r-* que
+ * daría su generador por separado con los mismos -n, -seed y -w.
+ */
+public class DualGraphJob {
+
+    public static final String DIRECTED = "directed";
+    public static final String UNDIRECTED = "undirected";
+
+    /**
+     * Configura mapper, reducer, rangos y salidas con nombre. El formato de salida del job
+     * (output.format) tiene que estar ya configurado: lo usan las dos salidas.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static void configure(Job job, DegreeSequence sequence, int numWorkers) throws IOException {
+        job.setInputFormatClass(EmptyInputFormat.class);
+        job.setMapperClass(DualGraphMapper.class);
+        job.setReducerClass(DualGraphReducer.class);
+        job.setNumReduceTasks(numWorkers);
+        job.setPartitionerClass(DegreeRangePartitioner.class);
+        DegreeRangePartitioner.setBounds(job.getConfiguration(), sequence, numWorkers);
+        job.setMapOutputKeyClass(LongWritable.class);
+        job.setMapOutputValueClass(LongWritable.class);
+
+        Class<? extends OutputFormat> format;
+        try {
+            format = job.getOutputFormatClass();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+        MultipleOutputs.addNamedOutput(job, DIRECTED, format, job.getOutputKeyClass(), job.getOutputValueClass());
+        MultipleOutputs.addNamedOutput(job, UNDIRECTED, format, job.getOutputKeyClass(), job.getOutputValueClass());
+        // Todo se escribe por las salidas con nombre: sin part-r-* vacíos en la raíz
+        LazyOutputFormat.setOutputFormatClass(job, format);
+    }
+
+    /**
+     * Completa cada subdirectorio como una ejecución suelta: un part-r-* por reducer
+     * (vacío si el rango no tiene aristas), _SUCCESS, las estadísticas de sus tareas en
+     * _stats.json (GraphStats) y, en binary o csr, el índice.
+     */
+    public static void finish(Configuration conf, FileSystem fs, Path outputDir, DegreeSequence sequence,
+            int numWorkers, int numMappers) throws IOException {
+        String outputFormat = conf.get("output.format", "text");
+        for (String name : new String[] {DIRECTED, UNDIRECTED}) {
+            Path dir = new Path(outputDir, name);
+            fs.mkdirs(dir);
+            for (int i = 0; i < numWorkers; i++) {
+                Path part = new Path(dir, String.format("part-r-%05d", i));
+                if (!fs.exists(part)) GraphBatch.createEmptyPart(conf, fs, part);
+            }
+            fs.create(new Path(dir, "_SUCCESS"), true).close();
+            GraphStats.collect(fs, dir).writeJson(fs, dir, name, sequence.totalDegree());
+
+            if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+                EdgeIndex index = DIRECTED.equals(name)
+                        ? EdgeIndex.fromDegrees(sequence)
+                        : UndirectedEdgeSpliterator.edgeIndex(sequence, numMappers);
+                if ("binary".equals(outputFormat)) {
+                    EdgeBinaryOutputFormat.nameShards(fs, dir, index);
+                    index.write(fs, new Path(dir, EdgeBinaryOutputFormat.INDEX));
+                } else {
+                    CsrOutput.finishJob(fs, dir, index, sequence.balancedBounds(numWorkers));
+                }
+            }
+        }
+    }
+}
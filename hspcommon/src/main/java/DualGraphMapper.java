@@ -0,0 +1,37 @@
+import java.io.IOException;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+
+/**
+ * Mapper del modo -both: del mismo tramo de grados emite para cada nodo su grado (regla
+ * dirigida) y su grado tras la reducción local de UndirectedGraphMapper (regla no
+ * dirigida), empaquetados en un solo valor, así que los dos grafos comparten shuffle.
+ */
+public class DualGraphMapper extends UndirectedGraphMapper {
+
+    @Override
+    protected void map(NullWritable key, NullWritable value, Context context) throws IOException, InterruptedException {
+        int[] local = reduceLocally(degrees, context);
+
+        long nodes = 0;
+        for (int i = 0; i < local.length; i++) {
+            if (degrees[i] > 0) {
+                context.write(new LongWritable(start + i), new LongWritable(pack(degrees[i], local[i])));
+                nodes++;
+            }
+        }
+        context.getCounter(GraphCounters.NODES_EMITTED).increment(nodes);
+    }
+
+    static long pack(int degree, int reduced) {
+        return ((long) degree << 32) | reduced;
+    }
+
+    static int degreeOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    static int reducedOf(long packed) {
+        return (int) packed;
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+
+/**
+ * Reducer del modo -both: con el grado de cada nodo aplica la regla de
+ * DirectedGraphReducer y con el grado reducido la de UndirectedGraphReducer dentro de
+ * su rango. Cada grafo va a su salida con nombre (DualGraphJob.DIRECTED y UNDIRECTED).
+ */
+public class DualGraphReducer extends Reducer<LongWritable, LongWritable, Writable, Writable> {
+
+    public enum Edges { DIRECTED, UNDIRECTED }
+
+    private MultipleOutputs<Writable, Writable> outputs;
+    private EdgeSink directed;
+    private EdgeSink undirected;
+    private final GraphStats directedStats = new GraphStats();
+    private final GraphStats undirectedStats = new GraphStats();
+    private UndirectedGraphReducer.BorderDuplicates duplicates;
+    private int N;
+    private long blockStart;
+    private long blockEnd;
+    private long nodes;
+    private long directedEdges;
+    private long undirectedEdges;
+
+    @Override
+    protected void setup(Context context) {
+        Configuration conf = context.getConfiguration();
+        // rango local de este reducer, como en UndirectedGraphReducer
+        int numReducers = context.getNumReduceTasks();
+        int reducerId = context.getTaskAttemptID().getTaskID().getId() % numReducers;
+        int[] bounds = DegreeRangePartitioner.getBounds(conf, numReducers);
+        this.blockStart = bounds[reducerId];
+        this.blockEnd = bounds[reducerId + 1];
+        this.N = conf.getInt("num.nodes", 1000);
+        this.duplicates = new UndirectedGraphReducer.BorderDuplicates(blockStart, blockEnd, N);
+
+        this.outputs = new MultipleOutputs<>(context);
+        this.directed = directedStats.track(sink(context, DualGraphJob.DIRECTED));
+        this.undirected = undirectedStats.track(sink(context, DualGraphJob.UNDIRECTED));
+    }
+
+    private EdgeSink sink(Context context, String name) {
+        String base = name + "/part";
+        return EdgeSink.create(context.getConfiguration(), (key, value) -> {
+            outputs.write(name, key, value, base);
+            context.progress();
+        });
+    }
+
+    @Override
+    public void reduce(LongWritable key, Iterable<LongWritable> values, Context context)
+            throws IOException, InterruptedException {
+        long degree = 0;
+        long reduced = 0;
+        for (LongWritable v : values) {
+            degree += DualGraphMapper.degreeOf(v.get());
+            reduced += DualGraphMapper.reducedOf(v.get());
+        }
+
+        directedStats.node(key.get(), degree);
+        DirectedGraphReducer.writeEdgeAlwaysGoingForward(degree, key.get(), N, directed);
+        if (reduced > 0) {
+            undirectedStats.node(key.get(), reduced);
+            duplicates.node(key.get(), reduced);
+            UndirectedGraphReducer.writeEdges(key.get(), reduced, blockStart, blockEnd, N, undirected);
+        }
+        nodes++;
+        directedEdges += degree;
+        undirectedEdges += reduced;
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        directed.flush();
+        undirected.flush();
+        outputs.close();
+        duplicates.finish(undirectedStats);
+        directedStats.write(context, DualGraphJob.DIRECTED);
+        undirectedStats.write(context, DualGraphJob.UNDIRECTED);
+        context.getCounter(GraphCounters.NODES_EXPANDED).increment(nodes);
+        context.getCounter(Edges.DIRECTED).increment(directedEdges);
+        context.getCounter(Edges.UNDIRECTED).increment(undirectedEdges);
+    }
+}
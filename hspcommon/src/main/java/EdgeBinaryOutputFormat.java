@@ -0,0 +1,86 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+
+/**
+ * Salida binaria de ancho fijo: cada arista ocupa RECORD_BYTES bytes (EdgeSpliterator.pack
+ * en big-endian) y los lotes de BinarySink se escriben tal cual, sin cabeceras ni marcas.
+ *
+ * Con el índice de aristas (EdgeIndex) la posición de cada nodo se calcula sin leer
+ * la salida. Los part-* se renombran a edges-&lt;primera arista&gt;.bin con nameShards, así
+ * que el nombre de cada fragmento dice qué parte de la lista completa contiene y no
+ * hace falta unirlos. Se leen con EdgeBinaryReader.
+ */
+public class EdgeBinaryOutputFormat extends FileOutputFormat<NullWritable, BytesWritable> {
+
+    public static final int RECORD_BYTES = 8;
+    public static final String INDEX = "_INDEX";
+    public static final String SHARD_PREFIX = "edges-";
+    public static final String SHARD_SUFFIX = ".bin";
+
+    public static void configure(Job job) {
+        job.setOutputFormatClass(EdgeBinaryOutputFormat.class);
+        job.setOutputKeyClass(NullWritable.class);
+        job.setOutputValueClass(BytesWritable.class);
+    }
+
+    /**
+     * Nombre del fragmento cuya primera arista está en la posición firstEdge.
+     */
+    public static String shardName(long firstEdge) {
+        return String.format("%s%012d%s", SHARD_PREFIX, firstEdge, SHARD_SUFFIX);
+    }
+
+    /**
+     * Renombra los part-* de dir según su primera arista, borra los vacíos y comprueba
+     * que el total coincide con el índice.
+     */
+    public static void nameShards(FileSystem fs, Path dir, EdgeIndex index) throws IOException {
+        long bytes = 0;
+        for (FileStatus part : fs.listStatus(dir, path -> path.getName().startsWith("part-"))) {
+            if (part.getLen() == 0) {
+                fs.delete(part.getPath(), false);
+                continue;
+            }
+            long firstEdge;
+            try (FSDataInputStream in = fs.open(part.getPath())) {
+                firstEdge = index.offset((int) EdgeSpliterator.source(in.readLong()));
+            }
+            Path shard = new Path(dir, shardName(firstEdge));
+            if (!fs.rename(part.getPath(), shard)) {
+                throw new IOException("No se pudo renombrar " + part.getPath() + " a " + shard);
+            }
+            bytes += part.getLen();
+        }
+        if (bytes != index.totalEdges() * RECORD_BYTES) {
+            throw new IOException("La salida tiene " + bytes / RECORD_BYTES + " aristas y el índice "
+                    + index.totalEdges());
+        }
+    }
+
+    @Override
+    public RecordWriter<NullWritable, BytesWritable> getRecordWriter(TaskAttemptContext job) throws IOException {
+        Path file = getDefaultWorkFile(job, "");
+        DataOutputStream out = file.getFileSystem(job.getConfiguration()).create(file, false);
+        return new RecordWriter<NullWritable, BytesWritable>() {
+            @Override
+            public void write(NullWritable key, BytesWritable value) throws IOException {
+                out.write(value.getBytes(), 0, value.getLength());
+            }
+
+            @Override
+            public void close(TaskAttemptContext context) throws IOException {
+                out.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Acceso aleatorio a la salida de EdgeBinaryOutputFormat: con el índice del directorio
+ * (_INDEX) las aristas de un nodo se leen directamente de su desplazamiento, sin
+ * recorrer lo anterior.
+ *
+ * <pre>
+ *   try (EdgeBinaryReader reader = new EdgeBinaryReader(conf, dir)) {
+ *       for (long edge : reader.edgesOf(node)) use(EdgeSpliterator.target(edge));
+ *   }
+ * </pre>
+ */
+public class EdgeBinaryReader implements Closeable {
+
+    private final FileSystem fs;
+    private final EdgeIndex index;
+    private final Path[] shards;
+    private final long[] firstEdges;
+    private final FSDataInputStream[] streams;
+
+    public EdgeBinaryReader(Configuration conf, Path dir) throws IOException {
+        this.fs = dir.getFileSystem(conf);
+        this.index = EdgeIndex.read(fs, new Path(dir, EdgeBinaryOutputFormat.INDEX));
+
+        FileStatus[] files = fs.listStatus(dir, path -> path.getName().startsWith(EdgeBinaryOutputFormat.SHARD_PREFIX)
+                && path.getName().endsWith(EdgeBinaryOutputFormat.SHARD_SUFFIX));
+        Arrays.sort(files, Comparator.comparingLong(file -> firstEdge(file.getPath())));
+        this.shards = new Path[files.length];
+        this.firstEdges = new long[files.length];
+        for (int i = 0; i < files.length; i++) {
+            shards[i] = files[i].getPath();
+            firstEdges[i] = firstEdge(shards[i]);
+        }
+        this.streams = new FSDataInputStream[files.length];
+    }
+
+    /**
+     * Posición de la primera arista del fragmento, tomada de su nombre.
+     */
+    private static long firstEdge(Path shard) {
+        String name = shard.getName();
+        return Long.parseLong(name.substring(EdgeBinaryOutputFormat.SHARD_PREFIX.length(),
+                name.length() - EdgeBinaryOutputFormat.SHARD_SUFFIX.length()));
+    }
+
+    public EdgeIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Aristas empaquetadas (ver EdgeSpliterator.pack) cuyo origen es node.
+     */
+    public long[] edgesOf(int node) throws IOException {
+        long[] edges = new long[index.edgeCount(node)];
+        read(index.offset(node), edges, 0, edges.length);
+        return edges;
+    }
+
+    /**
+     * Lee count aristas a partir de la posición first de la lista completa.
+     */
+    public void read(long first, long[] edges, int from, int count) throws IOException {
+        if (first < 0 || first + count > index.totalEdges()) {
+            throw new IndexOutOfBoundsException("Aristas fuera de rango: [" + first + ", " + (first + count) + ")");
+        }
+        byte[] bytes = new byte[Math.min(count, 1 << 16) * EdgeBinaryOutputFormat.RECORD_BYTES];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (count > 0) {
+            int shard = shardOf(first);
+            long shardEnd = shard + 1 < firstEdges.length ? firstEdges[shard + 1] : index.totalEdges();
+            int chunk = (int) Math.min(Math.min(count, shardEnd - first), bytes.length / EdgeBinaryOutputFormat.RECORD_BYTES);
+
+            long position = (first - firstEdges[shard]) * EdgeBinaryOutputFormat.RECORD_BYTES;
+            stream(shard).readFully(position, bytes, 0, chunk * EdgeBinaryOutputFormat.RECORD_BYTES);
+            buffer.clear();
+            for (int i = 0; i < chunk; i++) edges[from++] = buffer.getLong();
+
+            first += chunk;
+            count -= chunk;
+        }
+    }
+
+    private int shardOf(long edge) throws IOException {
+        int i = Arrays.binarySearch(firstEdges, edge);
+        i = i >= 0 ? i : -i - 2;
+        if (i < 0) throw new IOException("Ningún fragmento contiene la arista " + edge);
+        return i;
+    }
+
+    private FSDataInputStream stream(int shard) throws IOException {
+        if (streams[shard] == null) streams[shard] = fs.open(shards[shard]);
+        return streams[shard];
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < streams.length; i++) {
+            if (streams[i] != null) {
+                streams[i].close();
+                streams[i] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * Suma prefija del número de aristas de cada nodo: offset(n) es la posición de la
+ * primera arista de n en la lista completa, ordenada por nodo origen. Con registros
+ * de ancho fijo da el desplazamiento en bytes de cualquier nodo sin recorrer la salida.
+ *
+ * Se guarda por tramos de nodos consecutivos con el mismo número de aristas, en el
+ * mismo formato que degrees.dat (versión 1):
+ *
+ * <pre>
+ *   int   MAGIC ("HSPI")
+ *   byte  versión
+ *   int   N
+ *   long  número total de aristas
+ *   long  CRC32 de la carga
+ *   carga: vint número de tramos, y por tramo vint aristas por nodo y vint número de nodos
+ * </pre>
+ */
+public class EdgeIndex {
+
+    private static final int MAGIC = 0x48535049;
+    private static final byte VERSION = 1;
+
+    private final int[] runEdges;
+    private final int[] runEnds;      // nodo final (exclusivo) de cada tramo
+    private final long[] runSums;     // aristas acumuladas al final de cada tramo
+
+    private EdgeIndex(int[] runEdges, int[] runEnds, long[] runSums) {
+        this.runEdges = runEdges;
+        this.runEnds = runEnds;
+        this.runSums = runSums;
+    }
+
+    /**
+     * Índice de un grafo en el que cada nodo tiene exactamente su grado en aristas.
+     */
+    public static EdgeIndex fromDegrees(DegreeSequence degrees) {
+        Builder builder = new Builder();
+        for (int r = 0; r < degrees.numRuns(); r++) {
+            builder.add(degrees.runDegree(r), degrees.runCount(r));
+        }
+        return builder.build();
+    }
+
+    public int numNodes() {
+        return runEnds.length == 0 ? 0 : runEnds[runEnds.length - 1];
+    }
+
+    public long totalEdges() {
+        return runSums.length == 0 ? 0 : runSums[runSums.length - 1];
+    }
+
+    /**
+     * Índice del tramo que contiene al nodo dado.
+     */
+    private int runOf(int node) {
+        if (node < 0 || node >= numNodes()) {
+            throw new IndexOutOfBoundsException("Nodo fuera de rango: " + node);
+        }
+        int r = Arrays.binarySearch(runEnds, node + 1);
+        return r >= 0 ? r : -r - 1;
+    }
+
+    private int runStart(int run) {
+        return run == 0 ? 0 : runEnds[run - 1];
+    }
+
+    public int edgeCount(int node) {
+        return runEdges[runOf(node)];
+    }
+
+    /**
+     * Número de aristas de los nodos [0, node), es decir, la posición de la primera
+     * arista de node. offset(N) es el total.
+     */
+    public long offset(int node) {
+        if (node <= 0) return 0;
+        if (node >= numNodes()) return totalEdges();
+        int r = runOf(node);
+        long before = r == 0 ? 0 : runSums[r - 1];
+        return before + (long) runEdges[r] * (node - runStart(r));
+    }
+
+    /**
+     * Nodo origen de la arista en la posición dada.
+     */
+    public int nodeAt(long edge) {
+        if (edge < 0 || edge >= totalEdges()) {
+            throw new IndexOutOfBoundsException("Arista fuera de rango: " + edge);
+        }
+        int r = Arrays.binarySearch(runSums, edge + 1);
+        r = r >= 0 ? r : -r - 1;
+        // Los tramos sin aristas repiten la suma; la arista está en el primero que la supera
+        while (r > 0 && runSums[r - 1] > edge) r--;
+        long before = r == 0 ? 0 : runSums[r - 1];
+        return (int) (runStart(r) + (edge - before) / runEdges[r]);
+    }
+
+    public void write(FileSystem fs, Path path) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(payload)) {
+            WritableUtils.writeVInt(dos, runEdges.length);
+            for (int r = 0; r < runEdges.length; r++) {
+                WritableUtils.writeVInt(dos, runEdges[r]);
+                WritableUtils.writeVInt(dos, runEnds[r] - runStart(r));
+            }
+        }
+        byte[] bytes = payload.toByteArray();
+
+        try (FSDataOutputStream out = fs.create(path, true)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(numNodes());
+            out.writeLong(totalEdges());
+            out.writeLong(checksum(bytes));
+            out.write(bytes);
+        }
+    }
+
+    public static EdgeIndex read(FileSystem fs, Path path) throws IOException {
+        try (FSDataInputStream in = fs.open(path)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " no es un índice de aristas");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Versión de índice no soportada: " + version);
+            }
+            int numNodes = in.readInt();
+            long totalEdges = in.readLong();
+            long expectedChecksum = in.readLong();
+            byte[] bytes = in.readAllBytes();
+            if (checksum(bytes) != expectedChecksum) {
+                throw new IOException("Checksum incorrecto en " + path);
+            }
+
+            Builder builder = new Builder();
+            try (DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                int runs = WritableUtils.readVInt(payload);
+                for (int r = 0; r < runs; r++) {
+                    int edges = WritableUtils.readVInt(payload);
+                    builder.add(edges, WritableUtils.readVInt(payload));
+                }
+            }
+            EdgeIndex index = builder.build();
+            if (index.numNodes() != numNodes || index.totalEdges() != totalEdges) {
+                throw new IOException("Los tramos de " + path + " no coinciden con la cabecera");
+            }
+            return index;
+        }
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Construye el índice nodo a nodo, en orden, agrupando los nodos consecutivos con
+     * el mismo número de aristas.
+     */
+    public static class Builder {
+        private int[] runEdges = new int[16];
+        private int[] runEnds = new int[16];
+        private long[] runSums = new long[16];
+        private int runs;
+        private long nodes;
+        private long edges;
+
+        public Builder add(int edgesPerNode) {
+            return add(edgesPerNode, 1);
+        }
+
+        /**
+         * Añade count nodos con edgesPerNode aristas cada uno.
+         */
+        public Builder add(int edgesPerNode, int count) {
+            if (edgesPerNode < 0 || count < 0) {
+                throw new IllegalArgumentException("Aristas y nodos no pueden ser negativos");
+            }
+            if (count == 0) return this;
+            nodes += count;
+            edges += (long) edgesPerNode * count;
+            if (nodes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Demasiados nodos en el índice");
+            }
+            if (runs == 0 || runEdges[runs - 1] != edgesPerNode) {
+                if (runs == runEdges.length) {
+                    runEdges = Arrays.copyOf(runEdges, 2 * runs);
+                    runEnds = Arrays.copyOf(runEnds, 2 * runs);
+                    runSums = Arrays.copyOf(runSums, 2 * runs);
+                }
+                runEdges[runs++] = edgesPerNode;
+            }
+            runEnds[runs - 1] = (int) nodes;
+            runSums[runs - 1] = edges;
+            return this;
+        }
+
+        public EdgeIndex build() {
+            return new EdgeIndex(Arrays.copyOf(runEdges, runs), Arrays.copyOf(runEnds, runs),
+                    Arrays.copyOf(runSums, runs));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * Registro comprimido de aristas: las aristas (source, firstTarget), (source, firstTarget + 1),
+ * ..., (source, firstTarget + count - 1). Los destinos de cada nodo forman a lo sumo unos
+ * pocos tramos consecutivos, así que un hub se escribe en unos bytes en lugar de una
+ * línea por arista.
+ */
+public class EdgeInterval implements Writable {
+
+    private long source;
+    private long firstTarget;
+    private long count;
+
+    public EdgeInterval() {
+    }
+
+    public EdgeInterval(long source, long firstTarget, long count) {
+        set(source, firstTarget, count);
+    }
+
+    public void set(long source, long firstTarget, long count) {
+        this.source = source;
+        this.firstTarget = firstTarget;
+        this.count = count;
+    }
+
+    public long getSource() {
+        return source;
+    }
+
+    public long getFirstTarget() {
+        return firstTarget;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        WritableUtils.writeVLong(out, source);
+        WritableUtils.writeVLong(out, firstTarget);
+        WritableUtils.writeVLong(out, count);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        source = WritableUtils.readVLong(in);
+        firstTarget = WritableUtils.readVLong(in);
+        count = WritableUtils.readVLong(in);
+    }
+
+    @Override
+    public String toString() {
+        return source + "\t" + firstTarget + "\t" + count;
+    }
+}
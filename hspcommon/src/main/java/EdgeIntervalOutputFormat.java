@@ -0,0 +1,46 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.apache.hadoop.util.ReflectionUtils;
+
+/**
+ * Salida binaria de tramos de aristas sobre SequenceFile: es divisible y admite
+ * compresión por bloques. Se lee con EdgeIntervalReader o con SequenceFileInputFormat.
+ */
+public class EdgeIntervalOutputFormat extends SequenceFileOutputFormat<NullWritable, EdgeInterval> {
+
+    /**
+     * Configura el job para escribir tramos, opcionalmente comprimidos por bloques.
+     */
+    public static void configure(Job job, boolean compress) {
+        job.setOutputFormatClass(EdgeIntervalOutputFormat.class);
+        job.setOutputKeyClass(NullWritable.class);
+        job.setOutputValueClass(EdgeInterval.class);
+        if (compress) {
+            FileOutputFormat.setCompressOutput(job, true);
+            setOutputCompressionType(job, SequenceFile.CompressionType.BLOCK);
+        }
+    }
+
+    /**
+     * Escritor de un fichero de tramos con el mismo formato que produce el job,
+     * para generar la salida fuera de MapReduce.
+     */
+    public static SequenceFile.Writer createWriter(Configuration conf, Path file, boolean compress) throws IOException {
+        SequenceFile.Writer.Option compression = compress
+                ? SequenceFile.Writer.compression(SequenceFile.CompressionType.BLOCK,
+                        ReflectionUtils.newInstance(DefaultCodec.class, conf))
+                : SequenceFile.Writer.compression(SequenceFile.CompressionType.NONE);
+        return SequenceFile.createWriter(conf,
+                SequenceFile.Writer.file(file),
+                SequenceFile.Writer.keyClass(NullWritable.class),
+                SequenceFile.Writer.valueClass(EdgeInterval.class),
+                compression);
+    }
+}
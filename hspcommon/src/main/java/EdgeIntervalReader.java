@@ -0,0 +1,121 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+
+/**
+ * Lee la salida de EdgeIntervalOutputFormat (un archivo o un directorio con part-*,
+ * ordenados por el primer nodo origen de cada uno) y expande los tramos en aristas sobre la marcha, sin materializarlos.
+ *
+ * <pre>
+ *   try (EdgeIntervalReader reader = new EdgeIntervalReader(conf, dir)) {
+ *       while (reader.nextEdge()) use(reader.getSource(), reader.getTarget());
+ *   }
+ * </pre>
+ */
+public class EdgeIntervalReader implements Closeable {
+
+    private final Configuration conf;
+    private final List<Path> files;
+    private int nextFile;
+    private SequenceFile.Reader reader;
+
+    private final EdgeInterval interval = new EdgeInterval();
+    private long remaining;
+    private long target;
+
+    public EdgeIntervalReader(Configuration conf, Path path) throws IOException {
+        this.conf = conf;
+        this.files = new ArrayList<>();
+        FileSystem fs = path.getFileSystem(conf);
+        if (fs.getFileStatus(path).isDirectory()) {
+            FileStatus[] parts = fs.listStatus(path);
+            Arrays.sort(parts);
+            for (FileStatus part : parts) {
+                if (part.isFile() && part.getPath().getName().startsWith("part-")) files.add(part.getPath());
+            }
+            sortByFirstSource();
+        } else {
+            files.add(path);
+        }
+    }
+
+    /**
+     * Los part-r-* ya siguen el orden de los rangos, pero los part-m-* del modo map-only
+     * se numeran por tamaño de split: se ordenan por el primer tramo de cada archivo.
+     */
+    private void sortByFirstSource() throws IOException {
+        Map<Path, Long> firstSource = new HashMap<>();
+        for (Path file : files) {
+            long source = Long.MAX_VALUE;
+            try (SequenceFile.Reader first = new SequenceFile.Reader(conf, SequenceFile.Reader.file(file))) {
+                if (first.next(NullWritable.get(), interval)) source = interval.getSource();
+            }
+            firstSource.put(file, source);
+        }
+        files.sort(Comparator.comparing(firstSource::get));
+    }
+
+    /**
+     * Lee el siguiente tramo completo; devuelve null al terminar.
+     */
+    public EdgeInterval nextInterval() throws IOException {
+        while (true) {
+            if (reader == null) {
+                if (nextFile >= files.size()) return null;
+                reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(files.get(nextFile++)));
+            }
+            if (reader.next(NullWritable.get(), interval)) {
+                remaining = 0;
+                return interval;
+            }
+            reader.close();
+            reader = null;
+        }
+    }
+
+    /**
+     * Avanza a la siguiente arista; devuelve false al terminar.
+     */
+    public boolean nextEdge() throws IOException {
+        if (remaining > 0) {
+            remaining--;
+            target++;
+            return true;
+        }
+        while (nextInterval() != null) {
+            if (interval.getCount() > 0) {
+                remaining = interval.getCount() - 1;
+                target = interval.getFirstTarget();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getSource() {
+        return interval.getSource();
+    }
+
+    public long getTarget() {
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+}
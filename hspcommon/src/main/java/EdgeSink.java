@@ -0,0 +1,232 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+
+/**
+ * Destino común de las aristas que generan mappers y reducers. Las aristas llegan
+ * como tramos (source, firstTarget, count) y cada implementación decide cómo
+ * serializarlas, reutilizando siempre los mismos Writables.
+ *
+ * Hay que llamar a flush() en cleanup() para vaciar el último lote.
+ */
+public abstract class EdgeSink {
+
+    /**
+     * Destino de los pares (clave, valor): el contexto de la tarea o, en el motor
+     * local, un escritor de fichero.
+     */
+    public interface Output {
+        void write(Writable key, Writable value) throws IOException, InterruptedException;
+    }
+
+    protected final Output output;
+
+    protected EdgeSink(Output output) {
+        this.output = output;
+    }
+
+    /**
+     * Sink de una tarea. Cada lote avisa de progreso: un hub de millones de aristas
+     * no debe superar mapreduce.task.timeout por no leer entrada mientras escribe.
+     */
+    public static EdgeSink create(TaskInputOutputContext<?, ?, Writable, Writable> context) {
+        return create(context.getConfiguration(), (key, value) -> {
+            context.write(key, value);
+            context.progress();
+        });
+    }
+
+    /**
+     * Sink según output.format: "intervals" escribe un EdgeInterval por tramo,
+     * "binary" un registro de ancho fijo por arista, "csr" solo el destino de cada
+     * arista y "text" (por defecto) una línea "source\ttarget" por arista.
+     */
+    public static EdgeSink create(Configuration conf, Output output) {
+        String format = conf.get("output.format", "text");
+        if ("intervals".equals(format)) {
+            return new IntervalSink(output);
+        }
+        if ("binary".equals(format)) {
+            return new BinarySink(output);
+        }
+        if ("csr".equals(format)) {
+            return new TargetSink(output);
+        }
+        return new TextSink(output);
+    }
+
+    /**
+     * Bytes por arista de los formatos de ancho fijo ("binary" y "csr"), o 0.
+     */
+    public static int recordBytes(Configuration conf) {
+        String format = conf.get("output.format", "text");
+        if ("binary".equals(format)) return EdgeBinaryOutputFormat.RECORD_BYTES;
+        if ("csr".equals(format)) return CsrOutput.TARGET_BYTES;
+        return 0;
+    }
+
+    /**
+     * Escribe las aristas (source, firstTarget) .. (source, firstTarget + count - 1).
+     */
+    public abstract void writeRange(long source, long firstTarget, long count) throws IOException, InterruptedException;
+
+    public void flush() throws IOException, InterruptedException {
+    }
+
+    /**
+     * Un registro EdgeInterval por tramo.
+     */
+    public static class IntervalSink extends EdgeSink {
+        private final EdgeInterval interval = new EdgeInterval();
+
+        public IntervalSink(Output output) {
+            super(output);
+        }
+
+        @Override
+        public void writeRange(long source, long firstTarget, long count) throws IOException, InterruptedException {
+            if (count <= 0) return;
+            interval.set(source, firstTarget, count);
+            output.write(NullWritable.get(), interval);
+        }
+    }
+
+    /**
+     * Registros de EdgeBinaryOutputFormat.RECORD_BYTES bytes con la arista empaquetada
+     * (EdgeSpliterator.pack) en big-endian, escritos por lotes como un BytesWritable.
+     */
+    public static class BinarySink extends EdgeSink {
+        private static final int BATCH_BYTES = 1 << 16;
+
+        private final byte[] buffer = new byte[BATCH_BYTES];
+        private final BytesWritable batch = new BytesWritable(buffer);
+        private int length;
+
+        public BinarySink(Output output) {
+            super(output);
+        }
+
+        @Override
+        public void writeRange(long source, long firstTarget, long count) throws IOException, InterruptedException {
+            if (count <= 0) return;
+            long edge = EdgeSpliterator.pack(source, firstTarget);
+            for (long i = 0; i < count; i++, edge++) {
+                if (length + EdgeBinaryOutputFormat.RECORD_BYTES > buffer.length) flush();
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    buffer[length++] = (byte) (edge >>> shift);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException, InterruptedException {
+            if (length == 0) return;
+            batch.setSize(length);
+            output.write(NullWritable.get(), batch);
+            length = 0;
+        }
+    }
+
+    /**
+     * Array de destinos de CSR: un int32 little-endian por arista, en el orden en que
+     * llegan. El origen no se escribe; sale de los offsets (CsrOutput).
+     */
+    public static class TargetSink extends EdgeSink {
+        private static final int BATCH_BYTES = 1 << 16;
+
+        private final byte[] buffer = new byte[BATCH_BYTES];
+        private final BytesWritable batch = new BytesWritable(buffer);
+        private int length;
+
+        public TargetSink(Output output) {
+            super(output);
+        }
+
+        @Override
+        public void writeRange(long source, long firstTarget, long count) throws IOException, InterruptedException {
+            if (count <= 0) return;
+            long end = firstTarget + count;
+            for (long target = firstTarget; target < end; target++) {
+                if (length + CsrOutput.TARGET_BYTES > buffer.length) flush();
+                buffer[length++] = (byte) target;
+                buffer[length++] = (byte) (target >>> 8);
+                buffer[length++] = (byte) (target >>> 16);
+                buffer[length++] = (byte) (target >>> 24);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException, InterruptedException {
+            if (length == 0) return;
+            batch.setSize(length);
+            output.write(NullWritable.get(), batch);
+            length = 0;
+        }
+    }
+
+    /**
+     * Líneas "source\ttarget" formateadas en un búfer de bytes propio y escritas por
+     * lotes como un único Text con clave nula: TextOutputFormat produce exactamente
+     * los mismos bytes que escribiendo cada arista como un par de LongWritable, pero
+     * sin crear objetos por arista y con una llamada a write() por lote.
+     */
+    public static class TextSink extends EdgeSink {
+        private static final int BATCH_BYTES = 1 << 16;
+        // Línea más larga posible: dos long con signo, tabulador y salto de línea
+        private static final int MAX_LINE_BYTES = 2 * 20 + 2;
+
+        private final Text batch = new Text();
+        private final byte[] buffer = new byte[BATCH_BYTES];
+        private final byte[] digits = new byte[20];
+        private int length;
+
+        public TextSink(Output output) {
+            super(output);
+        }
+
+        @Override
+        public void writeRange(long source, long firstTarget, long count) throws IOException, InterruptedException {
+            if (count <= 0) return;
+            long end = firstTarget + count;
+            for (long target = firstTarget; target < end; target++) {
+                if (length + MAX_LINE_BYTES > buffer.length) flush();
+                length = appendLong(source, length);
+                buffer[length++] = '\t';
+                length = appendLong(target, length);
+                buffer[length++] = '\n';
+            }
+        }
+
+        @Override
+        public void flush() throws IOException, InterruptedException {
+            if (length == 0) return;
+            // TextOutputFormat añade el último salto de línea
+            batch.set(buffer, 0, length - 1);
+            output.write(NullWritable.get(), batch);
+            length = 0;
+        }
+
+        private int appendLong(long value, int pos) {
+            if (value < 0) {
+                buffer[pos++] = '-';
+                if (value == Long.MIN_VALUE) {
+                    byte[] min = Long.toString(value).substring(1).getBytes();
+                    System.arraycopy(min, 0, buffer, pos, min.length);
+                    return pos + min.length;
+                }
+                value = -value;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            while (n > 0) buffer[pos++] = digits[--n];
+            return pos;
+        }
+    }
+}
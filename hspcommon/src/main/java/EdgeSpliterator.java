@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Recorrido perezoso y divisible de las aristas de un rango de nodos origen, para
+ * usar el generador como librería (StreamSupport.longStream) sin escribir ficheros.
+ *
+ * Cada arista va empaquetada en un long: el origen en los 32 bits altos y el destino
+ * en los bajos (los nodos son int). Se desempaqueta con source() y target().
+ *
+ * Las subclases aplican la regla de aristas del reducer correspondiente nodo a nodo,
+ * así que la memoria es constante: solo se guardan los tramos del nodo en curso.
+ */
+public abstract class EdgeSpliterator implements Spliterator.OfLong {
+
+    protected final DegreeSequence degrees;
+    protected int node;     // siguiente nodo origen por expandir
+    protected int end;
+
+    private final RunBuffer runs = new RunBuffer();
+    private long source;
+    private int run;
+    private long offset;
+
+    protected EdgeSpliterator(DegreeSequence degrees, int start, int end) {
+        if (start < 0 || end > degrees.numNodes() || start > end) {
+            throw new IndexOutOfBoundsException("Rango fuera de la secuencia: [" + start + ", " + end + ")");
+        }
+        this.degrees = degrees;
+        this.node = start;
+        this.end = end;
+    }
+
+    public static long pack(long source, long target) {
+        return source << 32 | target;
+    }
+
+    public static long source(long edge) {
+        return edge >>> 32;
+    }
+
+    public static long target(long edge) {
+        return edge & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Escribe en el sink los tramos de aristas de node; los nodos llegan en orden creciente.
+     */
+    protected abstract void emitRuns(int node, EdgeSink sink) throws IOException, InterruptedException;
+
+    /**
+     * Nodo en (node, end) por el que dividir, o -1 si el rango no se puede dividir.
+     */
+    protected abstract int splitPoint();
+
+    /**
+     * Spliterator para [node, mid) que continúa el estado actual; este pasa a empezar en mid.
+     */
+    protected abstract EdgeSpliterator splitPrefix(int mid);
+
+    private boolean nextNode() {
+        while (node < end) {
+            source = node;
+            runs.clear();
+            try {
+                emitRuns(node++, runs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            run = 0;
+            offset = 0;
+            if (runs.size > 0) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (run >= runs.size && !nextNode()) return false;
+        action.accept(pack(source, runs.firstTarget[run] + offset));
+        if (++offset == runs.count[run]) {
+            run++;
+            offset = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        do {
+            for (; run < runs.size; run++, offset = 0) {
+                long edge = pack(source, runs.firstTarget[run] + offset);
+                for (long i = offset; i < runs.count[run]; i++) {
+                    action.accept(edge++);
+                }
+            }
+        } while (nextNode());
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        int mid = splitPoint();
+        if (mid <= node || mid >= end) return null;
+        EdgeSpliterator prefix = splitPrefix(mid);
+        prefix.end = mid;
+        // El nodo a medio expandir se queda en el prefijo
+        prefix.runs.copyFrom(runs);
+        prefix.source = source;
+        prefix.run = run;
+        prefix.offset = offset;
+        runs.clear();
+        run = 0;
+        offset = 0;
+        node = mid;
+        return prefix;
+    }
+
+    /**
+     * Cota superior de las aristas que quedan: los grados de los nodos por expandir
+     * más lo pendiente del nodo en curso.
+     */
+    @Override
+    public long estimateSize() {
+        long pending = -offset;
+        for (int r = run; r < runs.size; r++) pending += runs.count[r];
+        return pending + degrees.degreeSumBefore(end) - degrees.degreeSumBefore(node);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * Sink que guarda los tramos de un nodo en lugar de escribirlos.
+     */
+    private static class RunBuffer extends EdgeSink {
+        long[] firstTarget = new long[4];
+        long[] count = new long[4];
+        int size;
+
+        RunBuffer() {
+            super(null);
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void copyFrom(RunBuffer other) {
+            firstTarget = Arrays.copyOf(other.firstTarget, other.firstTarget.length);
+            count = Arrays.copyOf(other.count, other.count.length);
+            size = other.size;
+        }
+
+        @Override
+        public void writeRange(long source, long first, long length) {
+            if (length <= 0) return;
+            if (size == count.length) {
+                firstTarget = Arrays.copyOf(firstTarget, 2 * size);
+                count = Arrays.copyOf(count, 2 * size);
+            }
+            firstTarget[size] = first;
+            count[size] = length;
+            size++;
+        }
+    }
+}
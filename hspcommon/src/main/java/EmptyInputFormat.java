@@ -14,16 +14,23 @@ public class EmptyInputFormat extends InputFormat<NullWritable, NullWritable> {
 
     /**
      * Este método crea un número de splits igual al número de mappers deseado,
-     * sin necesidad de archivos de entrada.
+     * sin necesidad de archivos de entrada. Cada split lleva un rango contiguo de
+     * nodos con una parte similar de la suma total de grados. Al reanudar (-checkpoint)
+     * se omiten los splits cuyos nodos caen todos en rangos de reducer ya terminados.
      */
     @Override
     public List<InputSplit> getSplits(JobContext context) throws IOException, InterruptedException {
         Configuration conf = context.getConfiguration();
         int numMappers = conf.getInt("num.mappers", 1);
+        DegreeSequence sequence = DegreeFile.load(conf);
+        int[] bounds = sequence.balancedBounds(numMappers);
+        Checkpoint.PendingNodes pending = Checkpoint.pendingNodes(conf, context.getNumReduceTasks());
         
         List<InputSplit> splits = new ArrayList<>(numMappers);
         for (int i = 0; i < numMappers; i++) {
-            splits.add(new EmptySplit());
+            if (!pending.anyIn(bounds[i], bounds[i + 1])) continue;
+            long work = sequence.degreeSumBefore(bounds[i + 1]) - sequence.degreeSumBefore(bounds[i]);
+            splits.add(new EmptySplit(bounds[i], bounds[i + 1], work));
         }
         return splits;
     }
@@ -38,12 +45,35 @@ public class EmptyInputFormat extends InputFormat<NullWritable, NullWritable> {
     }
 
     /**
-     * Un split vacío para representar una tarea de mapper sin datos de entrada.
+     * Un split sin datos de entrada: solo el rango de nodos [start, end) de la tarea
+     * y la suma de grados del rango como estimación del trabajo.
      */
     public static class EmptySplit extends InputSplit implements org.apache.hadoop.io.Writable {
+        private int start;
+        private int end;
+        private long work;
+
+        public EmptySplit() {
+            // Necesario para la deserialización
+        }
+
+        public EmptySplit(int start, int end, long work) {
+            this.start = start;
+            this.end = end;
+            this.work = work;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
         @Override
         public long getLength() throws IOException, InterruptedException {
-            return 0;
+            return work;
         }
 
         @Override
@@ -53,12 +83,16 @@ public class EmptyInputFormat extends InputFormat<NullWritable, NullWritable> {
 
         @Override
         public void write(DataOutput out) throws IOException {
-            // No hay datos para escribir
+            out.writeInt(start);
+            out.writeInt(end);
+            out.writeLong(work);
         }
 
         @Override
         public void readFields(DataInput in) throws IOException {
-            // No hay datos para leer
+            start = in.readInt();
+            end = in.readInt();
+            work = in.readLong();
         }
     }
     
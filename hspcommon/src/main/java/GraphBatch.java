@@ -0,0 +1,197 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Lote de grafos generados en un solo job (-batch <fichero>). Cada línea del fichero
+ * describe un grafo; las líneas vacías y las que empiezan por # se ignoran:
+ *
+ * <pre>
+ *   # nodos   semilla  modo        salida
+ *   100000    1        directed    /datasets/directed-1e5
+ *   1000000   1        undirected  /datasets/undirected-1e6
+ * </pre>
+ *
+ * El modo (directed o undirected) elige la regla de BatchGraphMapper y
+ * BatchGraphReducer, así que hspdg y hspug admiten los dos en el mismo lote. En el
+ * job cada grafo tiene sus propios splits y sus propios reducers (num.workers por
+ * grafo), así que su salida es la misma que la de una ejecución suelta del generador
+ * de su modo con los mismos -n, -seed y -w. Las claves intermedias llevan el índice del grafo en los 32
+ * bits altos y el nodo en los bajos.
+ */
+public class GraphBatch {
+
+    public static final String GRAPHS = "batch.graphs";
+    private static final String PREFIX = "batch.graph.";
+
+    /**
+     * Un grafo del lote.
+     */
+    public static class Entry {
+        public final int numNodes;
+        public final long seed;
+        public final String mode;
+        public final Path output;
+
+        public Entry(int numNodes, long seed, String mode, Path output) {
+            this.numNodes = numNodes;
+            this.seed = seed;
+            this.mode = mode;
+            this.output = output;
+        }
+    }
+
+    /**
+     * Lee el fichero del lote; los errores de formato indican la línea.
+     */
+    public static List<Entry> read(FileSystem fs, Path spec) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Set<Path> outputs = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(spec), StandardCharsets.UTF_8))) {
+            String line;
+            for (int number = 1; (line = reader.readLine()) != null; number++) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] fields = line.split("\\s+");
+                if (fields.length != 4) {
+                    throw new IllegalArgumentException(spec + ":" + number + ": se esperaba 'nodos semilla modo salida'");
+                }
+                try {
+                    Entry entry = new Entry(Integer.parseInt(fields[0]), Long.parseLong(fields[1]), fields[2],
+                            new Path(fields[3]));
+                    if (entry.numNodes < 1) throw new NumberFormatException("nodos < 1");
+                    if (!"directed".equals(entry.mode) && !"undirected".equals(entry.mode)) {
+                        throw new IllegalArgumentException(spec + ":" + number + ": modo " + entry.mode
+                                + " desconocido (directed|undirected)");
+                    }
+                    if (!outputs.add(entry.output)) {
+                        throw new IllegalArgumentException(spec + ":" + number + ": salida repetida " + entry.output);
+                    }
+                    entries.add(entry);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(spec + ":" + number + ": " + e.getMessage());
+                }
+            }
+        }
+        if (entries.isEmpty()) throw new IllegalArgumentException(spec + " no describe ningún grafo");
+        return entries;
+    }
+
+    /**
+     * Guarda en la configuración del job los datos que las tareas necesitan del grafo:
+     * su modo, N, su fichero de grados, su número de mappers y las fronteras de sus
+     * reducers.
+     */
+    public static void setGraph(Configuration conf, int graph, String mode, int numNodes, Path degrees,
+            int numMappers, int[] reducerBounds) {
+        String[] values = new String[reducerBounds.length];
+        for (int i = 0; i < reducerBounds.length; i++) values[i] = Integer.toString(reducerBounds[i]);
+        conf.set(PREFIX + graph + ".mode", mode);
+        conf.setInt(PREFIX + graph + ".nodes", numNodes);
+        conf.set(PREFIX + graph + ".degrees", degrees.toString());
+        conf.setInt(PREFIX + graph + ".mappers", numMappers);
+        conf.setStrings(PREFIX + graph + ".bounds", values);
+        conf.setInt(GRAPHS, Math.max(conf.getInt(GRAPHS, 0), graph + 1));
+    }
+
+    public static int numGraphs(Configuration conf) {
+        return conf.getInt(GRAPHS, 0);
+    }
+
+    public static boolean isDirected(Configuration conf, int graph) {
+        return "directed".equals(conf.get(PREFIX + graph + ".mode"));
+    }
+
+    public static int numNodes(Configuration conf, int graph) {
+        return conf.getInt(PREFIX + graph + ".nodes", 0);
+    }
+
+    public static Path degreesPath(Configuration conf, int graph) {
+        return new Path(conf.get(PREFIX + graph + ".degrees"));
+    }
+
+    public static int numMappers(Configuration conf, int graph) {
+        return conf.getInt(PREFIX + graph + ".mappers", 1);
+    }
+
+    public static int[] reducerBounds(Configuration conf, int graph) {
+        return conf.getInts(PREFIX + graph + ".bounds");
+    }
+
+    /**
+     * Grafo del reducer: cada grafo ocupa numReducers / numGraphs reducers seguidos.
+     */
+    public static int graphOfReducer(Configuration conf, int reducer, int numReducers) {
+        return reducer / (numReducers / numGraphs(conf));
+    }
+
+    public static long key(int graph, int node) {
+        return ((long) graph << 32) | node;
+    }
+
+    public static int graphOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int nodeOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Ruta base (relativa a la salida del job) de los ficheros del grafo en MultipleOutputs.
+     */
+    public static String baseOutput(int graph) {
+        return graphDir(graph) + "/part";
+    }
+
+    /**
+     * Mueve la salida del grafo a output con los part-r-* (y sus _stats-r-*) numerados
+     * desde 0, como en una ejecución suelta. Un reducer sin aristas no crea fichero: se
+     * deja uno vacío para que estén todos los rangos.
+     */
+    public static void publish(Configuration conf, FileSystem fs, Path jobOutput, int graph, int reducersPerGraph,
+            Path output) throws IOException {
+        if (fs.exists(output)) fs.delete(output, true);
+        fs.mkdirs(output);
+        Path graphDir = new Path(jobOutput, graphDir(graph));
+        for (int i = 0; i < reducersPerGraph; i++) {
+            Path part = new Path(graphDir, String.format("part-r-%05d", graph * reducersPerGraph + i));
+            Path target = new Path(output, String.format("part-r-%05d", i));
+            if (fs.exists(part)) {
+                if (!fs.rename(part, target)) throw new IOException("No se pudo mover " + part + " a " + target);
+            } else {
+                createEmptyPart(conf, fs, target);
+            }
+            Path stats = new Path(graphDir, GraphStats.taskFile('r', graph * reducersPerGraph + i));
+            if (fs.exists(stats) && !fs.rename(stats, new Path(output, GraphStats.taskFile('r', i)))) {
+                throw new IOException("No se pudo mover " + stats + " a " + output);
+            }
+        }
+        fs.create(new Path(output, "_SUCCESS"), true).close();
+    }
+
+    /**
+     * part-r-* sin aristas en el formato de output.format: en "intervals" un SequenceFile
+     * vacío, que EdgeIntervalReader puede abrir; en el resto un fichero vacío.
+     */
+    public static void createEmptyPart(Configuration conf, FileSystem fs, Path part) throws IOException {
+        if ("intervals".equals(conf.get("output.format"))) {
+            EdgeIntervalOutputFormat.createWriter(conf, fs.makeQualified(part), conf.getBoolean("output.compress", false))
+                    .close();
+        } else {
+            fs.create(part, true).close();
+        }
+    }
+
+    static String graphDir(int graph) {
+        return String.format("g%05d", graph);
+    }
+}
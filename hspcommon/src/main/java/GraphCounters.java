@@ -0,0 +1,13 @@
+/**
+ * Contadores propios de las tareas de generación. Los de tiempo van en milisegundos
+ * y se suman entre tareas. El grado máximo de cada tarea no es un contador (uno por
+ * tarea agotaría el límite de Hadoop): va en su _stats-* (GraphStats).
+ */
+public enum GraphCounters {
+    DEGREE_LOAD_MILLIS,     // lectura o regeneración del tramo de grados en setup()
+    NODES_EMITTED,          // pares (nodo, grado) emitidos por los mappers
+    NODES_EXPANDED,         // nodos cuyas aristas se han escrito
+    EDGES,                  // aristas escritas
+    WRAPPED_EDGES,          // aristas que vuelven al inicio del rango de destinos
+    ATTACHMENT_STEPS        // saltos para resolver los destinos de -model ba|copy
+}
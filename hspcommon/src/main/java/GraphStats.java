@@ -0,0 +1,375 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+
+/**
+ * Estadísticas del grafo calculadas mientras se emiten las aristas, sin una segunda
+ * pasada por la salida. Cada tarea (o rango del motor local) acumula las suyas con
+ * track() y node(), las deja en un _stats-* de su salida y el driver las combina con
+ * collect() en _stats.json:
+ *
+ * <pre>
+ *   {"graph": "directed", "nodes": 2900, "requested_degree": 16503, "edges": 16503,
+ *    "self_loops": 0, "multi_edges": 0, "backward_edges": 12, "short_nodes": 0,
+ *    "degree_deficit": 0, "sequence_degree": 16503, "max_degree": 412,
+ *    "max_degree_by_task": {"r-00000": 412, "r-00001": 9, ...},
+ *    "out_degree_histogram": {"1": 1500, "2-3": 800, ...}}
+ * </pre>
+ *
+ * Por nodo se miden sus tramos de destinos: los lazos (tramos que contienen al origen),
+ * las aristas repetidas del mismo origen (tramos solapados) y el grado de salida real
+ * (destinos distintos sin el propio nodo) frente al pedido. Las aristas hacia nodos
+ * anteriores (backward_edges) acotan en el grafo no dirigido los duplicados de borde;
+ * el recuento exacto (undirected_duplicates: pares escritos en los dos sentidos) lo
+ * da UndirectedGraphReducer.BorderDuplicates con borderDuplicates(), y collect() le
+ * suma los pares de dos hubs, que pueden ser de bloques distintos.
+ * max_degree es el mayor grado pedido de un nodo; collect() lo guarda además por tarea.
+ */
+public class GraphStats {
+
+    public static final String FILE = "_stats.json";
+    static final String TASK_PREFIX = "_stats-";
+
+    // Cubo k del histograma: grados en [2^(k-1), 2^k); el cubo 0 es el grado 0
+    private final long[] histogram = new long[64];
+    private long nodes;
+    private long requested;
+    private long edges;
+    private long selfLoops;
+    private long multiEdges;
+    private long backwardEdges;
+    private long shortNodes;
+    private long deficit;
+    private long maxDegree;
+    // -1 si no se cuentan (grafo dirigido o -symmetric)
+    private long undirectedDuplicates = -1;
+    // Hubs de los bloques, (nodo << 32) | grado, en el grafo de numNodes nodos
+    private long[] hubs = new long[4];
+    private int numHubs;
+    private long numNodes;
+    // Grado máximo de cada _stats-* combinado por collect(), por el sufijo de su nombre
+    private final Map<String, Long> taskMaxDegree = new TreeMap<>();
+
+    // Tramos del nodo en curso
+    private long source = -1;
+    private long nodeRequested;
+    private long[] starts = new long[4];
+    private long[] ends = new long[4];
+    private int ranges;
+
+    /**
+     * Sink que pasa los tramos a sink y los anota para el nodo en curso.
+     */
+    public EdgeSink track(EdgeSink sink) {
+        return new EdgeSink(null) {
+            @Override
+            public void writeRange(long source, long firstTarget, long count) throws IOException, InterruptedException {
+                if (count > 0) add(firstTarget, count);
+                sink.writeRange(source, firstTarget, count);
+            }
+
+            @Override
+            public void flush() throws IOException, InterruptedException {
+                sink.flush();
+            }
+        };
+    }
+
+    /**
+     * Empieza un nodo con el grado pedido; los tramos que siguen por el sink de track()
+     * son suyos. Cierra el nodo anterior.
+     */
+    public void node(long source, long requestedDegree) {
+        finish();
+        this.source = source;
+        this.nodeRequested = requestedDegree;
+    }
+
+    private void add(long firstTarget, long count) {
+        if (ranges == starts.length) {
+            starts = Arrays.copyOf(starts, ranges * 2);
+            ends = Arrays.copyOf(ends, ranges * 2);
+        }
+        // Orden por inicio: casi siempre llegan ya ordenados o son dos o tres
+        int i = ranges++;
+        while (i > 0 && starts[i - 1] > firstTarget) {
+            starts[i] = starts[i - 1];
+            ends[i] = ends[i - 1];
+            i--;
+        }
+        starts[i] = firstTarget;
+        ends[i] = firstTarget + count;
+    }
+
+    /**
+     * Cierra el nodo en curso. Hay que llamarlo antes de write() o merge().
+     */
+    public void finish() {
+        if (source < 0) return;
+        long written = 0;
+        long distinct = 0;
+        long coveredTo = Long.MIN_VALUE;
+        boolean selfLoop = false;
+        for (int i = 0; i < ranges; i++) {
+            long start = starts[i];
+            long end = ends[i];
+            written += end - start;
+            if (start <= source && source < end) selfLoops++;
+            if (start < source) backwardEdges += Math.min(end, source) - start;
+            // Parte del tramo que no cubrían los anteriores
+            long from = Math.max(start, coveredTo);
+            if (end > from) {
+                distinct += end - from;
+                if (from <= source && source < end) selfLoop = true;
+                coveredTo = end;
+            }
+        }
+        long realized = distinct - (selfLoop ? 1 : 0);
+        nodes++;
+        requested += nodeRequested;
+        maxDegree = Math.max(maxDegree, nodeRequested);
+        edges += written;
+        multiEdges += written - distinct;
+        histogram[64 - Long.numberOfLeadingZeros(realized)]++;
+        if (realized < nodeRequested) {
+            shortNodes++;
+            deficit += nodeRequested - realized;
+        }
+        source = -1;
+        ranges = 0;
+    }
+
+    /**
+     * Duplicados de borde de un bloque del grafo no dirigido y sus hubs, cuyos pares
+     * entre sí cuenta collect().
+     */
+    public void borderDuplicates(long duplicates, long numNodes, long[] hubs) {
+        this.undirectedDuplicates = Math.max(undirectedDuplicates, 0) + duplicates;
+        this.numNodes = numNodes;
+        for (long hub : hubs) addHub(hub);
+    }
+
+    private void addHub(long hub) {
+        if (numHubs == hubs.length) hubs = Arrays.copyOf(hubs, numHubs * 2);
+        hubs[numHubs++] = hub;
+    }
+
+    public synchronized void merge(GraphStats other) {
+        other.finish();
+        for (int i = 0; i < histogram.length; i++) histogram[i] += other.histogram[i];
+        nodes += other.nodes;
+        requested += other.requested;
+        edges += other.edges;
+        selfLoops += other.selfLoops;
+        multiEdges += other.multiEdges;
+        backwardEdges += other.backwardEdges;
+        shortNodes += other.shortNodes;
+        deficit += other.deficit;
+        maxDegree = Math.max(maxDegree, other.maxDegree);
+        taskMaxDegree.putAll(other.taskMaxDegree);
+        if (other.undirectedDuplicates >= 0) {
+            borderDuplicates(other.undirectedDuplicates, other.numNodes, Arrays.copyOf(other.hubs, other.numHubs));
+        }
+    }
+
+    /**
+     * Escribe las estadísticas de la tarea en el directorio de trabajo de su salida
+     * (subdir si no es nulo): se confirman con sus part-* y quedan junto a ellos.
+     */
+    public void write(TaskInputOutputContext<?, ?, ?, ?> context, String subdir)
+            throws IOException, InterruptedException {
+        Path dir = FileOutputFormat.getWorkOutputPath(context);
+        if (subdir != null) dir = new Path(dir, subdir);
+        write(dir.getFileSystem(context.getConfiguration()), new Path(dir, taskFile(context.getTaskAttemptID())));
+    }
+
+    /**
+     * _stats-m-00000 o _stats-r-00000: el mismo número que el part-* de la tarea.
+     */
+    static String taskFile(TaskAttemptID attempt) {
+        char type = attempt.getTaskType() == TaskType.MAP ? 'm' : 'r';
+        return taskFile(type, attempt.getTaskID().getId());
+    }
+
+    static String taskFile(char type, int task) {
+        return String.format("%s%c-%05d", TASK_PREFIX, type, task);
+    }
+
+    /**
+     * Formato "clave=valor" por línea; los cubos vacíos del histograma no se escriben.
+     */
+    public void write(FileSystem fs, Path path) throws IOException {
+        finish();
+        try (Writer out = new OutputStreamWriter(fs.create(path, true), StandardCharsets.UTF_8)) {
+            out.write("nodes=" + nodes + "\nrequested=" + requested + "\nedges=" + edges
+                    + "\nself_loops=" + selfLoops + "\nmulti_edges=" + multiEdges
+                    + "\nbackward_edges=" + backwardEdges + "\nshort_nodes=" + shortNodes
+                    + "\ndeficit=" + deficit + "\nmax_degree=" + maxDegree + "\n");
+            if (undirectedDuplicates >= 0) {
+                out.write("undirected_duplicates=" + undirectedDuplicates + "\nnum_nodes=" + numNodes + "\n");
+            }
+            for (int i = 0; i < numHubs; i++) {
+                out.write("hub." + (hubs[i] >>> 32) + "=" + (hubs[i] & 0xffffffffL) + "\n");
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                if (histogram[i] != 0) out.write("bucket." + i + "=" + histogram[i] + "\n");
+            }
+        }
+    }
+
+    static GraphStats read(FileSystem fs, Path path) throws IOException {
+        GraphStats stats = new GraphStats();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(fs.open(path), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                int eq = line.indexOf('=');
+                if (eq < 0) continue;
+                String key = line.substring(0, eq);
+                long value = Long.parseLong(line.substring(eq + 1));
+                switch (key) {
+                    case "nodes": stats.nodes = value; break;
+                    case "requested": stats.requested = value; break;
+                    case "edges": stats.edges = value; break;
+                    case "self_loops": stats.selfLoops = value; break;
+                    case "multi_edges": stats.multiEdges = value; break;
+                    case "backward_edges": stats.backwardEdges = value; break;
+                    case "short_nodes": stats.shortNodes = value; break;
+                    case "deficit": stats.deficit = value; break;
+                    case "max_degree": stats.maxDegree = value; break;
+                    case "undirected_duplicates": stats.undirectedDuplicates = value; break;
+                    case "num_nodes": stats.numNodes = value; break;
+                    default:
+                        if (key.startsWith("bucket.")) {
+                            stats.histogram[Integer.parseInt(key.substring("bucket.".length()))] = value;
+                        } else if (key.startsWith("hub.")) {
+                            stats.addHub((Long.parseLong(key.substring("hub.".length())) << 32) | value);
+                        }
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Combina los _stats-* de las tareas en dir. Se quedan junto a sus part-*: -grow
+     * sustituye los de los rangos que regenera y vuelve a combinarlos todos.
+     */
+    public static GraphStats collect(FileSystem fs, Path dir) throws IOException {
+        GraphStats total = new GraphStats();
+        for (FileStatus file : fs.listStatus(dir, path -> path.getName().startsWith(TASK_PREFIX))) {
+            GraphStats task = read(fs, file.getPath());
+            task.taskMaxDegree.put(file.getPath().getName().substring(TASK_PREFIX.length()), task.maxDegree);
+            total.merge(task);
+        }
+        total.countHubPairs();
+        return total;
+    }
+
+    /**
+     * Suma a undirectedDuplicates los pares de hubs que se cubren mutuamente: los hubs
+     * recorren [0, N), así que el par puede repartirse entre dos bloques.
+     */
+    private void countHubPairs() {
+        for (int i = 0; i < numHubs; i++) {
+            long hub = hubs[i] >>> 32;
+            long degree = hubs[i] & 0xffffffffL;
+            for (int j = i + 1; j < numHubs; j++) {
+                long other = hubs[j] >>> 32;
+                long otherDegree = hubs[j] & 0xffffffffL;
+                if (UndirectedGraphReducer.hubCovers(hub, degree, other, numNodes)
+                        && UndirectedGraphReducer.hubCovers(other, otherDegree, hub, numNodes)) {
+                    undirectedDuplicates++;
+                }
+            }
+        }
+        numHubs = 0;
+    }
+
+    public long requested() {
+        finish();
+        return requested;
+    }
+
+    /**
+     * Pares del grafo no dirigido escritos en los dos sentidos; -1 si no se cuentan.
+     */
+    public long undirectedDuplicates() {
+        return undirectedDuplicates;
+    }
+
+    /**
+     * Escribe _stats.json en dir. sequenceDegree es la suma de grados de la secuencia:
+     * en el dirigido coincide con requested_degree; en el no dirigido cada arista suma
+     * grado a sus dos extremos y requested_degree es solo el grado reducido de salida.
+     */
+    public Path writeJson(FileSystem fs, Path dir, String graph, long sequenceDegree) throws IOException {
+        finish();
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"graph\": \"").append(graph).append('"');
+        json.append(", \"nodes\": ").append(nodes);
+        json.append(", \"requested_degree\": ").append(requested);
+        json.append(", \"edges\": ").append(edges);
+        json.append(", \"self_loops\": ").append(selfLoops);
+        json.append(", \"multi_edges\": ").append(multiEdges);
+        json.append(", \"backward_edges\": ").append(backwardEdges);
+        if (undirectedDuplicates >= 0) json.append(", \"undirected_duplicates\": ").append(undirectedDuplicates);
+        json.append(", \"short_nodes\": ").append(shortNodes);
+        json.append(", \"degree_deficit\": ").append(deficit);
+        json.append(", \"sequence_degree\": ").append(sequenceDegree);
+        json.append(", \"max_degree\": ").append(maxDegree);
+        if (!taskMaxDegree.isEmpty()) {
+            json.append(", \"max_degree_by_task\": {");
+            String separator = "";
+            for (Map.Entry<String, Long> task : taskMaxDegree.entrySet()) {
+                json.append(separator).append('"').append(task.getKey()).append("\": ").append(task.getValue());
+                separator = ", ";
+            }
+            json.append('}');
+        }
+        json.append(", \"out_degree_histogram\": {");
+        String separator = "";
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] == 0) continue;
+            json.append(separator).append('"').append(bucketLabel(i)).append("\": ").append(histogram[i]);
+            separator = ", ";
+        }
+        json.append("}}\n");
+
+        Path path = new Path(dir, FILE);
+        try (Writer out = new OutputStreamWriter(fs.create(path, true), StandardCharsets.UTF_8)) {
+            out.write(json.toString());
+        }
+        return path;
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket <= 1) return Integer.toString(bucket);
+        long low = 1L << (bucket - 1);
+        long high = (1L << bucket) - 1;
+        return low + "-" + high;
+    }
+
+    /**
+     * Resumen de una línea para la consola.
+     */
+    public String summary() {
+        finish();
+        String duplicates = undirectedDuplicates >= 0 ? " (" + undirectedDuplicates + " en los dos sentidos)" : "";
+        return String.format("%d aristas, %d lazos, %d repetidas, %d hacia atrás%s, %d nodos con grado"
+                + " real menor que el pedido (faltan %d), grado máximo %d", edges, selfLoops, multiEdges,
+                backwardEdges, duplicates, shortNodes, deficit, maxDegree);
+    }
+}
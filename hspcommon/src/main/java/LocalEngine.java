@@ -0,0 +1,209 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+
+/**
+ * Motor de ejecución local: reparte rangos de nodos entre los hilos de un
+ * ForkJoinPool dentro del propio proceso y escribe los part-* directamente, con
+ * los mismos nombres y formato que el job MapReduce. Para grafos pequeños evita
+ * el envío y el arranque del job.
+ */
+public class LocalEngine {
+
+    // Máximo de aristas con el que "-engine auto" elige el motor local
+    public static final String MAX_EDGES = "engine.local.max.edges";
+    public static final long DEFAULT_MAX_EDGES = 20_000_000L;
+
+    public interface RangeTask {
+        void run(int index, int start, int end) throws IOException, InterruptedException;
+    }
+
+    public interface RangeWriter {
+        void write(int start, int end, EdgeSink sink) throws IOException, InterruptedException;
+    }
+
+    /**
+     * Decide el motor: "local" y "hadoop" se respetan; "auto" usa el local si el grafo
+     * no supera engine.local.max.edges y no hay un cluster configurado: ni YARN ni un
+     * fs.defaultFS distinto de file:/// (la salida iría a otro sistema de ficheros).
+     */
+    public static boolean useLocal(String engine, Configuration conf, long totalEdges) {
+        if ("local".equals(engine)) return true;
+        if ("hadoop".equals(engine)) return false;
+        return totalEdges <= conf.getLong(MAX_EDGES, DEFAULT_MAX_EDGES)
+                && "local".equals(conf.get("mapreduce.framework.name", "local"))
+                && "file".equals(FileSystem.getDefaultUri(conf).getScheme());
+    }
+
+    /**
+     * Ejecuta la tarea sobre cada rango [bounds[i], bounds[i + 1]) en paralelo y
+     * espera a que terminen todas. El primer error se relanza como IOException.
+     */
+    public static void forEachRange(int[] bounds, RangeTask task) throws IOException {
+        int parts = bounds.length - 1;
+        if (parts < 1) return;
+
+        List<Callable<Void>> tasks = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            int index = i;
+            tasks.add(() -> {
+                task.run(index, bounds[index], bounds[index + 1]);
+                return null;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parts, Runtime.getRuntime().availableProcessors()));
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Motor local interrumpido");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Error en el motor local", cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Escribe un fichero prefix-0000i por rango, en el formato de output.format, y
+     * marca el directorio con _SUCCESS como haría el OutputCommitter.
+     */
+    public static void writeParts(Configuration conf, FileSystem fs, Path outputDir, int[] bounds,
+                                  String prefix, RangeWriter writer) throws IOException {
+        fs.mkdirs(outputDir);
+        forEachRange(bounds, (index, start, end) -> {
+            Path file = new Path(outputDir, String.format("%s%05d", prefix, index));
+            try (PartWriter out = new PartWriter(conf, fs, fs.makeQualified(file))) {
+                EdgeSink sink = EdgeSink.create(conf, out);
+                writer.write(start, end, sink);
+                sink.flush();
+            }
+        });
+        fs.create(new Path(outputDir, "_SUCCESS"), true).close();
+    }
+
+    /**
+     * Salida de ancho fijo ("binary" o "csr") en un único fichero reservado de antemano
+     * con su tamaño final: cada rango escribe en paralelo a partir del desplazamiento
+     * que da el índice, así que no hay part-* que unir. El rango que no ocupa
+     * exactamente lo que indica el índice es un error. Necesita un sistema de ficheros
+     * local: los demás no admiten escrituras en desplazamientos arbitrarios.
+     */
+    public static void writeAtOffsets(Configuration conf, FileSystem fs, Path file, int[] bounds, EdgeIndex index,
+                                      RangeWriter writer) throws IOException {
+        int recordBytes = EdgeSink.recordBytes(conf);
+        if (recordBytes == 0) {
+            throw new IllegalArgumentException("El formato " + conf.get("output.format") + " no es de ancho fijo");
+        }
+        if (!"file".equals(fs.getUri().getScheme())) {
+            throw new IOException("El formato " + conf.get("output.format") + " del motor local requiere un"
+                    + " sistema de ficheros local y " + file + " está en " + fs.getUri());
+        }
+        if (fs.exists(file)) fs.delete(file, false);
+        fs.mkdirs(file.getParent());
+        File target = new File(fs.makeQualified(file).toUri());
+
+        try (RandomAccessFile out = new RandomAccessFile(target, "rw")) {
+            out.setLength(index.totalEdges() * recordBytes);
+            FileChannel channel = out.getChannel();
+            forEachRange(bounds, (i, start, end) -> {
+                OffsetWriter range = new OffsetWriter(channel,
+                        index.offset(start) * recordBytes, index.offset(end) * recordBytes);
+                EdgeSink sink = EdgeSink.create(conf, range);
+                writer.write(start, end, sink);
+                sink.flush();
+                if (range.position != range.limit) {
+                    throw new IOException("El rango [" + start + ", " + end + ") no ocupa lo que indica el índice");
+                }
+            });
+        }
+    }
+
+    /**
+     * Escribe los lotes de un sink de ancho fijo en [position, limit) de un fichero compartido.
+     */
+    private static class OffsetWriter implements EdgeSink.Output {
+        private final FileChannel channel;
+        private final long limit;
+        private long position;
+
+        OffsetWriter(FileChannel channel, long position, long limit) {
+            this.channel = channel;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(Writable key, Writable value) throws IOException {
+            BytesWritable batch = (BytesWritable) value;
+            if (position + batch.getLength() > limit) {
+                throw new IOException("Aristas fuera del rango reservado por el índice");
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(batch.getBytes(), 0, batch.getLength());
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+        }
+    }
+
+    /**
+     * Un fichero part-*: líneas como TextOutputFormat con clave nula, o tramos en
+     * SequenceFile como EdgeIntervalOutputFormat.
+     */
+    private static class PartWriter implements EdgeSink.Output, Closeable {
+        private final FSDataOutputStream text;
+        private final SequenceFile.Writer intervals;
+
+        PartWriter(Configuration conf, FileSystem fs, Path file) throws IOException {
+            if ("intervals".equals(conf.get("output.format", "text"))) {
+                this.text = null;
+                this.intervals = EdgeIntervalOutputFormat.createWriter(conf, file,
+                        conf.getBoolean("output.compress", false));
+            } else {
+                this.text = fs.create(file, true);
+                this.intervals = null;
+            }
+        }
+
+        @Override
+        public void write(Writable key, Writable value) throws IOException {
+            if (intervals != null) {
+                intervals.append(key, value);
+                return;
+            }
+            Text line = (Text) value;
+            text.write(line.getBytes(), 0, line.getLength());
+            text.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (intervals != null) intervals.close();
+            if (text != null) text.close();
+        }
+    }
+}
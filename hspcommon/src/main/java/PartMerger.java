@@ -0,0 +1,245 @@
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Une los part-* de salida, ya ordenados por nodo origen, sin pasar por el bucle
+ * de copia de 8 KB del driver. Modos:
+ *   auto     - copia paralela; conserva los part-*.
+ *   copy     - copia paralela con bloques grandes (ver copy()).
+ *   concat   - FileSystem.concat si el sistema de ficheros lo admite (en HDFS solo
+ *              se mueven bloques, pero los part-* desaparecen: pasan a formar el
+ *              fichero final); si no, copia paralela.
+ *   manifest - no copia datos; escribe la lista ordenada de part-* para que los
+ *              consumidores los lean directamente.
+ */
+public class PartMerger {
+
+    public static final String MANIFEST = "_MANIFEST";
+
+    private static final int CHUNK_BYTES = 1 << 20;
+    // Bloques leídos por adelantado de cada part-* en curso
+    private static final int CHUNKS_AHEAD = 4;
+    private static final int COPY_THREADS = 4;
+
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    /**
+     * Une los part-* en mergedFile, o escribe outputDir/_MANIFEST en modo "manifest".
+     * Devuelve el fichero escrito.
+     */
+    public static Path merge(FileSystem fs, Path outputDir, FileStatus[] parts, Path mergedFile, String mode)
+            throws IOException {
+        if ("manifest".equals(mode)) {
+            Path manifest = new Path(outputDir, MANIFEST);
+            writeManifest(fs, manifest, parts);
+            return manifest;
+        }
+        if ("concat".equals(mode) && concat(fs, parts, mergedFile)) {
+            return mergedFile;
+        }
+        copy(fs, parts, mergedFile);
+        return mergedFile;
+    }
+
+    /**
+     * Una ruta cualificada por línea, en el orden de los nodos origen.
+     */
+    static void writeManifest(FileSystem fs, Path manifest, FileStatus[] parts) throws IOException {
+        try (Writer out = new OutputStreamWriter(fs.create(manifest, true), StandardCharsets.UTF_8)) {
+            for (FileStatus part : parts) {
+                out.write(fs.makeQualified(part.getPath()).toString());
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Concatena sobre el primer part-* no vacío y lo renombra a mergedFile. Devuelve
+     * false, sin haber modificado nada, si el sistema de ficheros no admite concat.
+     */
+    static boolean concat(FileSystem fs, FileStatus[] parts, Path mergedFile) throws IOException {
+        // En disco local concat es una copia que además sobrescribe el destino
+        if (isLocal(fs)) return false;
+
+        // HDFS rechaza ficheros vacíos como origen
+        List<Path> nonEmpty = new ArrayList<>();
+        for (FileStatus part : parts) {
+            if (part.getLen() > 0) nonEmpty.add(part.getPath());
+        }
+        if (nonEmpty.isEmpty()) return false;
+
+        Path target = nonEmpty.get(0);
+        Path[] sources = nonEmpty.subList(1, nonEmpty.size()).toArray(new Path[0]);
+        try {
+            if (sources.length > 0) fs.concat(target, sources);
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        if (fs.exists(mergedFile)) fs.delete(mergedFile, false);
+        if (!fs.rename(target, mergedFile)) {
+            throw new IOException("No se pudo renombrar " + target + " a " + mergedFile);
+        }
+        return true;
+    }
+
+    /**
+     * Copia paralela. En disco local cada part-* se copia con un hilo directamente a
+     * su desplazamiento en el fichero final (transferFrom, sin pasar por el heap).
+     * En otro sistema de ficheros, que solo admite escritura secuencial, varios hilos
+     * leen por adelantado los siguientes part-* mientras el principal escribe en orden.
+     */
+    static void copy(FileSystem fs, FileStatus[] parts, Path mergedFile) throws IOException {
+        if (isLocal(fs)) {
+            copyLocal(fs, parts, mergedFile);
+        } else {
+            copyPipelined(fs, parts, mergedFile);
+        }
+    }
+
+    /**
+     * Disco local, también a través de un FilterFileSystem: se decide por el esquema
+     * y no por la clase.
+     */
+    private static boolean isLocal(FileSystem fs) {
+        return "file".equals(fs.getUri().getScheme());
+    }
+
+    private static void copyLocal(FileSystem fs, FileStatus[] parts, Path mergedFile) throws IOException {
+        // Se escribe sin .crc: borrar el destino elimina también el checksum anterior
+        if (fs.exists(mergedFile)) fs.delete(mergedFile, false);
+        File target = new File(fs.makeQualified(mergedFile).toUri());
+
+        long total = 0;
+        for (FileStatus part : parts) total += part.getLen();
+
+        List<Callable<Void>> tasks = new ArrayList<>(parts.length);
+        try (RandomAccessFile file = new RandomAccessFile(target, "rw")) {
+            // transferFrom no escribe más allá del final actual: se reserva el tamaño total
+            file.setLength(total);
+            FileChannel out = file.getChannel();
+            long offset = 0;
+            for (FileStatus part : parts) {
+                File source = new File(fs.makeQualified(part.getPath()).toUri());
+                long position = offset;
+                long length = part.getLen();
+                tasks.add(() -> {
+                    try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+                        long done = 0;
+                        while (done < length) {
+                            long bytes = out.transferFrom(in, position + done, length - done);
+                            if (bytes <= 0) throw new EOFException("Fin inesperado de " + source);
+                            done += bytes;
+                        }
+                    }
+                    return null;
+                });
+                offset += length;
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private static void copyPipelined(FileSystem fs, FileStatus[] parts, Path mergedFile) throws IOException {
+        List<BlockingQueue<ByteBuffer>> queues = new ArrayList<>(parts.length);
+        BlockingQueue<byte[]> free = new LinkedBlockingQueue<>();
+        IOException[] errors = new IOException[parts.length];
+
+        // El pool procesa los part-* en orden de envío: el que vacía el escritor siempre está en curso
+        ExecutorService pool = Executors.newFixedThreadPool(COPY_THREADS);
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                BlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<>(CHUNKS_AHEAD);
+                queues.add(queue);
+                int index = i;
+                pool.execute(() -> readAhead(fs, parts[index].getPath(), queue, free, errors, index));
+            }
+
+            try (FSDataOutputStream out = fs.create(mergedFile, true)) {
+                for (int i = 0; i < parts.length; i++) {
+                    ByteBuffer chunk;
+                    while ((chunk = queues.get(i).take()) != END) {
+                        out.write(chunk.array(), 0, chunk.limit());
+                        free.offer(chunk.array());
+                    }
+                    if (errors[i] != null) throw errors[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Merge interrumpido");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void readAhead(FileSystem fs, Path part, BlockingQueue<ByteBuffer> queue,
+                                  BlockingQueue<byte[]> free, IOException[] errors, int index) {
+        try {
+            try (FSDataInputStream in = fs.open(part, CHUNK_BYTES)) {
+                while (true) {
+                    byte[] buffer = free.poll();
+                    if (buffer == null) buffer = new byte[CHUNK_BYTES];
+                    int length = fill(in, buffer);
+                    if (length == 0) break;
+                    queue.put(ByteBuffer.wrap(buffer, 0, length));
+                }
+            } catch (IOException e) {
+                errors[index] = e;
+            } finally {
+                queue.put(END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int fill(FSDataInputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        int bytes;
+        while (length < buffer.length && (bytes = in.read(buffer, length, buffer.length - length)) > 0) {
+            length += bytes;
+        }
+        return length;
+    }
+
+    private static void invokeAll(List<Callable<Void>> tasks) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(COPY_THREADS);
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Merge interrumpido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException("Error en el merge", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
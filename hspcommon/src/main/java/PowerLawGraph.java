@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class PowerLawGraph {
+    // Todo el muestreo usa StrictMath: en modo -distributed cada mapper (y getSplits)
+    // regenera el histograma desde la semilla, y Math puede diferir en un ulp entre
+    // JVMs o CPUs; una sola muestra distinta desplazaría todos los tramos siguientes.
+
+    static final double TAU = 2.0;
+
+    // A partir de este grado la cola de la serie se evalúa con Euler-Maclaurin
+    private static final int EM_MIN_DEGREE = 32;
+
+    // Por debajo de esta media la binomial se muestrea por tiempos de espera
+    private static final double BINOMIAL_SPLIT_MEAN = 16.0;
+
+    /**
+     * Secuencia de grados reproducible a partir de la semilla. Cualquier proceso
+     * que la llame con los mismos argumentos obtiene exactamente la misma secuencia.
+     */
+    public static DegreeSequence generateSequence(int numNodes, long seed) {
+        return generateSequence(numNodes, new SplittableRandom(seed));
+    }
+
+    /**
+     * Muestrea directamente el histograma de grados, con P(k) proporcional a k^-TAU
+     * en [1, numNodes - 1], y lo devuelve como secuencia descendente por tramos.
+     *
+     * Recorre los grados en orden creciente separando binomialmente los nodos que
+     * quedan por asignar (freq[k] ~ Bin(restantes, P(k) / P(grado >= k))). Cuando
+     * quedan pocos nodos frente a los grados por recorrer, cada uno se asigna por
+     * búsqueda binaria sobre la cola de la distribución. Tanto el tiempo como la
+     * memoria son O(sqrt(N log N)), así que cada tarea puede regenerar la secuencia.
+     */
+    public static DegreeSequence generateSequence(int numNodes, SplittableRandom rand) {
+        return generateSequence(numNodes, TAU, rand);
+    }
+
+    /**
+     * Igual que generateSequence(numNodes, rand) con otro exponente: P(k) proporcional
+     * a k^-tau, con tau > 1 (cuanto menor, más sesgada la distribución).
+     */
+    public static DegreeSequence generateSequence(int numNodes, double tau, SplittableRandom rand) {
+        return generateSequence(numNodes, numNodes - 1, tau, rand);
+    }
+
+    /**
+     * Grados de nodos que se añaden a un grafo existente (-grow): mismas semilla y
+     * muestreo, pero en [1, numNodes - 1] con numNodes el tamaño final del grafo.
+     * Devuelve existing seguida de los grados nuevos en orden descendente.
+     */
+    public static DegreeSequence growSequence(DegreeSequence existing, int numNodes, long seed) {
+        int added = numNodes - existing.numNodes();
+        if (added <= 0) {
+            throw new IllegalArgumentException("El grafo ya tiene " + existing.numNodes() + " nodos");
+        }
+        return existing.append(generateSequence(added, numNodes - 1, TAU, new SplittableRandom(seed)));
+    }
+
+    private static DegreeSequence generateSequence(int numNodes, int maxDegree, double tau, SplittableRandom rand) {
+        if (!(tau > 1.0)) {
+            throw new IllegalArgumentException("El exponente debe ser mayor que 1: " + tau);
+        }
+        if (maxDegree < 1) {
+            return new DegreeSequence(new int[] {0}, new int[] {StrictMath.max(numNodes, 0)});
+        }
+
+        int[] freq = new int[StrictMath.min(maxDegree + 1, 1024)];
+        int remaining = numNodes;
+        int searchCost = 64 - Long.numberOfLeadingZeros(maxDegree);
+        int k = 1;
+
+        // Separación binomial mientras recorrer grados sea más barato que buscar nodo a nodo
+        while (remaining > 0 && k < maxDegree && (long) remaining * searchCost > k) {
+            if (k >= freq.length) freq = Arrays.copyOf(freq, (int) StrictMath.min(maxDegree + 1L, 2L * freq.length));
+            double p = StrictMath.pow(k, -tau) / tailSum(k, maxDegree, tau);
+            int drawn = binomial(rand, remaining, p);
+            freq[k] += drawn;
+            remaining -= drawn;
+            k++;
+        }
+
+        // Asignación individual del resto sobre la cola [k, maxDegree]
+        int[] tailDegrees = new int[remaining];
+        double tail = tailSum(k, maxDegree, tau);
+        for (int n = 0; n < remaining; n++) {
+            double target = tail * (1.0 - rand.nextDouble());
+            int lo = k;
+            int hi = maxDegree;
+            while (lo < hi) {
+                int mid = (int) (((long) lo + hi) >>> 1);
+                if (tail - tailSum(mid + 1, maxDegree, tau) >= target) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            tailDegrees[n] = lo;
+        }
+        Arrays.sort(tailDegrees);
+
+        // Tramos en orden descendente: primero la cola muestreada nodo a nodo
+        int[] runDegrees = new int[tailDegrees.length + freq.length];
+        int[] runCounts = new int[runDegrees.length];
+        int runs = 0;
+        for (int i = tailDegrees.length - 1; i >= 0; i--) {
+            if (runs > 0 && runDegrees[runs - 1] == tailDegrees[i]) {
+                runCounts[runs - 1]++;
+            } else {
+                runDegrees[runs] = tailDegrees[i];
+                runCounts[runs] = 1;
+                runs++;
+            }
+        }
+        for (int d = StrictMath.min(k, freq.length - 1); d >= 1; d--) {
+            if (freq[d] == 0) continue;
+            runDegrees[runs] = d;
+            runCounts[runs] = freq[d];
+            runs++;
+        }
+
+        return new DegreeSequence(Arrays.copyOf(runDegrees, runs), Arrays.copyOf(runCounts, runs));
+    }
+
+    /**
+     * Suma de k^-tau para k en [from, to]. Los primeros términos se suman de forma
+     * exacta y el resto se aproxima con Euler-Maclaurin (error relativo < 1e-9).
+     */
+    static double tailSum(int from, int to, double tau) {
+        if (from > to) return 0.0;
+        double sum = 0.0;
+        int k = from;
+        for (; k < EM_MIN_DEGREE && k <= to; k++) {
+            sum += StrictMath.pow(k, -tau);
+        }
+        if (k > to) return sum;
+
+        double a = k;
+        double b = to;
+        double integral = (StrictMath.pow(a, 1.0 - tau) - StrictMath.pow(b, 1.0 - tau)) / (tau - 1.0);
+        double ends = (StrictMath.pow(a, -tau) + StrictMath.pow(b, -tau)) / 2.0;
+        double first = tau * (StrictMath.pow(a, -tau - 1.0) - StrictMath.pow(b, -tau - 1.0)) / 12.0;
+        double third = tau * (tau + 1.0) * (tau + 2.0)
+                * (StrictMath.pow(a, -tau - 3.0) - StrictMath.pow(b, -tau - 3.0)) / 720.0;
+        return sum + integral + ends + first - third;
+    }
+
+    /**
+     * Muestra exacta de Bin(n, p). Con media pequeña usa tiempos de espera geométricos;
+     * con media grande divide por el estadístico de orden central (Beta), de modo que
+     * el coste es O(log n) en lugar de O(n·p).
+     */
+    static int binomial(SplittableRandom rand, int n, double p) {
+        if (n <= 0 || p <= 0.0) return 0;
+        if (p >= 1.0) return n;
+        if (p > 0.5) return n - binomial(rand, n, 1.0 - p);
+
+        if (n * p >= BINOMIAL_SPLIT_MEAN) {
+            // y es el i-ésimo menor de n uniformes: cuenta cuántos caen por debajo de p
+            int i = n / 2 + 1;
+            double y = beta(rand, i, n - i + 1);
+            if (y <= p) {
+                return i + binomial(rand, n - i, (p - y) / (1.0 - y));
+            }
+            return binomial(rand, i - 1, p / y);
+        }
+
+        double logQ = StrictMath.log1p(-p);
+        long trials = 0;
+        int successes = 0;
+        while (true) {
+            double gap = StrictMath.ceil(StrictMath.log(1.0 - rand.nextDouble()) / logQ);
+            trials += (long) StrictMath.max(1.0, StrictMath.min(gap, (double) n + 1));
+            if (trials > n) return successes;
+            successes++;
+        }
+    }
+
+    private static double beta(SplittableRandom rand, double a, double b) {
+        double x = gamma(rand, a);
+        return x / (x + gamma(rand, b));
+    }
+
+    /**
+     * Gamma(shape, 1) para shape >= 1 (Marsaglia-Tsang).
+     */
+    private static double gamma(SplittableRandom rand, double shape) {
+        double d = shape - 1.0 / 3.0;
+        double c = 1.0 / StrictMath.sqrt(9.0 * d);
+        while (true) {
+            double x = gaussian(rand);
+            double v = 1.0 + c * x;
+            if (v <= 0.0) continue;
+            v = v * v * v;
+            double u = 1.0 - rand.nextDouble();
+            if (StrictMath.log(u) < 0.5 * x * x + d - d * v + d * StrictMath.log(v)) {
+                return d * v;
+            }
+        }
+    }
+
+    private static double gaussian(SplittableRandom rand) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2.0 * rand.nextDouble() - 1.0;
+            v = 2.0 * rand.nextDouble() - 1.0;
+            s = u * u + v * v;
+        } while (s >= 1.0 || s == 0.0);
+        return u * StrictMath.sqrt(-2.0 * StrictMath.log(s) / s);
+    }
+}
@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.CounterGroup;
+import org.apache.hadoop.mapreduce.Counters;
+
+/**
+ * Informe de una ejecución en JSON: parámetros, duración de cada fase (generación de
+ * grados, subida, job, merge...) y contadores de los jobs, para comparar el
+ * rendimiento entre versiones.
+ *
+ * <pre>
+ *   {"params": {...}, "success": true, "total_ms": 1234,
+ *    "phases_ms": {"degrees": 12, "upload": 3, "job": 1100, "merge": 119},
+ *    "counters": {"GraphCounters": {"EDGES": 16503, ...}, ...}}
+ * </pre>
+ */
+public class RunReport {
+
+    private final long started = System.nanoTime();
+    private final Map<String, Object> params = new LinkedHashMap<>();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final Map<String, Map<String, Long>> counters = new TreeMap<>();
+    private boolean success;
+
+    public RunReport param(String name, Object value) {
+        params.put(name, value);
+        return this;
+    }
+
+    /**
+     * Suma a la fase el tiempo transcurrido desde startNanos (System.nanoTime()).
+     */
+    public void phase(String name, long startNanos) {
+        phases.merge(name, (System.nanoTime() - startNanos) / 1_000_000, Long::sum);
+    }
+
+    /**
+     * Suma los contadores del job a los de jobs anteriores de la misma ejecución.
+     */
+    public void addCounters(Counters jobCounters) {
+        for (CounterGroup group : jobCounters) {
+            Map<String, Long> values = counters.computeIfAbsent(group.getName(), name -> new TreeMap<>());
+            for (Counter counter : group) {
+                values.merge(counter.getName(), counter.getValue(), Long::sum);
+            }
+        }
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public void write(FileSystem fs, Path path) throws IOException {
+        try (Writer out = new OutputStreamWriter(fs.create(path, true), StandardCharsets.UTF_8)) {
+            out.write(toJson());
+            out.write('\n');
+        }
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"params\": ");
+        appendObject(json, params);
+        json.append(", \"success\": ").append(success);
+        json.append(", \"total_ms\": ").append((System.nanoTime() - started) / 1_000_000);
+        json.append(", \"phases_ms\": ");
+        appendObject(json, phases);
+        json.append(", \"counters\": {");
+        String separator = "";
+        for (Map.Entry<String, Map<String, Long>> group : counters.entrySet()) {
+            json.append(separator);
+            appendString(json, group.getKey());
+            json.append(": ");
+            appendObject(json, group.getValue());
+            separator = ", ";
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void appendObject(StringBuilder json, Map<String, ?> values) {
+        json.append('{');
+        String separator = "";
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            json.append(separator);
+            appendString(json, entry.getKey());
+            json.append(": ");
+            Object value = entry.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else {
+                appendString(json, String.valueOf(value));
+            }
+            separator = ", ";
+        }
+        json.append('}');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,175 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Aristas del grafo no dirigido, las mismas que produce el job: reducción local de
+ * grados en cada rango de mapper (UndirectedGraphMapper.reduceLocally) y aristas
+ * dentro del bloque de cada reducer (UndirectedGraphReducer.writeEdges).
+ *
+ * La reducción local se calcula en streaming: el grado reducido de un nodo es su
+ * grado menos el número de nodos anteriores del mismo rango cuya ventana de targets
+ * lo alcanza, y las ventanas abiertas se guardan en un montículo por su último
+ * target. Al empezar un rango de mapper el estado se vacía, así que el recorrido
+ * se divide por las fronteras de esos rangos.
+ */
+public class UndirectedEdgeSpliterator extends EdgeSpliterator {
+
+    private final int[] mapperBounds;
+    private final int[] blockBounds;
+    private final long numNodes;
+    private int mapper;
+    private int block;
+    private IntMinHeap windows;
+
+    /**
+     * Aristas de los nodos origen [start, end) con los rangos de mapper y los bloques
+     * de reducer dados (las fronteras de DegreeSequence.balancedBounds).
+     */
+    public UndirectedEdgeSpliterator(DegreeSequence degrees, int[] mapperBounds, int[] blockBounds,
+                                     int start, int end) {
+        super(degrees, start, end);
+        this.mapperBounds = mapperBounds;
+        this.blockBounds = blockBounds;
+        this.numNodes = degrees.numNodes();
+        this.windows = new IntMinHeap();
+
+        // Las ventanas abiertas en start dependen de los nodos anteriores de su rango de mapper
+        while (mapper + 2 < mapperBounds.length && start >= mapperBounds[mapper + 1]) mapper++;
+        for (int n = mapperBounds[mapper]; n < start; n++) reducedDegree(n);
+    }
+
+    private UndirectedEdgeSpliterator(UndirectedEdgeSpliterator other, int end) {
+        super(other.degrees, other.node, end);
+        this.mapperBounds = other.mapperBounds;
+        this.blockBounds = other.blockBounds;
+        this.numNodes = other.numNodes;
+        this.mapper = other.mapper;
+        this.block = other.block;
+        this.windows = other.windows.copy();
+    }
+
+    /**
+     * Aristas empaquetadas (ver EdgeSpliterator.pack) de todo el grafo, como el job con
+     * numMappers mappers y numWorkers reducers. Se puede dividir en numMappers partes.
+     */
+    public static LongStream edges(DegreeSequence degrees, int numMappers, int numWorkers) {
+        return StreamSupport.longStream(new UndirectedEdgeSpliterator(degrees,
+                degrees.balancedBounds(numMappers), degrees.balancedBounds(numWorkers),
+                0, degrees.numNodes()), false);
+    }
+
+    /**
+     * Índice de aristas (EdgeIndex) del grafo del job con numMappers mappers: cada nodo
+     * tiene tantas aristas como su grado reducido, sea cual sea su bloque de reducer.
+     */
+    public static EdgeIndex edgeIndex(DegreeSequence degrees, int numMappers) {
+        int numNodes = degrees.numNodes();
+        UndirectedEdgeSpliterator walk = new UndirectedEdgeSpliterator(degrees,
+                degrees.balancedBounds(numMappers), new int[] {0, numNodes}, 0, numNodes);
+        EdgeIndex.Builder index = new EdgeIndex.Builder();
+        for (int node = 0; node < numNodes; node++) {
+            index.add(walk.reducedDegree(node));
+        }
+        return index.build();
+    }
+
+    /**
+     * Grado de node tras la reducción local; los nodos deben llegar en orden creciente.
+     */
+    private int reducedDegree(int node) {
+        while (node >= mapperBounds[mapper + 1]) {
+            mapper++;
+            windows.clear();
+        }
+        // Descarta las ventanas que terminan antes de este nodo
+        while (windows.size() > 0 && windows.peek() < node) windows.poll();
+
+        int reduced = Math.max(0, degrees.degree(node) - windows.size());
+        // Último target de su ventana, que no sale del rango del mapper
+        if (reduced > 0) windows.add((int) Math.min((long) node + reduced, mapperBounds[mapper + 1] - 1));
+        return reduced;
+    }
+
+    @Override
+    protected void emitRuns(int node, EdgeSink sink) throws IOException, InterruptedException {
+        int degree = reducedDegree(node);
+        if (degree <= 0) return;
+        // Mismo bloque que asigna DegreeRangePartitioner: el último rango que empieza en node o antes
+        while (node >= blockBounds[block + 1]) block++;
+        UndirectedGraphReducer.writeEdges(node, degree, blockBounds[block], blockBounds[block + 1], numNodes, sink);
+    }
+
+    @Override
+    protected int splitPoint() {
+        // Frontera de mapper en (node, end) más cercana al punto medio por suma de grados
+        long from = degrees.degreeSumBefore(node);
+        long to = degrees.degreeSumBefore(end);
+        int middle = degrees.nodeAtDegreeSum(from + (to - from) / 2);
+
+        int best = -1;
+        for (int i = mapper + 1; i < mapperBounds.length && mapperBounds[i] < end; i++) {
+            int bound = mapperBounds[i];
+            if (bound > node && (best < 0 || Math.abs(bound - middle) < Math.abs(best - middle))) best = bound;
+        }
+        return best;
+    }
+
+    @Override
+    protected EdgeSpliterator splitPrefix(int mid) {
+        return new UndirectedEdgeSpliterator(this, mid);
+    }
+
+    /**
+     * Montículo de mínimos de int para los últimos targets de las ventanas abiertas.
+     */
+    private static class IntMinHeap {
+        private int[] heap = new int[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        void add(int value) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, 2 * size);
+            int i = size++;
+            while (i > 0 && heap[(i - 1) / 2] > value) {
+                heap[i] = heap[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            heap[i] = value;
+        }
+
+        int poll() {
+            int min = heap[0];
+            int last = heap[--size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                if (last <= heap[child]) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return min;
+        }
+
+        IntMinHeap copy() {
+            IntMinHeap copy = new IntMinHeap();
+            copy.heap = heap.clone();
+            copy.size = size;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.IOException;
+import java.net.URI;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.*;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.util.Progressable;
+
+/**
+ * Versión paralela: cada mapper reduce los grados de sus targets locales
+ * antes de emitir (nodo, grado). Acepta pequeños errores en los bordes.
+ */
+public class UndirectedGraphMapper extends Mapper<NullWritable, NullWritable, LongWritable, LongWritable> {
+
+    private static final long PROGRESS_STEPS = 1L << 24;
+
+    protected int[] degrees;
+    protected int numNodes;
+    protected int start;
+    protected int end;
+
+    @Override
+    protected void setup(Context context) throws IOException {
+        Configuration conf = context.getConfiguration();
+        this.numNodes = conf.getInt("num.nodes", 1000);
+
+        // Rango de nodos de este mapper, equilibrado por suma de grados en el split
+        EmptyInputFormat.EmptySplit split = (EmptyInputFormat.EmptySplit) context.getInputSplit();
+        this.start = split.getStart();
+        this.end = split.getEnd();
+
+        long started = System.nanoTime();
+        this.degrees = loadDegrees(context);
+        context.getCounter(GraphCounters.DEGREE_LOAD_MILLIS).increment((System.nanoTime() - started) / 1_000_000);
+    }
+
+    private int[] loadDegrees(Context context) throws IOException {
+        Configuration conf = context.getConfiguration();
+        // Modo distribuido: el tramo se regenera a partir de la semilla, sin caché
+        if (conf.getBoolean("degrees.distributed", false)) {
+            long seed = conf.getLong("degrees.seed", 0L);
+            return PowerLawGraph.generateSequence(numNodes, seed).slice(start, end);
+        }
+        URI[] cacheFiles = context.getCacheFiles();
+        if (cacheFiles == null || cacheFiles.length == 0)
+            throw new IOException("Archivo degrees.dat no encontrado en caché");
+
+        // Lee solo el tramo [start, end) del archivo de caché
+        return DegreeFile.readRange(context, cacheFiles[0], numNodes, start, end);
+    }
+
+    @Override
+    protected void map(NullWritable key, NullWritable value, Context context) throws IOException, InterruptedException {
+        int[] local = reduceLocally(degrees, context);
+        // La reducción abarca todo el rango del mapper, pero al reanudar (-checkpoint)
+        // solo se emiten los nodos de rangos de reducer que faltan
+        Checkpoint.PendingNodes pending = Checkpoint.pendingNodes(context.getConfiguration(), context.getNumReduceTasks());
+
+        // Emitir (nodo, grado reducido)
+        long nodes = 0;
+        for (int i = 0; i < local.length; i++) {
+            if (local[i] > 0 && pending.contains(start + i)) {
+                context.write(new LongWritable(start + i), new LongWritable(local[i]));
+                nodes++;
+            }
+        }
+        context.getCounter(GraphCounters.NODES_EMITTED).increment(nodes);
+    }
+
+    /**
+     * Reducción local: cada nodo "consume" 1 grado de sus siguientes targets dentro
+     * del rango. Devuelve una copia con los grados reducidos.
+     */
+    static int[] reduceLocally(int[] degrees) {
+        return reduceLocally(degrees, () -> { });
+    }
+
+    /**
+     * Igual que reduceLocally(degrees), avisando de progreso cada PROGRESS_STEPS pasos:
+     * los hubs recorren millones de targets y la tarea no lee entrada mientras tanto.
+     */
+    static int[] reduceLocally(int[] degrees, Progressable progress) {
+        // Copia local de los grados en este rango
+        int[] local = degrees.clone();
+        long steps = 0;
+
+        for (int i = 0; i < local.length; i++) {
+            int d = local[i];
+            int target = i + 1;
+            while (d > 0 && target < local.length) {
+                if (local[target] > 0) local[target]--; // resta en el target
+                d--;
+                target++;
+            }
+            steps += target - i;
+            if (steps >= PROGRESS_STEPS) {
+                progress.progress();
+                steps = 0;
+            }
+        }
+        return local;
+    }
+}
@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import org.apache.hadoop.io.*;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * Reducer local que genera aristas bidireccionales dentro de su rango.
+ * Cada reducer recibe un rango contiguo de nodos y asume independencia del resto
+ * (pueden quedar aristas duplicadas en los bordes; BorderDuplicates las cuenta).
+ */
+public class UndirectedGraphReducer extends Reducer<LongWritable, LongWritable, Writable, Writable> {
+
+    private int N;
+    private EdgeSink sink;
+    private final GraphStats stats = new GraphStats();
+    private BorderDuplicates duplicates;
+    private long blockStart;
+    private long blockEnd;
+    private long nodes;
+    private long edges;
+    private long wrapped;
+
+    @Override
+    protected void setup(Context context) {
+        // rango local de este reducer: el asignado por DegreeRangePartitioner
+        int numReducers = context.getNumReduceTasks();
+        int reducerId = context.getTaskAttemptID().getTaskID().getId() % numReducers;
+        int[] bounds = DegreeRangePartitioner.getBounds(context.getConfiguration(), numReducers);
+        this.blockStart = bounds[reducerId];
+        this.blockEnd = bounds[reducerId + 1];
+        this.N = context.getConfiguration().getInt("num.nodes", 1000);
+        this.sink = stats.track(EdgeSink.create(context));
+        this.duplicates = new BorderDuplicates(blockStart, blockEnd, N);
+    }
+
+    @Override
+    public void reduce(LongWritable key, Iterable<LongWritable> values, Context context)
+            throws IOException, InterruptedException {
+
+        long source = key.get();
+
+        // grado local
+        long degree = 0;
+        for (LongWritable v : values) degree += v.get();
+
+        stats.node(source, degree);
+        duplicates.node(source, degree);
+        wrapped += writeEdges(source, degree, blockStart, blockEnd, N, sink);
+        nodes++;
+        edges += degree;
+    }
+
+    /**
+     * Aristas de source dentro de su bloque [blockStart, blockEnd) o, si el bloque
+     * no tiene destinos suficientes, dentro de [0, N). Devuelve las aristas escritas
+     * tras volver al inicio del rango.
+     */
+    static long writeEdges(long source, long degree, long blockStart, long blockEnd, long N, EdgeSink sink)
+            throws IOException, InterruptedException {
+        long start = blockStart;
+        long end = blockEnd;
+
+        // si el bloque no tiene destinos suficientes (p. ej. un hub solo en su rango), usa todos los nodos
+        if (end - start - 1 < degree) {
+            start = 0;
+            end = N;
+        }
+
+        return writeWrappedEdges(source, degree, start, end, sink);
+    }
+
+    /**
+     * Emite las aristas de source hacia los siguientes nodos de [start, end), volviendo
+     * a start al llegar al final del bloque y saltando source. Devuelve cuántas se
+     * escriben después de volver a start.
+     */
+    static long writeWrappedEdges(long source, long degree, long start, long end, EdgeSink sink)
+            throws IOException, InterruptedException {
+        // target inicial: siguiente nodo en el bloque
+        long target = source + 1;
+        long created = 0;
+        long wrapped = -1;
+
+        // los destinos forman tramos consecutivos que solo se cortan en el final del bloque o en source
+        while (created < degree) {
+            if (target >= end) {
+                target = start; // wrap dentro del bloque
+                if (wrapped < 0) wrapped = created;
+            }
+            if (target == source) {
+                target++;
+                continue;
+            }
+
+            long limit = target < source ? source : end;
+            long run = Math.min(degree - created, limit - target);
+
+            // arista ida
+            sink.writeRange(source, target, run);
+            // arista vuelta
+            //context.write(new LongWritable(target), new LongWritable(source));
+
+            created += run;
+            target += run;
+        }
+        return wrapped < 0 ? 0 : created - wrapped;
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        sink.flush();
+        duplicates.finish(stats);
+        stats.write(context, null);
+        context.getCounter(GraphCounters.NODES_EXPANDED).increment(nodes);
+        context.getCounter(GraphCounters.EDGES).increment(edges);
+        context.getCounter(GraphCounters.WRAPPED_EDGES).increment(wrapped);
+    }
+
+    /**
+     * Duplicados de borde de un bloque: pares {u, v} que se escriben como u→v y otra
+     * vez como v→u. Recibe los nodos en orden creciente con su grado reducido, como
+     * reduce(). Entre dos nodos que no son hubs, el menor cubre al mayor hacia delante
+     * y el mayor al menor solo al volver al inicio del bloque; cada par se cuenta al
+     * llegar al mayor, con los nodos que lo cubren (la cola before de
+     * SymmetricGraphReducer.writeBlock). Los pares de dos hubs pueden ser de bloques
+     * distintos y los cuenta GraphStats.collect() con los hubs de cada bloque.
+     */
+    static class BorderDuplicates {
+        private final long blockStart;
+        private final long blockSize;
+        private final long N;
+        // Nodos del bloque (no hubs) que cubren al nodo en curso, por el último nodo que
+        // cubren sin volver al inicio: (fin << 32) | posición relativa
+        private final PriorityQueue<Long> covering = new PriorityQueue<>();
+        // Hubs del bloque: (nodo << 32) | grado
+        private long[] hubs = new long[4];
+        private int numHubs;
+        private long duplicates;
+
+        BorderDuplicates(long blockStart, long blockEnd, long N) {
+            this.blockStart = blockStart;
+            this.blockSize = blockEnd - blockStart;
+            this.N = N;
+        }
+
+        void node(long source, long degree) {
+            if (degree <= 0) return;
+            long t = source - blockStart;
+            while (!covering.isEmpty() && (covering.peek() >>> 32) < t) covering.poll();
+
+            if (blockSize - 1 < degree) {
+                // Hub: los nodos que lo cubren y a los que llega por [0, N)
+                for (long entry : covering) {
+                    if (hubCovers(source, degree, blockStart + (int) entry, N)) duplicates++;
+                }
+                if (numHubs == hubs.length) hubs = Arrays.copyOf(hubs, numHubs * 2);
+                hubs[numHubs++] = (source << 32) | degree;
+                return;
+            }
+            // Último nodo anterior que cubre al volver al inicio del bloque
+            long reach = t + degree - blockSize;
+            if (reach >= 0) {
+                for (long entry : covering) {
+                    if ((int) entry <= reach) duplicates++;
+                }
+                for (int h = 0; h < numHubs; h++) {
+                    long hub = hubs[h] >>> 32;
+                    if (hub - blockStart <= reach && hubCovers(hub, hubs[h] & 0xffffffffL, source, N)) duplicates++;
+                }
+            }
+            covering.add(((t + degree) << 32) | t);
+        }
+
+        /**
+         * Pasa el recuento y los hubs del bloque a stats.
+         */
+        void finish(GraphStats stats) {
+            stats.borderDuplicates(duplicates, N, Arrays.copyOf(hubs, numHubs));
+        }
+    }
+
+    /**
+     * Si el hub con ese grado (que recorre [0, N) sin contarse) tiene una arista hacia
+     * target: sus vueltas completas llegan a todos y el resto a los siguientes nodos.
+     */
+    static boolean hubCovers(long hub, long degree, long target, long N) {
+        if (target == hub) return false;
+        if (degree >= N - 1) return true;
+        long distance = Math.floorMod(target - hub, N);
+        return distance <= degree;
+    }
+}
@@ -0,0 +1,54 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AttachmentModelTest {
+
+    private static final int NODES = 5000;
+    private static final int M = 3;
+
+    @Test
+    public void baTargetsPointToExistingNodes() {
+        assertTargetsInRange(new AttachmentModel("ba", 7L, M, AttachmentModel.DEFAULT_ALPHA));
+    }
+
+    @Test
+    public void copyTargetsPointToExistingNodes() {
+        assertTargetsInRange(new AttachmentModel("copy", 7L, M, AttachmentModel.DEFAULT_ALPHA));
+    }
+
+    @Test
+    public void targetsDependOnlyOnSeedAndEdge() {
+        AttachmentModel a = new AttachmentModel("ba", 7L, M, AttachmentModel.DEFAULT_ALPHA);
+        AttachmentModel b = new AttachmentModel("ba", 7L, M, AttachmentModel.DEFAULT_ALPHA);
+        for (long edge = (long) NODES * M - 1; edge >= 0; edge -= 7) {
+            assertEquals(a.target(edge), b.target(edge));
+        }
+    }
+
+    @Test
+    public void writeEdgesWritesEveryTargetInOrder() throws Exception {
+        AttachmentModel model = new AttachmentModel("ba", 7L, M, AttachmentModel.DEFAULT_ALPHA);
+        for (long node = 0; node < 200; node++) {
+            EdgeCollector sink = new EdgeCollector();
+            model.writeEdges(node, sink);
+            assertEquals(M, sink.edges.size());
+            long previous = -1;
+            for (long edge : sink.edges) {
+                assertEquals(node, EdgeSpliterator.source(edge));
+                assertTrue(EdgeSpliterator.target(edge) >= previous);
+                previous = EdgeSpliterator.target(edge);
+            }
+        }
+    }
+
+    private static void assertTargetsInRange(AttachmentModel model) {
+        for (long node = 0; node < NODES; node++) {
+            for (int j = 0; j < M; j++) {
+                long target = model.target(node * M + j);
+                assertTrue("arista " + j + " del nodo " + node + " apunta a " + target, target >= 0 && target <= node);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CheckpointTest {
+
+    private static final int RANGES = 3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileSystem fs;
+    private Checkpoint checkpoint;
+    private Path output;
+
+    @Before
+    public void setUp() throws IOException {
+        Configuration conf = new Configuration();
+        fs = FileSystem.getLocal(conf).getRaw();
+        Path root = new Path(folder.getRoot().toURI().toString());
+        conf.set(Checkpoint.DIR, new Path(root, "checkpoint").toString());
+        checkpoint = new Checkpoint(fs, conf);
+        output = new Path(root, "output");
+    }
+
+    @Test
+    public void resumeKeepsSeedAndParameters() throws IOException {
+        Map<String, String> params = Map.of("nodes", "1000", "reducers", "3");
+        assertEquals(7L, checkpoint.begin(params, 7L, false));
+        assertEquals(7L, checkpoint.begin(params, 42L, false));
+        assertEquals(7L, checkpoint.begin(params, 7L, true));
+
+        assertThrows(IOException.class, () -> checkpoint.begin(params, 42L, true));
+        assertThrows(IOException.class, () -> checkpoint.begin(Map.of("nodes", "2000", "reducers", "3"), 7L, false));
+    }
+
+    @Test
+    public void harvestMovesCommittedParts() throws IOException {
+        Path attempt = checkpoint.newAttempt();
+        write(new Path(attempt, "part-r-00000"), "0\t1\n");
+        write(new Path(attempt, GraphStats.taskFile('r', 0)), "stats");
+        write(new Path(attempt, "part-r-00002"), "5\t6\n5\t7\n");
+        fs.mkdirs(output);
+
+        boolean[] done = new boolean[RANGES];
+        checkpoint.harvest(attempt, output, done);
+
+        assertArrayEquals(new boolean[] {true, false, true}, done);
+        assertFalse(fs.exists(attempt));
+        assertEquals("0\t1\n", read(new Path(output, "part-r-00000")));
+        assertEquals("5\t6\n5\t7\n", read(new Path(output, "part-r-00002")));
+        assertTrue(fs.exists(new Path(output, GraphStats.taskFile('r', 0))));
+        assertFalse(fs.exists(new Path(output, GraphStats.taskFile('r', 2))));
+    }
+
+    @Test
+    public void prepareKeepsOnlyCompleteRanges() throws IOException {
+        Path first = checkpoint.newAttempt();
+        write(new Path(first, "part-r-00000"), "0\t1\n");
+        write(new Path(first, GraphStats.taskFile('r', 0)), "stats");
+        write(new Path(first, "part-r-00001"), "2\t3\n");
+        write(new Path(first, GraphStats.taskFile('r', 1)), "stats");
+        fs.mkdirs(output);
+        checkpoint.harvest(first, output, new boolean[RANGES]);
+
+        // part-r-00001 cambió de tamaño después de marcarse, y quedan restos del job
+        write(new Path(output, "part-r-00001"), "2\t");
+        write(new Path(output, "part-r-00005"), "x");
+        write(new Path(output, "edges.idx"), "x");
+        // Un intento que llegó a confirmar el rango 2 antes de caer
+        Path second = new Path(checkpoint.getDir(), "attempt-1");
+        write(new Path(second, "part-r-00002"), "4\t5\n");
+        write(new Path(second, "part-m-00000"), "x");
+
+        boolean[] done = checkpoint.prepare(output, RANGES);
+
+        assertArrayEquals(new boolean[] {true, false, true}, done);
+        assertFalse(fs.exists(second));
+        assertTrue(fs.exists(new Path(output, "part-r-00000")));
+        assertTrue(fs.exists(new Path(output, GraphStats.taskFile('r', 0))));
+        assertFalse(fs.exists(new Path(output, "part-r-00001")));
+        assertFalse(fs.exists(new Path(output, GraphStats.taskFile('r', 1))));
+        assertEquals("4\t5\n", read(new Path(output, "part-r-00002")));
+        assertFalse(fs.exists(new Path(output, "part-r-00005")));
+        assertFalse(fs.exists(new Path(output, "edges.idx")));
+
+        // Un segundo arranque sin cambios no pierde nada
+        assertArrayEquals(done, checkpoint.prepare(output, RANGES));
+        assertEquals(1, Checkpoint.countPending(done));
+    }
+
+    private void write(Path path, String content) throws IOException {
+        try (OutputStream out = fs.create(path, true)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String read(Path path) throws IOException {
+        try (InputStream in = fs.open(path)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
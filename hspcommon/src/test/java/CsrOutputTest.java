@@ -0,0 +1,116 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CsrOutputTest {
+
+    private static final DegreeSequence SEQUENCE = PowerLawGraph.generateSequence(5000, 3L);
+    private static final int RANGES = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Configuration conf = csrConf();
+
+    @Test
+    public void localEngineRoundTrip() throws Exception {
+        FileSystem fs = FileSystem.getLocal(conf);
+        Path dir = new Path(folder.getRoot().toURI().toString());
+        EdgeIndex index = EdgeIndex.fromDegrees(SEQUENCE);
+        LocalEngine.writeAtOffsets(conf, fs, new Path(dir, CsrOutput.TARGETS), SEQUENCE.balancedBounds(RANGES), index,
+                CsrOutputTest::writeRange);
+        CsrOutput.finish(fs, dir, index);
+
+        assertGraph(folder.getRoot());
+    }
+
+    @Test
+    public void jobPartsRoundTrip() throws Exception {
+        FileSystem fs = FileSystem.getLocal(conf);
+        Path dir = new Path(folder.getRoot().toURI().toString());
+        int[] bounds = SEQUENCE.balancedBounds(RANGES);
+        writeParts(fs, dir, bounds);
+
+        CsrOutput.finishJob(fs, dir, EdgeIndex.fromDegrees(SEQUENCE), bounds);
+        for (int i = 0; i < RANGES; i++) assertFalse(fs.exists(new Path(dir, String.format("part-r-%05d", i))));
+
+        assertGraph(folder.getRoot());
+    }
+
+    @Test
+    public void partSizeMustMatchTheIndex() throws Exception {
+        FileSystem fs = FileSystem.getLocal(conf);
+        Path dir = new Path(folder.getRoot().toURI().toString());
+        int[] bounds = SEQUENCE.balancedBounds(RANGES);
+        writeParts(fs, dir, bounds);
+        // Un part-r-* con una arista de menos
+        Path part = new Path(dir, "part-r-00002");
+        byte[] bytes;
+        try (InputStream in = fs.open(part)) {
+            bytes = in.readAllBytes();
+        }
+        try (OutputStream out = fs.create(part, true)) {
+            out.write(bytes, 0, bytes.length - CsrOutput.TARGET_BYTES);
+        }
+
+        IOException e = assertThrows(IOException.class,
+                () -> CsrOutput.finishJob(fs, dir, EdgeIndex.fromDegrees(SEQUENCE), bounds));
+        assertTrue(e.getMessage(), e.getMessage().contains("part-r-00002"));
+    }
+
+    private static void writeRange(int start, int end, EdgeSink sink) throws IOException, InterruptedException {
+        for (int node = start; node < end; node++) {
+            DirectedGraphReducer.writeEdgeAlwaysGoingForward(SEQUENCE.degree(node), node, SEQUENCE.numNodes(), sink);
+        }
+    }
+
+    /**
+     * part-r-* como los de los reducers: los lotes de TargetSink de cada rango.
+     */
+    private void writeParts(FileSystem fs, Path dir, int[] bounds) throws Exception {
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            try (OutputStream out = fs.create(new Path(dir, String.format("part-r-%05d", i)))) {
+                EdgeSink sink = EdgeSink.create(conf, (key, value) -> {
+                    BytesWritable batch = (BytesWritable) value;
+                    out.write(batch.getBytes(), 0, batch.getLength());
+                });
+                writeRange(bounds[i], bounds[i + 1], sink);
+                sink.flush();
+            }
+        }
+    }
+
+    private static void assertGraph(File dir) throws Exception {
+        try (CsrGraph graph = CsrGraph.open(dir)) {
+            assertEquals(SEQUENCE.numNodes(), graph.numNodes());
+            assertEquals(SEQUENCE.totalDegree(), graph.numEdges());
+            for (int node = 0; node < SEQUENCE.numNodes(); node++) {
+                EdgeCollector expected = new EdgeCollector();
+                DirectedGraphReducer.writeEdgeAlwaysGoingForward(SEQUENCE.degree(node), node, SEQUENCE.numNodes(),
+                        expected);
+                int[] targets = expected.edges.stream().mapToInt(edge -> (int) EdgeSpliterator.target(edge)).toArray();
+                assertArrayEquals("nodo " + node, targets, graph.neighbors(node));
+            }
+        }
+    }
+
+    private static Configuration csrConf() {
+        Configuration conf = new Configuration();
+        conf.set("output.format", "csr");
+        return conf;
+    }
+}
@@ -0,0 +1,107 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Job;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DegreeFileTest {
+
+    // MAGIC, versión, N, suma de grados y CRC32
+    private static final int HEADER_BYTES = 4 + 1 + 4 + 8 + 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Configuration conf = new Configuration();
+
+    @Test
+    public void roundTrip() throws IOException {
+        DegreeSequence sequence = PowerLawGraph.generateSequence(5000, 3L);
+        // Sin los .crc de LocalFileSystem, que detectarían la corrupción antes que DegreeFile
+        FileSystem fs = FileSystem.getLocal(conf).getRaw();
+        Path path = new Path(folder.getRoot().toURI().toString(), "grados.dat");
+        DegreeFile.write(fs, path, sequence);
+
+        DegreeSequence read = DegreeFile.read(fs, path);
+        assertEquals(sequence.numNodes(), read.numNodes());
+        assertEquals(sequence.totalDegree(), read.totalDegree());
+        assertArrayEquals(sequence.toArray(), read.toArray());
+        assertArrayEquals(sequence.slice(1234, 4321),
+                DegreeFile.readRange(path.toUri(), conf, sequence.numNodes(), 1234, 4321));
+    }
+
+    @Test
+    public void rejectsOtherNumNodes() throws IOException {
+        FileSystem fs = FileSystem.getLocal(conf).getRaw();
+        Path path = new Path(folder.getRoot().toURI().toString(), "grados.dat");
+        DegreeFile.write(fs, path, PowerLawGraph.generateSequence(1000, 3L));
+
+        assertThrows(IOException.class, () -> DegreeFile.read(fs, path, 999));
+    }
+
+    @Test
+    public void detectsCorruptPayload() throws IOException {
+        FileSystem fs = FileSystem.getLocal(conf).getRaw();
+        File file = new File(folder.getRoot(), "grados.dat");
+        Path path = new Path(file.toURI().toString());
+        DegreeFile.write(fs, path, PowerLawGraph.generateSequence(5000, 3L));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(HEADER_BYTES + 1);
+            int b = raf.read();
+            raf.seek(HEADER_BYTES + 1);
+            raf.write(b ^ 0x01);
+        }
+        IOException e = assertThrows(IOException.class, () -> DegreeFile.read(fs, path));
+        assertEquals("Checksum incorrecto en " + path, e.getMessage());
+    }
+
+    @Test
+    public void driverIgnoresFilesInWorkingDirectory() throws IOException {
+        FileSystem fs = FileSystem.getLocal(conf).getRaw();
+        Path path = new Path(folder.getRoot().toURI().toString(), "degreefiletest-driver.dat");
+        DegreeSequence sequence = PowerLawGraph.generateSequence(5000, 3L);
+        DegreeFile.write(fs, path, sequence);
+
+        // Otro archivo con el mismo nombre y N en el directorio de trabajo
+        File stray = new File(path.getName());
+        try {
+            DegreeFile.write(fs, new Path(stray.getAbsoluteFile().toURI().toString()),
+                    PowerLawGraph.generateSequence(5000, 4L));
+            assertArrayEquals(sequence.toArray(), DegreeFile.read(path.toUri(), conf, 5000).toArray());
+        } finally {
+            stray.delete();
+        }
+    }
+
+    @Test
+    public void taskReadsLocalizedCacheFile() throws Exception {
+        FileSystem fs = FileSystem.getLocal(conf).getRaw();
+        Path path = new Path(folder.getRoot().toURI().toString(), "grados.dat");
+        DegreeFile.write(fs, path, PowerLawGraph.generateSequence(5000, 3L));
+
+        // El enlace de la caché lleva el nombre del fragmento
+        File link = new File("degreefiletest-link.dat");
+        DegreeSequence localized = PowerLawGraph.generateSequence(5000, 4L);
+        Job job = Job.getInstance(conf);
+        job.addCacheFile(new URI(path.toUri() + "#" + link.getName()));
+        try {
+            DegreeFile.write(fs, new Path(link.getAbsoluteFile().toURI().toString()), localized);
+            assertArrayEquals(localized.toArray(), DegreeFile.read(job, path.toUri(), 5000).toArray());
+        } finally {
+            link.delete();
+        }
+        assertArrayEquals(PowerLawGraph.generateSequence(5000, 3L).toArray(),
+                DegreeFile.read(job, path.toUri(), 5000).toArray());
+    }
+}
@@ -0,0 +1,49 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.junit.Test;
+
+public class DegreeRangePartitionerTest {
+
+    @Test
+    public void everyNodeGoesToItsRange() {
+        DegreeSequence sequence = PowerLawGraph.generateSequence(20000, 5L);
+        Configuration conf = new Configuration();
+        DegreeRangePartitioner.setBounds(conf, sequence, 16);
+        int[] bounds = DegreeRangePartitioner.getBounds(conf, 16);
+        assertArrayEquals(sequence.balancedBounds(16), bounds);
+
+        DegreeRangePartitioner partitioner = new DegreeRangePartitioner();
+        partitioner.setConf(conf);
+        int previous = 0;
+        for (int node = 0; node < sequence.numNodes(); node++) {
+            int range = partitioner.getPartition(new LongWritable(node), NullWritable.get(), 16);
+            assertTrue(bounds[range] <= node && node < bounds[range + 1]);
+            // Rangos ordenados: los part-r-* concatenados salen ordenados por origen
+            assertTrue(range >= previous);
+            previous = range;
+        }
+    }
+
+    @Test
+    public void emptyRangesAreSkipped() {
+        int[] bounds = {0, 3, 3, 3, 7, 10};
+        assertEquals(0, DegreeRangePartitioner.rangeOf(bounds, 0));
+        assertEquals(0, DegreeRangePartitioner.rangeOf(bounds, 2));
+        assertEquals(3, DegreeRangePartitioner.rangeOf(bounds, 3));
+        assertEquals(3, DegreeRangePartitioner.rangeOf(bounds, 6));
+        assertEquals(4, DegreeRangePartitioner.rangeOf(bounds, 7));
+        assertEquals(4, DegreeRangePartitioner.rangeOf(bounds, 9));
+    }
+
+    @Test
+    public void equalRangesWithoutBounds() {
+        Configuration conf = new Configuration();
+        conf.setInt("num.nodes", 10);
+        assertArrayEquals(new int[] {0, 3, 6, 10}, DegreeRangePartitioner.getBounds(conf, 3));
+    }
+}
@@ -0,0 +1,38 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DegreeSequenceTest {
+
+    @Test
+    public void balancedBoundsCoverAllNodes() {
+        DegreeSequence sequence = PowerLawGraph.generateSequence(20000, 5L);
+        for (int parts : new int[] {1, 2, 7, 64}) {
+            int[] bounds = sequence.balancedBounds(parts);
+            assertEquals(parts + 1, bounds.length);
+            assertEquals(0, bounds[0]);
+            assertEquals(sequence.numNodes(), bounds[parts]);
+            long ideal = (sequence.totalDegree() + parts - 1) / parts;
+            for (int i = 0; i < parts; i++) {
+                assertTrue(bounds[i] <= bounds[i + 1]);
+                // Un rango solo supera la parte ideal por su último nodo
+                long sum = sequence.degreeSumBefore(bounds[i + 1]) - sequence.degreeSumBefore(bounds[i]);
+                if (bounds[i + 1] > bounds[i]) {
+                    assertTrue(sum - sequence.degree(bounds[i + 1] - 1) <= ideal);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void balancedBoundsWithoutEdges() {
+        DegreeSequence sequence = new DegreeSequence(new int[] {0}, new int[] {10});
+        int[] bounds = sequence.balancedBounds(4);
+        assertEquals(0, bounds[0]);
+        assertEquals(2, bounds[1]);
+        assertEquals(5, bounds[2]);
+        assertEquals(7, bounds[3]);
+        assertEquals(10, bounds[4]);
+    }
+}
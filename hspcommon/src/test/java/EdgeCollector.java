@@ -0,0 +1,19 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink de prueba que guarda cada arista como el long de EdgeSpliterator.pack.
+ */
+class EdgeCollector extends EdgeSink {
+
+    final List<Long> edges = new ArrayList<>();
+
+    EdgeCollector() {
+        super(null);
+    }
+
+    @Override
+    public void writeRange(long source, long firstTarget, long count) {
+        for (long i = 0; i < count; i++) edges.add(EdgeSpliterator.pack(source, firstTarget + i));
+    }
+}
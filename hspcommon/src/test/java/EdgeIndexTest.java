@@ -0,0 +1,98 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EdgeIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void offsetsAreTheDegreePrefixSums() {
+        DegreeSequence sequence = PowerLawGraph.generateSequence(20000, 5L);
+        EdgeIndex index = EdgeIndex.fromDegrees(sequence);
+        assertEquals(sequence.numNodes(), index.numNodes());
+        assertEquals(sequence.totalDegree(), index.totalEdges());
+        for (int node = 0; node <= sequence.numNodes(); node += 7) {
+            assertEquals(sequence.degreeSumBefore(node), index.offset(node));
+        }
+        assertEquals(sequence.totalDegree(), index.offset(sequence.numNodes()));
+    }
+
+    @Test
+    public void nodeAtSkipsNodesWithoutEdges() {
+        // Tramos sin aristas al principio, en medio y al final
+        EdgeIndex index = new EdgeIndex.Builder().add(0, 2).add(3, 2).add(0, 4).add(1).add(5, 3).add(0).build();
+        int[] counts = {0, 0, 3, 3, 0, 0, 0, 0, 1, 5, 5, 5, 0};
+        assertEquals(counts.length, index.numNodes());
+        long offset = 0;
+        for (int node = 0; node < counts.length; node++) {
+            assertEquals(counts[node], index.edgeCount(node));
+            assertEquals(offset, index.offset(node));
+            for (int e = 0; e < counts[node]; e++) assertEquals(node, index.nodeAt(offset + e));
+            offset += counts[node];
+        }
+        assertEquals(offset, index.totalEdges());
+        assertThrows(IndexOutOfBoundsException.class, () -> index.nodeAt(index.totalEdges()));
+    }
+
+    @Test
+    public void roundTripAndChecksum() throws IOException {
+        FileSystem fs = FileSystem.getLocal(new Configuration()).getRaw();
+        File file = new File(folder.getRoot(), "indice");
+        Path path = new Path(file.toURI().toString());
+        EdgeIndex index = EdgeIndex.fromDegrees(PowerLawGraph.generateSequence(5000, 3L));
+        index.write(fs, path);
+
+        EdgeIndex read = EdgeIndex.read(fs, path);
+        assertEquals(index.numNodes(), read.numNodes());
+        for (int node = 0; node <= index.numNodes(); node++) assertEquals(index.offset(node), read.offset(node));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            int b = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(b ^ 0x10);
+        }
+        IOException e = assertThrows(IOException.class, () -> EdgeIndex.read(fs, path));
+        assertEquals("Checksum incorrecto en " + path, e.getMessage());
+    }
+
+    @Test
+    public void binaryWrittenAtOffsetsIsReadBackByNode() throws Exception {
+        Configuration conf = new Configuration();
+        conf.set("output.format", "binary");
+        FileSystem fs = FileSystem.getLocal(conf);
+        Path dir = new Path(folder.getRoot().toURI().toString());
+        DegreeSequence sequence = PowerLawGraph.generateSequence(5000, 3L);
+        EdgeIndex index = EdgeIndex.fromDegrees(sequence);
+        int numNodes = sequence.numNodes();
+
+        // Cada rango escribe en su desplazamiento del único fragmento, en paralelo
+        LocalEngine.writeAtOffsets(conf, fs, new Path(dir, EdgeBinaryOutputFormat.shardName(0)),
+                sequence.balancedBounds(4), index, (start, end, sink) -> {
+                    for (int node = start; node < end; node++) {
+                        DirectedGraphReducer.writeEdgeAlwaysGoingForward(sequence.degree(node), node, numNodes, sink);
+                    }
+                });
+        index.write(fs, new Path(dir, EdgeBinaryOutputFormat.INDEX));
+
+        try (EdgeBinaryReader reader = new EdgeBinaryReader(conf, dir)) {
+            for (int node = numNodes - 1; node >= 0; node -= 13) {
+                EdgeCollector expected = new EdgeCollector();
+                DirectedGraphReducer.writeEdgeAlwaysGoingForward(sequence.degree(node), node, numNodes, expected);
+                assertArrayEquals(expected.edges.stream().mapToLong(Long::longValue).toArray(), reader.edgesOf(node));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.junit.Test;
+
+public class EdgeSinkTest {
+
+    // Tramos (source, firstTarget, count); el largo cruza varios lotes de 64 KB
+    private static final long[][] RANGES = {
+        {0, 1, 5}, {0, 0, 0}, {7, 0, 1}, {123456789, 9876543210L, 3}, {42, 100, 20000},
+        {Long.MAX_VALUE, Long.MAX_VALUE - 2, 2}, {-5, -3, 4}, {Long.MIN_VALUE, Long.MIN_VALUE, 1},
+    };
+
+    @Test
+    public void textSinkWritesTheSameBytesAsLongWritablePairs() throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        RecordWriter<Writable, Writable> pairs = Lines.writer(expected);
+        for (long[] range : RANGES) {
+            for (long i = 0; i < range[2]; i++) {
+                pairs.write(new LongWritable(range[0]), new LongWritable(range[1] + i));
+            }
+        }
+        pairs.close(null);
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        RecordWriter<Writable, Writable> lines = Lines.writer(actual);
+        EdgeSink sink = new EdgeSink.TextSink(lines::write);
+        for (long[] range : RANGES) sink.writeRange(range[0], range[1], range[2]);
+        sink.flush();
+        lines.close(null);
+
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void binarySinkWritesPackedBigEndianEdges() throws Exception {
+        ByteBuffer expected = ByteBuffer.allocate(8 * 20010);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        EdgeSink sink = new EdgeSink.BinarySink((key, value) -> {
+            BytesWritable batch = (BytesWritable) value;
+            actual.write(batch.getBytes(), 0, batch.getLength());
+        });
+        for (long[] range : new long[][] {{0, 1, 5}, {3, 0, 0}, {7, 0, 5}, {42, 100, 20000}}) {
+            sink.writeRange(range[0], range[1], range[2]);
+            for (long i = 0; i < range[2]; i++) expected.putLong(EdgeSpliterator.pack(range[0], range[1] + i));
+        }
+        sink.flush();
+
+        assertEquals(EdgeBinaryOutputFormat.RECORD_BYTES, 8);
+        assertArrayEquals(expected.array(), actual.toByteArray());
+    }
+
+    /**
+     * El escritor de líneas de TextOutputFormat, que es protegido.
+     */
+    private static class Lines extends TextOutputFormat<Writable, Writable> {
+        static RecordWriter<Writable, Writable> writer(ByteArrayOutputStream out) {
+            return new LineRecordWriter<>(new DataOutputStream(out));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+public class EdgeSpliteratorTest {
+
+    private static final DegreeSequence DEGREES = PowerLawGraph.generateSequence(3000, 9L);
+
+    @Test
+    public void directedSplitsKeepOrder() {
+        assertSplitsKeepOrder(() -> new DirectedEdgeSpliterator(DEGREES, 0, DEGREES.numNodes()));
+    }
+
+    @Test
+    public void undirectedSplitsKeepOrder() {
+        assertSplitsKeepOrder(() -> new UndirectedEdgeSpliterator(DEGREES, DEGREES.balancedBounds(4),
+                DEGREES.balancedBounds(3), 0, DEGREES.numNodes()));
+    }
+
+    @Test
+    public void directedSizeIsExact() {
+        DirectedEdgeSpliterator edges = new DirectedEdgeSpliterator(DEGREES, 100, 2000);
+        assertEquals(DEGREES.degreeSumBefore(2000) - DEGREES.degreeSumBefore(100), edges.estimateSize());
+        Spliterator.OfLong prefix = edges.trySplit();
+        assertNotNull(prefix);
+        assertEquals(DEGREES.degreeSumBefore(2000) - DEGREES.degreeSumBefore(100),
+                prefix.estimateSize() + edges.estimateSize());
+    }
+
+    private static void assertSplitsKeepOrder(Supplier<Spliterator.OfLong> factory) {
+        List<Long> expected = new ArrayList<>();
+        factory.get().forEachRemaining((long edge) -> expected.add(edge));
+
+        // Se divide a mitad de un nodo: el nodo en curso se queda en el prefijo
+        for (int advanced : new int[] {0, 1, 17, 5000}) {
+            Spliterator.OfLong edges = factory.get();
+            List<Long> actual = new ArrayList<>();
+            for (int i = 0; i < advanced; i++) edges.tryAdvance((long edge) -> actual.add(edge));
+            collect(edges, actual, 6);
+            assertEquals("avanzadas " + advanced, expected, actual);
+        }
+    }
+
+    private static void collect(Spliterator.OfLong edges, List<Long> out, int depth) {
+        Spliterator.OfLong prefix = depth > 0 ? edges.trySplit() : null;
+        if (prefix == null) {
+            edges.forEachRemaining((long edge) -> out.add(edge));
+            return;
+        }
+        collect(prefix, out, depth - 1);
+        collect(edges, out, depth - 1);
+    }
+}
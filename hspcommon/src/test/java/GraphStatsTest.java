@@ -0,0 +1,107 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GraphStatsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void borderDuplicatesInsideBlocks() throws Exception {
+        int n = 60;
+        int[] bounds = {0, 20, 25, 26, 40, 60};
+        int[] degrees = new int[n];
+        SplittableRandom rand = new SplittableRandom(11);
+        for (int i = 0; i < n; i++) degrees[i] = rand.nextInt(4) == 0 ? 0 : 1 + rand.nextInt(12);
+
+        assertDuplicates(n, bounds, degrees);
+    }
+
+    @Test
+    public void borderDuplicatesWithHubs() throws Exception {
+        int n = 400;
+        int[] bounds = {0, 3, 50, 51, 180, 181, 300, 400};
+        int[] degrees = new int[n];
+        SplittableRandom rand = new SplittableRandom(5);
+        for (int i = 0; i < n; i++) {
+            degrees[i] = rand.nextInt(10) == 0 ? 1 + rand.nextInt(3 * n) : rand.nextInt(40);
+        }
+        degrees[399] = 398;   // hub cuya ventana empieza en el nodo 0
+
+        assertDuplicates(n, bounds, degrees);
+    }
+
+    @Test
+    public void directedStatsHaveNoDuplicateCount() throws Exception {
+        FileSystem fs = FileSystem.getLocal(new Configuration()).getRaw();
+        Path dir = new Path(folder.getRoot().toURI().toString());
+        GraphStats stats = new GraphStats();
+        EdgeSink sink = stats.track(new EdgeCollector());
+        stats.node(0, 3);
+        DirectedGraphReducer.writeEdgeAlwaysGoingForward(3, 0, 10, sink);
+        stats.write(fs, new Path(dir, GraphStats.taskFile('r', 0)));
+
+        GraphStats total = GraphStats.collect(fs, dir);
+        assertEquals(-1, total.undirectedDuplicates());
+        assertFalse(read(fs, total.writeJson(fs, dir, "directed", 3)).contains("undirected_duplicates"));
+    }
+
+    /**
+     * Escribe cada bloque como UndirectedGraphReducer, con su _stats-r-*, y compara el
+     * total de collect() con los pares que aparecen en los dos sentidos.
+     */
+    private void assertDuplicates(int n, int[] bounds, int[] degrees) throws IOException, InterruptedException {
+        FileSystem fs = FileSystem.getLocal(new Configuration()).getRaw();
+        Path dir = new Path(folder.getRoot().toURI().toString());
+        Set<Long> written = new HashSet<>();
+        for (int b = 0; b + 1 < bounds.length; b++) {
+            GraphStats stats = new GraphStats();
+            EdgeCollector edges = new EdgeCollector();
+            EdgeSink sink = stats.track(edges);
+            UndirectedGraphReducer.BorderDuplicates duplicates =
+                    new UndirectedGraphReducer.BorderDuplicates(bounds[b], bounds[b + 1], n);
+            for (int s = bounds[b]; s < bounds[b + 1]; s++) {
+                if (degrees[s] == 0) continue;
+                stats.node(s, degrees[s]);
+                duplicates.node(s, degrees[s]);
+                UndirectedGraphReducer.writeEdges(s, degrees[s], bounds[b], bounds[b + 1], n, sink);
+            }
+            duplicates.finish(stats);
+            stats.write(fs, new Path(dir, GraphStats.taskFile('r', b)));
+            written.addAll(edges.edges);
+        }
+
+        long expected = 0;
+        for (long edge : written) {
+            long source = EdgeSpliterator.source(edge);
+            long target = EdgeSpliterator.target(edge);
+            if (source < target && written.contains(EdgeSpliterator.pack(target, source))) expected++;
+        }
+        assertTrue(expected > 0);
+
+        GraphStats total = GraphStats.collect(fs, dir);
+        assertEquals(expected, total.undirectedDuplicates());
+        assertTrue(read(fs, total.writeJson(fs, dir, "undirected", 0))
+                .contains("\"undirected_duplicates\": " + expected));
+    }
+
+    private static String read(FileSystem fs, Path path) throws IOException {
+        try (InputStream in = fs.open(path)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PartMergerTest {
+
+    // Vacío, pequeño y de varios bloques de copia (1 MB)
+    private static final int[] PART_BYTES = {1000, 0, 2_500_000, 17, 1 << 20};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final FileSystem local = localFileSystem();
+    private Path outputDir;
+    private FileStatus[] parts;
+    private byte[] expected;
+
+    @Before
+    public void writeParts() throws IOException {
+        outputDir = new Path(folder.getRoot().toURI().toString());
+        SplittableRandom rand = new SplittableRandom(3);
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        parts = new FileStatus[PART_BYTES.length];
+        for (int i = 0; i < PART_BYTES.length; i++) {
+            byte[] bytes = new byte[PART_BYTES[i]];
+            for (int b = 0; b < bytes.length; b++) bytes[b] = (byte) rand.nextInt(256);
+            Path part = new Path(outputDir, String.format("part-r-%05d", i));
+            try (OutputStream out = local.create(part)) {
+                out.write(bytes);
+            }
+            all.write(bytes);
+            parts[i] = local.getFileStatus(part);
+        }
+        expected = all.toByteArray();
+    }
+
+    @Test
+    public void autoCopiesAndKeepsParts() throws IOException {
+        assertMerged(local, "auto");
+    }
+
+    @Test
+    public void copyOnLocalDisk() throws IOException {
+        assertMerged(local, "copy");
+    }
+
+    @Test
+    public void copyThroughSequentialWrites() throws IOException {
+        // Otro esquema: lectura por adelantado y escritura en orden
+        assertMerged(new FilterFileSystem(local) {
+            @Override
+            public URI getUri() {
+                return URI.create("sequential:///");
+            }
+        }, "copy");
+    }
+
+    @Test
+    public void concatFallsBackToCopyOnLocalDisk() throws IOException {
+        // También con el disco local envuelto, cuyo concat sobrescribe el primer part-*
+        assertMerged(local, "concat");
+        assertMerged(new FilterFileSystem(local) { }, "concat");
+    }
+
+    @Test
+    public void manifestListsPartsInOrder() throws IOException {
+        Path manifest = PartMerger.merge(local, outputDir, parts, new Path(outputDir, "merged"), "manifest");
+        assertEquals(new Path(outputDir, PartMerger.MANIFEST), manifest);
+        assertFalse(local.exists(new Path(outputDir, "merged")));
+
+        StringBuilder lines = new StringBuilder();
+        for (FileStatus part : parts) lines.append(local.makeQualified(part.getPath())).append('\n');
+        assertEquals(lines.toString(), new String(read(local, manifest), StandardCharsets.UTF_8));
+    }
+
+    private void assertMerged(FileSystem fs, String mode) throws IOException {
+        Path merged = new Path(outputDir, "merged-" + mode);
+        assertEquals(merged, PartMerger.merge(fs, outputDir, parts, merged, mode));
+        assertArrayEquals(mode, expected, read(local, merged));
+        for (FileStatus part : parts) assertTrue(local.exists(part.getPath()));
+    }
+
+    private static byte[] read(FileSystem fs, Path path) throws IOException {
+        try (InputStream in = fs.open(path)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static FileSystem localFileSystem() {
+        try {
+            return FileSystem.getLocal(new Configuration()).getRaw();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+public class PowerLawGraphTest {
+
+    private static final int NODES = 200000;
+
+    @Test
+    public void sequenceIsDescendingAndInRange() {
+        DegreeSequence sequence = PowerLawGraph.generateSequence(NODES, 3L);
+        assertEquals(NODES, sequence.numNodes());
+        int previous = Integer.MAX_VALUE;
+        for (int r = 0; r < sequence.numRuns(); r++) {
+            assertTrue(sequence.runDegree(r) < previous);
+            assertTrue(sequence.runDegree(r) >= 1 && sequence.runDegree(r) <= NODES - 1);
+            assertTrue(sequence.runCount(r) > 0);
+            previous = sequence.runDegree(r);
+        }
+    }
+
+    @Test
+    public void sameSeedSameSequence() {
+        assertArrayEquals(PowerLawGraph.generateSequence(NODES, 3L).toArray(),
+                PowerLawGraph.generateSequence(NODES, 3L).toArray());
+    }
+
+    @Test
+    public void histogramFollowsPowerLaw() {
+        int[] degrees = PowerLawGraph.generateSequence(NODES, 3L).toArray();
+        long[] histogram = new long[NODES];
+        for (int degree : degrees) histogram[degree]++;
+
+        double norm = 0.0;
+        for (int k = 1; k < NODES; k++) norm += Math.pow(k, -PowerLawGraph.TAU);
+
+        // Grados pequeños (separación binomial) uno a uno, y la cola en bloques
+        int[][] buckets = {{1, 1}, {2, 2}, {3, 3}, {4, 4}, {5, 9}, {10, 99}, {100, 999}, {1000, NODES - 1}};
+        for (int[] bucket : buckets) {
+            long observed = 0;
+            double p = 0.0;
+            for (int k = bucket[0]; k <= bucket[1]; k++) {
+                observed += histogram[k];
+                p += Math.pow(k, -PowerLawGraph.TAU) / norm;
+            }
+            double expected = NODES * p;
+            double sigma = Math.sqrt(NODES * p * (1 - p));
+            assertTrue("grados " + bucket[0] + ".." + bucket[1] + ": " + observed + " frente a " + expected,
+                    Math.abs(observed - expected) <= 5 * sigma);
+        }
+    }
+
+    @Test
+    public void tailSumMatchesDirectSum() {
+        for (int[] range : new int[][] {{1, 10}, {1, 1000}, {31, 100000}, {500, 2000000}}) {
+            double direct = 0.0;
+            for (int k = range[1]; k >= range[0]; k--) direct += Math.pow(k, -PowerLawGraph.TAU);
+            double approx = PowerLawGraph.tailSum(range[0], range[1], PowerLawGraph.TAU);
+            assertEquals(direct, approx, direct * 1e-9);
+        }
+        assertEquals(0.0, PowerLawGraph.tailSum(5, 4, PowerLawGraph.TAU), 0.0);
+    }
+
+    @Test
+    public void binomialMean() {
+        SplittableRandom rand = new SplittableRandom(1L);
+        // Tiempos de espera (media pequeña) y división por la Beta (media grande)
+        double[][] cases = {{50, 0.05}, {100000, 0.3}, {1000, 0.9}};
+        for (double[] c : cases) {
+            int n = (int) c[0];
+            double p = c[1];
+            int samples = 2000;
+            double sum = 0.0;
+            for (int i = 0; i < samples; i++) {
+                int x = PowerLawGraph.binomial(rand, n, p);
+                assertTrue(x >= 0 && x <= n);
+                sum += x;
+            }
+            double sigma = Math.sqrt(n * p * (1 - p) / samples);
+            assertEquals(n * p, sum / samples, 5 * sigma);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.apache.hadoop.util.ToolRunner;
+import java.util.SplittableRandom;
+
+/**
+ * Implementación de bench.GraphHooks sobre las clases de hspdg.
+ */
+public class GraphHooksImpl implements bench.GraphHooks {
+
+    private final Configuration conf = new Configuration();
+
+    @Override
+    public Object generate(int numNodes, double tau, long seed) {
+        return PowerLawGraph.generateSequence(numNodes, tau, new SplittableRandom(seed));
+    }
+
+    @Override
+    public long totalDegree(Object sequence) {
+        return ((DegreeSequence) sequence).totalDegree();
+    }
+
+    @Override
+    public int[] balancedBounds(Object sequence, int parts) {
+        return ((DegreeSequence) sequence).balancedBounds(parts);
+    }
+
+    @Override
+    public int[] slice(Object sequence, int start, int end) {
+        return ((DegreeSequence) sequence).slice(start, end);
+    }
+
+    @Override
+    public void writeDegreeFile(Object sequence, String path) throws IOException {
+        DegreeFile.write(FileSystem.getLocal(conf), new Path(path), (DegreeSequence) sequence);
+    }
+
+    @Override
+    public int[] readDegreeRange(String path, int numNodes, int start, int end) throws IOException {
+        return DegreeFile.readRange(new Path(path).toUri(), conf, numNodes, start, end);
+    }
+
+    @Override
+    public Object newSink(TaskInputOutputContext<?, ?, Writable, Writable> context) {
+        return EdgeSink.create(context);
+    }
+
+    @Override
+    public void emitEdges(Object sink, int[] degrees, int firstNode, int numNodes, int blockStart, int blockEnd)
+            throws IOException, InterruptedException {
+        EdgeSink edgeSink = (EdgeSink) sink;
+        for (int i = 0; i < degrees.length; i++) {
+            DirectedGraphReducer.writeEdgeAlwaysGoingForward(degrees[i], firstNode + i, numNodes, edgeSink);
+        }
+    }
+
+    @Override
+    public void flush(Object sink) throws IOException, InterruptedException {
+        ((EdgeSink) sink).flush();
+    }
+
+    @Override
+    public String generator() {
+        return "hspdg";
+    }
+
+    @Override
+    public int runMain(Configuration conf, String[] args) throws Exception {
+        return ToolRunner.run(conf, new Main(), args);
+    }
+}
@@ -1,65 +1,96 @@
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.net.URI;
-import java.util.Arrays;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapreduce.Mapper;
 
 /**
  * El Mapper lee el vector de grados de la caché distribuida y emite pares (nodo, grado)
- * para los nodos que le corresponden.
+ * para los nodos que le corresponden. En modo map-only genera directamente las aristas
+ * de su rango, sin pasar por el shuffle.
  */
-public class DirectedGraphMapper extends Mapper<NullWritable, NullWritable, LongWritable, LongWritable> {
+public class DirectedGraphMapper extends Mapper<NullWritable, NullWritable, Writable, Writable> {
 
     private int[] degrees;
+    private boolean mapOnly;
+    private EdgeSink sink;
+    private final GraphStats stats = new GraphStats();
     private int numNodes;
-    private int numMappers;
+    private int startNode;
+    private int endNode;
+    private Checkpoint.PendingNodes pending;
 
     @Override
     protected void setup(Context context) throws IOException, InterruptedException {
         Configuration conf = context.getConfiguration();
         this.numNodes = conf.getInt("num.nodes", 1000);
-        this.numMappers = conf.getInt("num.mappers", 1);
-        this.degrees = new int[this.numNodes];
+        this.mapOnly = conf.getBoolean("map.only", false);
+        this.sink = mapOnly ? stats.track(EdgeSink.create(context)) : null;
 
-        // Obtiene la URI del archivo de caché y lee el vector de grados
+        // El rango de nodos de este Mapper viene en su split
+        EmptyInputFormat.EmptySplit split = (EmptyInputFormat.EmptySplit) context.getInputSplit();
+        this.startNode = split.getStart();
+        this.endNode = split.getEnd();
+        this.pending = Checkpoint.pendingNodes(conf, context.getNumReduceTasks());
+
+        long started = System.nanoTime();
+        this.degrees = loadDegrees(context);
+        context.getCounter(GraphCounters.DEGREE_LOAD_MILLIS).increment((System.nanoTime() - started) / 1_000_000);
+    }
+
+    private int[] loadDegrees(Context context) throws IOException {
+        Configuration conf = context.getConfiguration();
+        // Modo distribuido: el tramo se regenera a partir de la semilla, sin caché
+        if (conf.getBoolean("degrees.distributed", false)) {
+            long seed = conf.getLong("degrees.seed", 0L);
+            return PowerLawGraph.generateSequence(numNodes, seed).slice(startNode, endNode);
+        }
+        // Lee solo el tramo [startNode, endNode) del archivo de caché
         URI[] cacheFiles = context.getCacheFiles();
-        if (cacheFiles != null && cacheFiles.length > 0) {
-            URI degreesUri = cacheFiles[0];
-            FileSystem fs = FileSystem.get(degreesUri, conf);
-            Path degreesPath = new Path(degreesUri);
-            
-            try (DataInputStream dis = new DataInputStream(fs.open(degreesPath))) {
-                int nodesCount = dis.readInt();
-                if (nodesCount != this.numNodes) {
-                    throw new IOException("El número de nodos en el archivo no coincide con la configuración.");
-                }
-                for (int i = 0; i < this.numNodes; i++) {
-                    this.degrees[i] = dis.readInt();
-                }
-            }
+        if (cacheFiles == null || cacheFiles.length == 0) {
+            throw new IOException("Archivo degrees.dat no encontrado en caché");
         }
+        return DegreeFile.readRange(context, cacheFiles[0], numNodes, startNode, endNode);
     }
 
     @Override
     public void map(NullWritable key, NullWritable value, Context context) throws IOException, InterruptedException {
-        // La tarea actual necesita saber su ID para determinar su rango de trabajo.
-        int taskId = context.getTaskAttemptID().getTaskID().getId();
-        
-        // Calcula el rango de nodos para este Mapper
-        int nodesPerMapper = numNodes / numMappers;
-        int startNode = taskId * nodesPerMapper;
-        int endNode = (taskId == numMappers - 1) ? numNodes : startNode + nodesPerMapper;
+        long nodes = 0;
+        long edges = 0;
+        long wrapped = 0;
 
         // Itera sobre el rango asignado y emite los pares (nodo, grado)
         for (int i = startNode; i < endNode; i++) {
-            if (degrees[i] > 0) {
-                context.write(new LongWritable(i), new LongWritable(degrees[i]));
+            int degree = degrees[i - startNode];
+            // Al reanudar (-checkpoint) se omiten los nodos de rangos ya terminados
+            if (degree <= 0 || !pending.contains(i)) continue;
+            if (mapOnly) {
+                // Las aristas de un nodo solo dependen de su grado y de N
+                stats.node(i, degree);
+                wrapped += DirectedGraphReducer.writeEdgeAlwaysGoingForward(degree, i, numNodes, sink);
+                edges += degree;
+            } else {
+                context.write(new LongWritable(i), new LongWritable(degree));
             }
+            nodes++;
+        }
+
+        if (mapOnly) {
+            context.getCounter(GraphCounters.NODES_EXPANDED).increment(nodes);
+            context.getCounter(GraphCounters.EDGES).increment(edges);
+            context.getCounter(GraphCounters.WRAPPED_EDGES).increment(wrapped);
+        } else {
+            context.getCounter(GraphCounters.NODES_EMITTED).increment(nodes);
+        }
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        if (sink != null) {
+            sink.flush();
+            stats.write(context, null);
         }
     }
-}
\ No newline at end of file
+}
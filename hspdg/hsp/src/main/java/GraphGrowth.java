@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Ampliación de un grafo dirigido ya generado (-grow) de N a N' nodos, sin regenerarlo:
+ *
+ * <pre>
+ *   _DEGREES   secuencia de grados de la salida (DegreeFile); sin ella, /graph_input/degrees.dat
+ *   _BOUNDS    fronteras de los rangos de los part-r-*; sin ellas, las de balancedBounds
+ * </pre>
+ *
+ * Un nodo s con grado d escribe s+1..s+d y solo vuelve al inicio si d >= N - s, así que
+ * al pasar a N' cambian únicamente los rangos con algún nodo que volvía: el resto de
+ * part-r-* se conserva tal cual. Los nodos N..N'-1 forman numWorkers rangos nuevos, que
+ * se escriben como part-r-* adicionales.
+ */
+public class GraphGrowth {
+
+    public static final String DEGREES = "_DEGREES";
+    public static final String BOUNDS = "_BOUNDS";
+
+    private static final String PART_PREFIX = "part-r-";
+
+    private final DegreeSequence existing;
+    private final int[] oldBounds;
+
+    private GraphGrowth(DegreeSequence existing, int[] oldBounds) {
+        this.existing = existing;
+        this.oldBounds = oldBounds;
+    }
+
+    /**
+     * Lee los grados y las fronteras de la salida completa en outputDir; inputDegrees
+     * es el degrees.dat del job que la generó, si la salida no tiene _DEGREES.
+     */
+    public static GraphGrowth open(FileSystem fs, Path outputDir, Path inputDegrees) throws IOException {
+        if (!fs.exists(new Path(outputDir, "_SUCCESS"))) {
+            throw new IOException("No hay una salida completa en " + outputDir);
+        }
+        FileStatus[] parts = fs.listStatus(outputDir, path -> path.getName().startsWith(PART_PREFIX));
+        if (parts.length == 0) {
+            throw new IOException("No hay part-r-* en " + outputDir + " (¿salida unida con -merge concat o map-only?)");
+        }
+
+        Path degreesPath = new Path(outputDir, DEGREES);
+        if (!fs.exists(degreesPath)) degreesPath = inputDegrees;
+        if (!fs.exists(degreesPath)) {
+            throw new IOException("No se encuentran los grados de " + outputDir + " en " + degreesPath);
+        }
+        DegreeSequence existing = DegreeFile.read(fs, degreesPath);
+
+        Path boundsPath = new Path(outputDir, BOUNDS);
+        int[] bounds = fs.exists(boundsPath) ? readBounds(fs, boundsPath) : existing.balancedBounds(parts.length);
+        if (bounds.length != parts.length + 1 || bounds[0] != 0 || bounds[bounds.length - 1] != existing.numNodes()) {
+            throw new IOException("Las fronteras de " + outputDir + " no corresponden a sus " + parts.length
+                    + " part-r-* y " + existing.numNodes() + " nodos");
+        }
+        return new GraphGrowth(existing, bounds);
+    }
+
+    public DegreeSequence existing() {
+        return existing;
+    }
+
+    public int numRanges() {
+        return oldBounds.length - 1;
+    }
+
+    /**
+     * Fronteras tras ampliar a grown: las actuales seguidas de numWorkers rangos de los
+     * nodos nuevos, equilibrados por suma de grados.
+     */
+    public int[] bounds(DegreeSequence grown, int numWorkers) {
+        int oldNodes = existing.numNodes();
+        long before = grown.degreeSumBefore(oldNodes);
+        long added = grown.totalDegree() - before;
+        int[] bounds = Arrays.copyOf(oldBounds, oldBounds.length + numWorkers);
+        for (int i = 1; i < numWorkers; i++) {
+            int node = added > 0
+                    ? grown.nodeAtDegreeSum(before + (long) Math.ceil((double) added * i / numWorkers))
+                    : (int) (oldNodes + (long) (grown.numNodes() - oldNodes) * i / numWorkers);
+            bounds[numRanges() + i] = Math.max(node, bounds[numRanges() + i - 1]);
+        }
+        bounds[bounds.length - 1] = grown.numNodes();
+        return bounds;
+    }
+
+    /**
+     * Rangos que no cambian al ampliar (ninguno de sus nodos vuelve al inicio con el N
+     * actual); los rangos nuevos están pendientes.
+     */
+    public boolean[] unchanged(int numWorkers) {
+        boolean[] done = new boolean[numRanges() + numWorkers];
+        long n = existing.numNodes();
+        for (int r = 0; r < numRanges(); r++) {
+            done[r] = true;
+            int runStart = 0;
+            for (int run = 0; run < existing.numRuns() && done[r]; run++) {
+                // El nodo más alto del tramo dentro del rango es el primero que volvería
+                int from = Math.max(oldBounds[r], runStart);
+                int to = Math.min(oldBounds[r + 1], runStart + existing.runCount(run));
+                int degree = existing.runDegree(run);
+                if (from < to && degree > 0 && to - 1 >= n - degree) done[r] = false;
+                runStart += existing.runCount(run);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Sustituye en outputDir los part-r-* (y sus estadísticas) de los rangos pendientes
+     * por los de attempt, guarda los grados y las fronteras de la salida ampliada y
+     * borra attempt. Los part-r-* que no se generaron (rangos sin aristas) quedan vacíos.
+     */
+    public static void publish(Configuration conf, FileSystem fs, Path attempt,
+            Path outputDir, boolean[] done, DegreeSequence grown, int[] bounds) throws IOException {
+        for (int r = 0; r < done.length; r++) {
+            if (done[r]) continue;
+            Path part = part(attempt, r);
+            Path target = part(outputDir, r);
+            if (fs.exists(target)) fs.delete(target, false);
+            if (fs.exists(part)) {
+                if (!fs.rename(part, target)) throw new IOException("No se pudo mover " + part + " a " + target);
+            } else {
+                GraphBatch.createEmptyPart(conf, fs, target);
+            }
+            Path stats = new Path(attempt, GraphStats.taskFile('r', r));
+            Path statsTarget = new Path(outputDir, stats.getName());
+            if (fs.exists(statsTarget)) fs.delete(statsTarget, false);
+            if (fs.exists(stats) && !fs.rename(stats, statsTarget)) {
+                throw new IOException("No se pudo mover " + stats + " a " + statsTarget);
+            }
+        }
+
+        DegreeFile.write(fs, new Path(outputDir, DEGREES), grown);
+        writeBounds(fs, new Path(outputDir, BOUNDS), bounds);
+        // El manifiesto anterior ya no vale; _stats.json lo reescribe el driver con todos los _stats-r-*
+        fs.delete(new Path(outputDir, PartMerger.MANIFEST), false);
+        fs.create(new Path(outputDir, "_SUCCESS"), true).close();
+        fs.delete(attempt, true);
+    }
+
+    private static Path part(Path dir, int range) {
+        return new Path(dir, String.format("%s%05d", PART_PREFIX, range));
+    }
+
+    /**
+     * Fronteras separadas por comas, como DegreeRangePartitioner en la configuración.
+     */
+    static void writeBounds(FileSystem fs, Path path, int[] bounds) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < bounds.length; i++) {
+            if (i > 0) text.append(',');
+            text.append(bounds[i]);
+        }
+        text.append('\n');
+        try (OutputStream out = fs.create(path, true)) {
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static int[] readBounds(FileSystem fs, Path path) throws IOException {
+        String text;
+        try (InputStream in = fs.open(path)) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+        List<Integer> values = new ArrayList<>();
+        for (String value : text.split(",")) values.add(Integer.parseInt(value.trim()));
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -1,10 +1,19 @@
 import java.io.*;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
 import org.apache.hadoop.conf.*;
 import org.apache.hadoop.fs.*;
 import org.apache.hadoop.io.*;
 import org.apache.hadoop.mapreduce.*;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
 import org.apache.hadoop.util.Tool;
 import org.apache.hadoop.util.ToolRunner;
 
@@ -12,6 +21,8 @@ import static java.lang.Math.*;
 
 public class Main extends Configured implements Tool {
 
+    private final RunReport report = new RunReport();
+
     public static void main(String[] args) throws Exception {
         System.exit(ToolRunner.run(new Configuration(), new Main(), args));
     }
@@ -23,6 +34,21 @@ public class Main extends Configured implements Tool {
         int numNodes = 1000;
         int numWorkers = 1;
         boolean argHasW = false;
+        long seed = new SplittableRandom().nextLong();
+        boolean explicitSeed = false;
+        boolean distributed = false;
+        String outputFormat = "text";
+        boolean compress = false;
+        String engine = "auto";
+        String merge = "auto";
+        boolean mapOnly = false;
+        Path reportPath = new Path("/graph_report.json");
+        boolean resumable = false;
+        Path batchSpec = null;
+        boolean both = false;
+        boolean grow = false;
+        String model = "sequence";
+        int edgesPerNode = 4;
 
         for (int i = 0; i < args.length; i++) {
             if ("-n".equals(args[i])) {
@@ -30,122 +56,646 @@ public class Main extends Configured implements Tool {
             } else if ("-w".equals(args[i])) {
                 numWorkers = Integer.parseInt(args[++i]);
                 argHasW = true;
+            } else if ("-seed".equals(args[i])) {
+                seed = Long.parseLong(args[++i]);
+                explicitSeed = true;
+            } else if ("-distributed".equals(args[i])) {
+                distributed = true;
+            } else if ("-format".equals(args[i]) && i + 1 < args.length
+                    && ("text".equals(args[i + 1]) || "intervals".equals(args[i + 1]) || "binary".equals(args[i + 1]) || "csr".equals(args[i + 1]))) {
+                outputFormat = args[++i];
+            } else if ("-compress".equals(args[i])) {
+                compress = true;
+            } else if ("-engine".equals(args[i]) && i + 1 < args.length
+                    && ("local".equals(args[i + 1]) || "hadoop".equals(args[i + 1]) || "auto".equals(args[i + 1]))) {
+                engine = args[++i];
+            } else if ("-merge".equals(args[i]) && i + 1 < args.length
+                    && ("auto".equals(args[i + 1]) || "copy".equals(args[i + 1]) || "concat".equals(args[i + 1])
+                        || "manifest".equals(args[i + 1]))) {
+                merge = args[++i];
+            } else if ("-maponly".equals(args[i])) {
+                mapOnly = true;
+            } else if ("-report".equals(args[i]) && i + 1 < args.length) {
+                reportPath = new Path(args[++i]);
+            } else if ("-checkpoint".equals(args[i])) {
+                resumable = true;
+            } else if ("-batch".equals(args[i]) && i + 1 < args.length) {
+                batchSpec = new Path(args[++i]);
+            } else if ("-both".equals(args[i])) {
+                both = true;
+            } else if ("-grow".equals(args[i])) {
+                grow = true;
+            } else if ("-model".equals(args[i]) && i + 1 < args.length
+                    && ("sequence".equals(args[i + 1]) || "ba".equals(args[i + 1]) || "copy".equals(args[i + 1]))) {
+                model = args[++i];
+            } else if ("-m".equals(args[i]) && i + 1 < args.length) {
+                edgesPerNode = Integer.parseInt(args[++i]);
             } else {
-                System.err.println("Uso: Main -n <num_nodos> [-w <num_workers>]");
+                System.err.println("Uso: Main -n <num_nodos> [-w <num_workers>] [-seed <semilla>] [-distributed]"
+                        + " [-format text|intervals|binary|csr] [-compress]"
+                        + " [-engine local|hadoop|auto] [-merge auto|copy|concat|manifest] [-maponly] [-report <ruta>] [-checkpoint]"
+                        + " [-batch <fichero>] [-both] [-grow] [-model sequence|ba|copy] [-m <aristas_por_nodo>]");
                 return 1;
             }
         }
 
+        if (mapOnly && "csr".equals(outputFormat)) {
+            // targets.bin se une en el orden de los rangos, y los part-m-* no siguen ese orden
+            System.err.println("-format csr no está disponible con -maponly");
+            return 1;
+        }
+
+        if (both && (mapOnly || resumable || batchSpec != null || "local".equals(engine))) {
+            // Un único job con los dos grafos: los demás modos tienen su propio job
+            System.err.println("-both no está disponible con -maponly, -checkpoint, -batch ni -engine local");
+            return 1;
+        }
+
+        if (batchSpec != null && (mapOnly || resumable || distributed || "local".equals(engine))) {
+            // El lote es un único job con los grados de cada grafo en la caché distribuida
+            System.err.println("-batch no está disponible con -maponly, -checkpoint, -distributed ni -engine local");
+            return 1;
+        }
+
+        boolean attachment = !"sequence".equals(model);
+        if (attachment && (both || batchSpec != null || grow)) {
+            // Grados constantes y destinos del modelo: solo en el job de un grafo suelto
+            System.err.println("-model " + model + " no está disponible con -both, -batch ni -grow");
+            return 1;
+        }
+        if (attachment && edgesPerNode < 1) {
+            System.err.println("-m tiene que ser al menos 1");
+            return 1;
+        }
+
+        if (grow && (mapOnly || resumable || both || batchSpec != null || distributed || "local".equals(engine)
+                || "binary".equals(outputFormat) || "csr".equals(outputFormat))) {
+            // Se sustituyen part-r-* sueltos: binary y csr se indexan por la posición global de las aristas
+            System.err.println("-grow no está disponible con -maponly, -checkpoint, -both, -batch, -distributed,"
+                    + " -engine local ni -format binary|csr");
+            return 1;
+        }
+        if (grow && "concat".equals(merge)) {
+            // concat consumiría los part-r-* que necesita la siguiente ampliación
+            System.err.println("-grow no está disponible con -merge concat");
+            return 1;
+        }
+
+        if (resumable && (mapOnly || "local".equals(engine))) {
+            // Se reanuda por rangos de reducer confirmados por el job
+            System.err.println("-checkpoint no está disponible con " + (mapOnly ? "-maponly" : "-engine local"));
+            return 1;
+        }
+
+        // --- Ejecución reanudable: semilla, grados y rangos terminados en checkpoint.dir ---
+        Checkpoint checkpoint = null;
+        if (resumable) {
+            Map<String, String> params = new TreeMap<>();
+            params.put("nodes", Integer.toString(numNodes));
+            params.put("workers", numWorkers + (argHasW ? "" : " (auto)"));
+            params.put("distributed", Boolean.toString(distributed));
+            params.put("format", outputFormat);
+            params.put("compress", Boolean.toString(compress));
+            if (attachment) {
+                params.put("model", model);
+                params.put("edges_per_node", Integer.toString(edgesPerNode));
+            }
+            checkpoint = new Checkpoint(FileSystem.get(getConf()), getConf());
+            seed = checkpoint.begin(params, seed, explicitSeed);
+        }
+
+        if (batchSpec != null) {
+            return runBatch(getConf(), batchSpec, outputFormat, compress, numWorkers, argHasW, reportPath);
+        }
+
         System.out.println("=== Parámetros ===");
         System.out.println("Nodos: " + numNodes);
         System.out.println("Workers (flag -w): " + numWorkers);
+        System.out.println("Semilla: " + seed);
 
         long startTime = System.nanoTime();
 
-        // --- Generar el vector de grados ---
+        // --- Generar la secuencia de grados (por tramos, sin expandir) ---
         System.out.println("Generando vector de grados...");
-        int[] degrees = PowerLawGraph.generateDegrees(numNodes);
-        System.out.println("Vector generado.");
+        long phaseStart = System.nanoTime();
+        Path outputDir = new Path("/graph_output");
+        DegreeSequence sequence = checkpoint != null ? checkpoint.savedDegrees(numNodes) : null;
+        GraphGrowth growth = null;
+        if (grow) {
+            // La salida actual y sus grados; se añaden los nodos hasta numNodes
+            try {
+                growth = GraphGrowth.open(FileSystem.get(getConf()), outputDir, new Path("/graph_input/degrees.dat"));
+                sequence = PowerLawGraph.growSequence(growth.existing(), numNodes, seed);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+            System.out.println("Ampliando " + outputDir + " de " + growth.existing().numNodes() + " a " + numNodes + " nodos");
+        } else if (sequence == null) {
+            // -model ba|copy: m aristas por nodo, con los destinos del modelo
+            sequence = attachment ? AttachmentModel.sequence(numNodes, edgesPerNode)
+                    : PowerLawGraph.generateSequence(numNodes, seed);
+            if (checkpoint != null) checkpoint.saveDegrees(sequence);
+        }
+        report.phase("degrees", phaseStart);
+        System.out.println("Vector generado (" + sequence.numRuns() + " tramos).");
 
-        long totalEdges = 0;
-        for (int d : degrees) totalEdges += d;
+        long totalEdges = sequence.totalDegree();
         System.out.println("Suma total de grados: " + totalEdges);
 
         // --- Configuración del Job ---
         Configuration conf = getConf();
         conf.setInt("num.nodes", numNodes);
         conf.setInt("num.workers", numWorkers);
+        conf.setLong("degrees.seed", seed);
+        conf.setBoolean("degrees.distributed", distributed);
+        conf.set("output.format", outputFormat);
+        conf.setBoolean("output.compress", compress);
+        conf.setBoolean("map.only", mapOnly);
+        conf.set(AttachmentModel.MODEL, model);
+        conf.setInt(AttachmentModel.EDGES, edgesPerNode);
 
         // Selección automática de mappers
-        int numMappers;
-        if (numWorkers > 1 && !argHasW) {
-            numMappers = (int) max(numWorkers, round(log(numNodes)));
-        } else {
-            numMappers = numWorkers;
-        }
-        if (numMappers < 1) numMappers = 1;
+        int numMappers = numMappers(numNodes, numWorkers, argHasW);
         conf.setInt("num.mappers", numMappers);
 
         System.out.println("Map tasks: " + numMappers);
 
-        Path inputDir = new Path("/graph_input");
-        Path outputDir = new Path("/graph_output");
+        // Motor local para grafos pequeños: mismo resultado sin enviar un job
+        boolean local = checkpoint == null && !both && !grow && LocalEngine.useLocal(engine, conf, totalEdges);
+        System.out.println("Motor: " + (local ? "local" : "hadoop"));
+
+        report.param("graph", "directed").param("nodes", numNodes).param("workers", numWorkers)
+                .param("mappers", numMappers).param("seed", seed).param("engine", local ? "local" : "hadoop")
+                .param("format", outputFormat).param("compress", compress).param("distributed", distributed)
+                .param("map_only", mapOnly).param("merge", merge).param("checkpoint", resumable).param("both", both).param("grow", grow).param("model", model).param("total_edges", totalEdges);
+        if (attachment) report.param("edges_per_node", edgesPerNode);
 
         FileSystem fs = FileSystem.get(conf);
 
-        // Solo borra salida previa si existe
-        if (fs.exists(outputDir)) {
+        // Solo borra salida previa si existe; al reanudar se conservan los rangos terminados
+        boolean[] done = null;
+        if (checkpoint != null) {
+            done = checkpoint.prepare(outputDir, numWorkers);
+            System.out.println("Checkpoint " + checkpoint.getDir() + ": " + (numWorkers - Checkpoint.countPending(done))
+                    + " de " + numWorkers + " rangos ya generados");
+        } else if (grow) {
+            done = growth.unchanged(numWorkers);
+            System.out.println("Rangos conservados: " + (growth.numRanges() - Checkpoint.countPending(done) + numWorkers)
+                    + " de " + growth.numRanges() + "; se generan " + Checkpoint.countPending(done)
+                    + " (" + numWorkers + " nuevos)");
+            report.param("grown_from", growth.existing().numNodes()).param("ranges", done.length)
+                    .param("regenerated_ranges", Checkpoint.countPending(done));
+        } else if (fs.exists(outputDir)) {
             System.out.println("Eliminando salida previa...");
             fs.delete(outputDir, true);
         }
 
-        // --- Guardar el vector de grados en caché distribuida ---
-        Path degreesPath = new Path(inputDir, "degrees.dat");
-        if (fs.exists(inputDir)) fs.delete(inputDir, true);
-        fs.mkdirs(inputDir);
+        boolean success;
+        if (local) {
+            // Sin job ni degrees.dat: los part-* se escriben directamente en disco local
+            phaseStart = System.nanoTime();
+            if (attachment) {
+                AttachmentModel.runLocal(conf, fs, sequence, outputDir);
+            } else {
+                runLocal(conf, fs, sequence, outputDir);
+            }
+            report.phase("local", phaseStart);
+            success = true;
+        } else if (checkpoint != null) {
+            success = runResumable(conf, fs, sequence, outputDir, checkpoint, done);
+        } else if (grow) {
+            success = runGrow(conf, fs, sequence, outputDir, growth, done);
+        } else if (both) {
+            success = runBoth(conf, fs, sequence, outputDir);
+        } else {
+            success = runJob(conf, fs, sequence, outputDir, sequence.balancedBounds(numWorkers));
+        }
+
+        long durationNano = System.nanoTime() - startTime;
+        double seconds = durationNano / 1_000_000_000.0;
+        System.out.printf("Tiempo total: %.3f segundos%n", seconds);
+
+        // --- Estadísticas que calculan las tareas al emitir las aristas (en -both, DualGraphJob) ---
+        if (success && !both) {
+            phaseStart = System.nanoTime();
+            GraphStats stats = GraphStats.collect(fs, outputDir);
+            String label = attachment ? "directed-" + model : "directed";
+            // Al ampliar se combinan los _stats-r-* conservados y los nuevos: faltan si la salida no los tenía
+            if (grow && stats.requested() != totalEdges) {
+                label += "-partial";
+                System.out.println("Faltan estadísticas de rangos conservados: " + GraphStats.FILE + " es parcial");
+            }
+            Path statsPath = stats.writeJson(fs, outputDir, label, totalEdges);
+            report.phase("stats", phaseStart);
+            System.out.println("Estadísticas: " + stats.summary() + " (" + statsPath + ")");
+        }
+
+        // --- Salida binaria: fragmentos nombrados por su primera arista y el índice, sin merge ---
+        if (success && !both && "binary".equals(outputFormat)) {
+            phaseStart = System.nanoTime();
+            EdgeIndex index = EdgeIndex.fromDegrees(sequence);
+            if (!local) EdgeBinaryOutputFormat.nameShards(fs, outputDir, index);
+            index.write(fs, new Path(outputDir, EdgeBinaryOutputFormat.INDEX));
+            System.out.println("Índice de aristas escrito en " + new Path(outputDir, EdgeBinaryOutputFormat.INDEX));
+            report.phase("index", phaseStart);
+        }
+
+        // --- CSR: targets.bin de los reducers y offsets.bin de la suma prefija de grados ---
+        if (success && !both && "csr".equals(outputFormat)) {
+            phaseStart = System.nanoTime();
+            EdgeIndex index = EdgeIndex.fromDegrees(sequence);
+            if (local) {
+                CsrOutput.finish(fs, outputDir, index);
+            } else {
+                CsrOutput.finishJob(fs, outputDir, index, sequence.balancedBounds(numWorkers));
+            }
+            System.out.println("CSR escrito en " + outputDir);
+            report.phase("csr", phaseStart);
+        }
+
+        // --- Combinar archivos de salida: concat, copia paralela o manifiesto ---
+        // Los tramos binarios no se concatenan: se leen por directorio con EdgeIntervalReader
+        if (success && !both && numMappers > 1 && "text".equals(outputFormat)) {
+            phaseStart = System.nanoTime();
+            FileStatus[] parts = fs.listStatus(outputDir, path -> path.getName().startsWith("part-"));
+            Arrays.sort(parts);
+            if (mapOnly) sortByFirstSource(fs, parts);
+
+            System.out.println("Uniendo archivos de salida (" + merge + ") ...");
+            Path merged = PartMerger.merge(fs, outputDir, parts, new Path("/graph_output_final.txt"), merge);
+            report.phase("merge", phaseStart);
+            System.out.println("Merge completado exitosamente en " + merged);
+        }
+
+        // --- -both: cada grafo en su subdirectorio, completado como una ejecución suelta ---
+        // Las salidas de texto quedan en part-r-* ordenados, sin merge
+        if (success && both) {
+            phaseStart = System.nanoTime();
+            DualGraphJob.finish(conf, fs, outputDir, sequence, numWorkers, numMappers);
+            report.phase("finish", phaseStart);
+            System.out.println("Grafos dirigido y no dirigido en " + new Path(outputDir, DualGraphJob.DIRECTED)
+                    + " y " + new Path(outputDir, DualGraphJob.UNDIRECTED));
+        }
 
-        try (FSDataOutputStream out = fs.create(degreesPath, true);
-             BufferedOutputStream bos = new BufferedOutputStream(out);
-             DataOutputStream dos = new DataOutputStream(bos)) {
-            dos.writeInt(numNodes);
-            for (int deg : degrees) dos.writeInt(deg);
+        // Grados de la salida para una ampliación posterior con -grow (los de -grow los deja publish)
+        if (success && !grow && !both && !mapOnly && !attachment && ("text".equals(outputFormat) || "intervals".equals(outputFormat))) {
+            DegreeFile.write(fs, new Path(outputDir, GraphGrowth.DEGREES), sequence);
         }
 
+        // La salida está completa: el checkpoint ya no hace falta
+        if (success && checkpoint != null) checkpoint.delete();
+
+        // --- Informe de la ejecución en JSON ---
+        report.setSuccess(success);
+        report.write(fs, reportPath);
+        System.out.println("Informe de ejecución en " + fs.makeQualified(reportPath));
+
+        return success ? 0 : 1;
+    }
+
+    /**
+     * Genera el grafo con un job MapReduce sobre outputDir, un reducer por rango de bounds.
+     */
+    private boolean runJob(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir, int[] bounds)
+            throws Exception {
+        boolean mapOnly = conf.getBoolean("map.only", false);
+
         // --- Crear Job Hadoop ---
         Job job = Job.getInstance(conf, "Undirected Power Law Graph Generation");
         job.setJarByClass(Main.class);
-        job.addCacheFile(degreesPath.toUri());
+        shareDegrees(job, fs, sequence);
 
         // --- Configurar clases ---
         job.setInputFormatClass(EmptyInputFormat.class);
-        job.setMapperClass(DirectedGraphMapper.class);
+        // -model ba|copy: grados constantes, sin leer degrees.dat en los mappers
+        job.setMapperClass(AttachmentModel.fromConf(conf) != null ? AttachmentGraphMapper.class : DirectedGraphMapper.class);
         //job.setCombinerClass(DirectedGraphCombiner.class);
         job.setReducerClass(DirectedGraphReducer.class);
 
-        // Reducers: igual al número de workers (más eficiente que 1 solo)
-        job.setNumReduceTasks(numWorkers);
+        if (mapOnly) {
+            // Map-only: los mappers escriben las aristas directamente, sin sort, spill ni shuffle
+            job.setNumReduceTasks(0);
+        } else {
+            // Reducers: igual al número de workers (más eficiente que 1 solo)
+            job.setNumReduceTasks(bounds.length - 1);
 
-        // Tipos de salida intermedia y final
-        job.setMapOutputKeyClass(LongWritable.class);
-        job.setMapOutputValueClass(LongWritable.class);
-        job.setOutputKeyClass(LongWritable.class);
-        job.setOutputValueClass(LongWritable.class);
+            // Rangos contiguos de nodos por reducer, equilibrados por suma de grados
+            job.setPartitionerClass(DegreeRangePartitioner.class);
+            DegreeRangePartitioner.setBounds(job.getConfiguration(), bounds);
+
+            // Tipos de salida intermedia
+            job.setMapOutputKeyClass(LongWritable.class);
+            job.setMapOutputValueClass(LongWritable.class);
+        }
+
+        // Tipos de salida final
+        setOutputTypes(job);
 
         FileOutputFormat.setOutputPath(job, outputDir);
 
         // --- Ejecutar ---
+        long jobStart = System.nanoTime();
         boolean success = job.waitForCompletion(true);
+        report.phase("job", jobStart);
+        report.addCounters(job.getCounters());
+        return success;
+    }
 
-        long durationNano = System.nanoTime() - startTime;
-        double seconds = durationNano / 1_000_000_000.0;
-        System.out.printf("Tiempo total: %.3f segundos%n", seconds);
+    /**
+     * Modo -both: los grafos dirigido y no dirigido en un solo job (ver DualGraphJob).
+     */
+    private boolean runBoth(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws Exception {
+        Job job = Job.getInstance(conf, "Directed + Undirected Power Law Graph Generation");
+        job.setJarByClass(Main.class);
+        shareDegrees(job, fs, sequence);
 
-        // --- Combinar archivos de salida (getmerge por API Hadoop) ---
-        if (success && numMappers > 1) {
-            Path mergedFile = new Path("/graph_output_final.txt");
-            System.out.println("Uniendo archivos de salida en " + mergedFile + " ...");
-
-            try (FSDataOutputStream out = fs.create(mergedFile, true)) {
-                FileStatus[] parts = fs.listStatus(outputDir);
-                byte[] buffer = new byte[8192];
-
-                for (FileStatus part : parts) {
-                    if (!part.isFile()) continue;
-                    String name = part.getPath().getName();
-                    if (!name.startsWith("part-")) continue;
-
-                    try (FSDataInputStream in = fs.open(part.getPath())) {
-                        int bytes;
-                        while ((bytes = in.read(buffer)) > 0) {
-                            out.write(buffer, 0, bytes);
-                        }
+        setOutputTypes(job);
+        DualGraphJob.configure(job, sequence, conf.getInt("num.workers", 1));
+        FileOutputFormat.setOutputPath(job, outputDir);
+
+        long jobStart = System.nanoTime();
+        boolean success = job.waitForCompletion(true);
+        report.phase("job", jobStart);
+        report.addCounters(job.getCounters());
+        return success;
+    }
+
+    /**
+     * Job de una ejecución reanudable: genera solo los rangos de reducer que faltan en
+     * un directorio de intento del checkpoint. Con FileOutputCommitter v2 cada part-r-*
+     * se confirma al terminar su tarea, así que se recoge en outputDir aunque el job falle.
+     */
+    private boolean runResumable(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir,
+            Checkpoint checkpoint, boolean[] done) throws Exception {
+        if (Checkpoint.countPending(done) > 0) {
+            Checkpoint.setDoneRanges(conf, done);
+            conf.setInt("mapreduce.fileoutputcommitter.algorithm.version", 2);
+            conf.set(DegreeFile.PATH, fs.makeQualified(checkpoint.degreesPath()).toString());
+
+            Path attempt = checkpoint.newAttempt();
+            try {
+                runJob(conf, fs, sequence, attempt, sequence.balancedBounds(conf.getInt("num.workers", 1)));
+            } finally {
+                checkpoint.harvest(attempt, outputDir, done);
+            }
+        }
+
+        int pending = Checkpoint.countPending(done);
+        if (pending > 0) {
+            System.err.println("Faltan " + pending + " rangos: vuelve a ejecutar con -checkpoint para reanudar");
+            return false;
+        }
+        fs.create(new Path(outputDir, "_SUCCESS"), true).close();
+        return true;
+    }
+
+    /**
+     * Modo -grow: un job con los rangos de la salida actual más los de los nodos nuevos
+     * que genera solo los pendientes (los que cambian con el nuevo N y los nuevos) en
+     * un directorio aparte; después GraphGrowth.publish los sustituye en outputDir.
+     */
+    private boolean runGrow(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir,
+            GraphGrowth growth, boolean[] done) throws Exception {
+        int[] bounds = growth.bounds(sequence, conf.getInt("num.workers", 1));
+        Checkpoint.setDoneRanges(conf, done);
+        Path attempt = new Path("/graph_output_grow");
+        if (fs.exists(attempt)) fs.delete(attempt, true);
+
+        boolean success = runJob(conf, fs, sequence, attempt, bounds);
+        if (success) {
+            long phaseStart = System.nanoTime();
+            GraphGrowth.publish(conf, fs, attempt, outputDir, done, sequence, bounds);
+            report.phase("publish", phaseStart);
+        }
+        return success;
+    }
+
+    /**
+     * Vector de grados para los mappers: en la caché distribuida (degrees.dat) o, en
+     * modo distribuido, regenerado en cada mapper a partir de la semilla.
+     */
+    private void shareDegrees(Job job, FileSystem fs, DegreeSequence sequence) throws IOException {
+        Configuration conf = job.getConfiguration();
+        if (conf.getBoolean("degrees.distributed", false)) {
+            System.out.println("Grados generados en los mappers (semilla " + conf.getLong("degrees.seed", 0L) + ")");
+            return;
+        }
+        if (conf.get(DegreeFile.PATH) != null) {
+            // Grados ya subidos (los del checkpoint)
+            job.addCacheFile(new Path(conf.get(DegreeFile.PATH)).toUri());
+            return;
+        }
+        long uploadStart = System.nanoTime();
+        Path inputDir = new Path("/graph_input");
+        Path degreesPath = new Path(inputDir, "degrees.dat");
+        if (fs.exists(inputDir)) fs.delete(inputDir, true);
+        fs.mkdirs(inputDir);
+
+        DegreeFile.write(fs, degreesPath, sequence);
+        conf.set(DegreeFile.PATH, fs.makeQualified(degreesPath).toString());
+        job.addCacheFile(degreesPath.toUri());
+        report.phase("upload", uploadStart);
+    }
+
+    private static void setOutputTypes(Job job) {
+        Configuration conf = job.getConfiguration();
+        String outputFormat = conf.get("output.format", "text");
+        if ("intervals".equals(outputFormat)) {
+            // Tramos (source, firstTarget, count) en SequenceFile; -compress activa compresión por bloques
+            EdgeIntervalOutputFormat.configure(job, conf.getBoolean("output.compress", false));
+        } else if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+            // Registros de ancho fijo: la posición de cada nodo sale del índice de aristas
+            EdgeBinaryOutputFormat.configure(job);
+        } else {
+            // EdgeSink escribe lotes de líneas "source\ttarget" con clave nula
+            job.setOutputKeyClass(NullWritable.class);
+            job.setOutputValueClass(Text.class);
+        }
+    }
+
+    /**
+     * Selección automática de mappers: con -w explícito, uno por worker.
+     */
+    private static int numMappers(int numNodes, int numWorkers, boolean argHasW) {
+        int numMappers;
+        if (numWorkers > 1 && !argHasW) {
+            numMappers = (int) max(numWorkers, round(log(numNodes)));
+        } else {
+            numMappers = numWorkers;
+        }
+        return max(numMappers, 1);
+    }
+
+    /**
+     * Modo lote (-batch): todos los grafos del fichero (ver GraphBatch) en un único job,
+     * con un solo envío y una sola subida de grados. Cada grafo usa los mappers de una
+     * ejecución suelta y numWorkers reducers; al terminar su salida se mueve a la ruta
+     * indicada y se completa como en una ejecución suelta (índice o CSR). Las salidas de
+     * texto quedan en part-r-* ordenados, sin merge.
+     */
+    private int runBatch(Configuration conf, Path spec, String outputFormat, boolean compress, int numWorkers,
+            boolean argHasW, Path reportPath) throws Exception {
+        conf.set("output.format", outputFormat);
+        conf.setBoolean("output.compress", compress);
+        FileSystem fs = FileSystem.get(conf);
+
+        List<GraphBatch.Entry> entries;
+        try {
+            entries = GraphBatch.read(fs, spec);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+        boolean undirected = false;
+        for (GraphBatch.Entry entry : entries) undirected |= "undirected".equals(entry.mode);
+        System.out.println("=== Lote: " + entries.size() + " grafos, " + numWorkers + " reducers por grafo ===");
+        report.param("graph", "batch").param("batch", spec.toString()).param("graphs", entries.size())
+                .param("workers", numWorkers).param("format", outputFormat).param("compress", compress);
+
+        long startTime = System.nanoTime();
+        Path inputDir = new Path("/graph_input/batch");
+        Path batchDir = new Path("/graph_batch");
+        if (fs.exists(inputDir)) fs.delete(inputDir, true);
+        if (fs.exists(batchDir)) fs.delete(batchDir, true);
+        fs.mkdirs(inputDir);
+
+        Job job = Job.getInstance(conf, "Power Law Graph Batch");
+        job.setJarByClass(Main.class);
+
+        // --- Grados de cada grafo: un degrees.dat por grafo en la caché distribuida ---
+        long phaseStart = System.nanoTime();
+        List<DegreeSequence> sequences = new ArrayList<>();
+        for (GraphBatch.Entry entry : entries) {
+            sequences.add(PowerLawGraph.generateSequence(entry.numNodes, entry.seed));
+        }
+        report.phase("degrees", phaseStart);
+
+        phaseStart = System.nanoTime();
+        for (int g = 0; g < entries.size(); g++) {
+            GraphBatch.Entry entry = entries.get(g);
+            Path degreesPath = new Path(inputDir, String.format("g%05d-degrees.dat", g));
+            DegreeFile.write(fs, degreesPath, sequences.get(g));
+            job.addCacheFile(degreesPath.toUri());
+            GraphBatch.setGraph(job.getConfiguration(), g, entry.mode, entry.numNodes, fs.makeQualified(degreesPath),
+                    numMappers(entry.numNodes, numWorkers, argHasW), sequences.get(g).balancedBounds(numWorkers));
+            System.out.println("Grafo " + g + ": " + entry.numNodes + " nodos, semilla " + entry.seed
+                    + ", " + sequences.get(g).totalDegree() + " grados, " + entry.mode + " -> " + entry.output);
+        }
+        report.phase("upload", phaseStart);
+
+        // --- Configurar clases ---
+        job.setInputFormatClass(BatchInputFormat.class);
+        job.setMapperClass(BatchGraphMapper.class);
+        // El combiner de una ejecución suelta no dirigida; la dirigida no lo usa
+        if (undirected) job.setCombinerClass(UndirectedGraphCombiner.class);
+        job.setReducerClass(BatchGraphReducer.class);
+        job.setPartitionerClass(BatchPartitioner.class);
+        job.setNumReduceTasks(entries.size() * numWorkers);
+        job.setMapOutputKeyClass(LongWritable.class);
+        job.setMapOutputValueClass(LongWritable.class);
+
+        // Cada reducer escribe con MultipleOutputs en el directorio de su grafo; sin
+        // LazyOutputFormat quedarían además part-r-* vacíos en la raíz del job
+        setOutputTypes(job);
+        LazyOutputFormat.setOutputFormatClass(job, job.getOutputFormatClass());
+        FileOutputFormat.setOutputPath(job, batchDir);
+
+        // --- Ejecutar ---
+        phaseStart = System.nanoTime();
+        boolean success = job.waitForCompletion(true);
+        report.phase("job", phaseStart);
+        report.addCounters(job.getCounters());
+
+        // --- Salida de cada grafo en su ruta ---
+        if (success) {
+            phaseStart = System.nanoTime();
+            for (int g = 0; g < entries.size(); g++) {
+                Path output = entries.get(g).output;
+                GraphBatch.publish(conf, fs, batchDir, g, numWorkers, output);
+                String mode = entries.get(g).mode;
+                GraphStats.collect(fs, output).writeJson(fs, output, mode, sequences.get(g).totalDegree());
+                if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+                    EdgeIndex index = "directed".equals(mode) ? EdgeIndex.fromDegrees(sequences.get(g))
+                            : UndirectedEdgeSpliterator.edgeIndex(sequences.get(g), GraphBatch.numMappers(job.getConfiguration(), g));
+                    if ("binary".equals(outputFormat)) {
+                        EdgeBinaryOutputFormat.nameShards(fs, output, index);
+                        index.write(fs, new Path(output, EdgeBinaryOutputFormat.INDEX));
+                    } else {
+                        CsrOutput.finishJob(fs, output, index, sequences.get(g).balancedBounds(numWorkers));
                     }
                 }
             }
-
-            System.out.println("Merge completado exitosamente en /graph_output_final.txt");
+            fs.delete(batchDir, true);
+            report.phase("publish", phaseStart);
+            System.out.println("Lote completado: " + entries.size() + " grafos");
         }
+        System.out.printf("Tiempo total: %.3f segundos%n", (System.nanoTime() - startTime) / 1_000_000_000.0);
 
+        report.setSuccess(success);
+        report.write(fs, reportPath);
+        System.out.println("Informe de ejecución en " + fs.makeQualified(reportPath));
         return success ? 0 : 1;
     }
+
+    /**
+     * Motor local: los mismos rangos de nodos que el job (los de los mappers en
+     * map-only, los de los reducers en otro caso) generados en hilos de este proceso.
+     * Cada rango deja sus estadísticas en un _stats-* como las tareas del job.
+     */
+    private static void runLocal(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws IOException {
+        boolean mapOnly = conf.getBoolean("map.only", false);
+        int parts = mapOnly ? conf.getInt("num.mappers", 1) : conf.getInt("num.workers", 1);
+        long numNodes = sequence.numNodes();
+
+        int[] bounds = sequence.balancedBounds(parts);
+
+        LocalEngine.RangeWriter writer = (start, end, sink) -> {
+            GraphStats rangeStats = new GraphStats();
+            EdgeSink tracked = rangeStats.track(sink);
+            int[] degrees = sequence.slice(start, end);
+            for (int i = start; i < end; i++) {
+                int degree = degrees[i - start];
+                if (degree <= 0) continue;
+                rangeStats.node(i, degree);
+                DirectedGraphReducer.writeEdgeAlwaysGoingForward(degree, i, numNodes, tracked);
+            }
+            if (start < end) {
+                rangeStats.write(fs, new Path(outputDir, GraphStats.taskFile(mapOnly ? 'm' : 'r',
+                        DegreeRangePartitioner.rangeOf(bounds, start))));
+            }
+        };
+
+        String outputFormat = conf.get("output.format", "text");
+        if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+            // Un único fichero: cada rango escribe en el desplazamiento que da el índice
+            Path file = new Path(outputDir, "csr".equals(outputFormat)
+                    ? CsrOutput.TARGETS : EdgeBinaryOutputFormat.shardName(0));
+            LocalEngine.writeAtOffsets(conf, fs, file, bounds, EdgeIndex.fromDegrees(sequence), writer);
+            fs.create(new Path(outputDir, "_SUCCESS"), true).close();
+        } else {
+            LocalEngine.writeParts(conf, fs, outputDir, bounds, mapOnly ? "part-m-" : "part-r-", writer);
+        }
+    }
+
+    /**
+     * Hadoop numera las tareas map por tamaño de split, no por rango de nodos: en modo
+     * map-only los part-m-* se ordenan por el primer nodo origen que contienen.
+     */
+    private static void sortByFirstSource(FileSystem fs, FileStatus[] parts) throws IOException {
+        Map<FileStatus, Long> firstSource = new HashMap<>();
+        for (FileStatus part : parts) {
+            long source = Long.MAX_VALUE;
+            if (part.isFile() && part.getLen() > 0) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(part.getPath())))) {
+                    String line = reader.readLine();
+                    if (line != null) source = Long.parseLong(line.split("\\s+")[0]);
+                }
+            }
+            firstSource.put(part, source);
+        }
+        Arrays.sort(parts, Comparator.comparing(firstSource::get));
+    }
 }
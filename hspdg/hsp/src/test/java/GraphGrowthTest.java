@@ -0,0 +1,97 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GraphGrowthTest {
+
+    private static final int OLD_NODES = 3000;
+    private static final int NEW_NODES = 4000;
+    private static final int OLD_RANGES = 6;
+    private static final int NEW_RANGES = 3;
+    private static final long SEED = 9L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void unchangedRangesMatchFromScratch() throws Exception {
+        FileSystem fs = FileSystem.getLocal(new Configuration()).getRaw();
+        Path outputDir = new Path(folder.getRoot().toURI().toString());
+        DegreeSequence existing = PowerLawGraph.generateSequence(OLD_NODES, SEED);
+        fs.create(new Path(outputDir, "_SUCCESS")).close();
+        for (int r = 0; r < OLD_RANGES; r++) fs.create(new Path(outputDir, String.format("part-r-%05d", r))).close();
+        DegreeFile.write(fs, new Path(outputDir, GraphGrowth.DEGREES), existing);
+
+        GraphGrowth growth = GraphGrowth.open(fs, outputDir, new Path(outputDir, "no-existe"));
+        DegreeSequence grown = PowerLawGraph.growSequence(growth.existing(), NEW_NODES, SEED);
+        int[] bounds = growth.bounds(grown, NEW_RANGES);
+        boolean[] done = growth.unchanged(NEW_RANGES);
+
+        int[] oldBounds = existing.balancedBounds(OLD_RANGES);
+        assertArrayEquals(oldBounds, Arrays.copyOf(bounds, OLD_RANGES + 1));
+        assertEquals(NEW_NODES, bounds[bounds.length - 1]);
+        assertEquals(OLD_RANGES + NEW_RANGES, done.length);
+
+        int kept = 0;
+        for (int r = 0; r < done.length; r++) {
+            if (r >= OLD_RANGES) {
+                assertFalse(done[r]);
+                continue;
+            }
+            // Un rango se conserva si y solo si ninguno de sus nodos cambia de aristas
+            boolean same = true;
+            for (int s = oldBounds[r]; s < oldBounds[r + 1]; s++) {
+                assertEquals(existing.degree(s), grown.degree(s));
+                same &= edges(existing.degree(s), s, OLD_NODES).equals(edges(grown.degree(s), s, NEW_NODES));
+            }
+            assertEquals("rango " + r, same, done[r]);
+            if (done[r]) kept++;
+        }
+        assertTrue(kept > 0);
+        assertNotEquals(OLD_RANGES, kept);
+    }
+
+    @Test
+    public void boundsRoundTrip() throws IOException {
+        FileSystem fs = FileSystem.getLocal(new Configuration()).getRaw();
+        Path path = new Path(folder.getRoot().toURI().toString(), GraphGrowth.BOUNDS);
+        int[] bounds = {0, 10, 10, 250, 4000};
+        GraphGrowth.writeBounds(fs, path, bounds);
+        assertArrayEquals(bounds, GraphGrowth.readBounds(fs, path));
+    }
+
+    private static List<Long> edges(int degree, long source, long numNodes) throws Exception {
+        EdgeList sink = new EdgeList();
+        DirectedGraphReducer.writeEdgeAlwaysGoingForward(degree, source, numNodes, sink);
+        return sink.edges;
+    }
+
+    /**
+     * Sink que guarda cada arista como el long de EdgeSpliterator.pack.
+     */
+    private static class EdgeList extends EdgeSink {
+        final List<Long> edges = new ArrayList<>();
+
+        EdgeList() {
+            super(null);
+        }
+
+        @Override
+        public void writeRange(long source, long firstTarget, long count) {
+            for (long i = 0; i < count; i++) edges.add(EdgeSpliterator.pack(source, firstTarget + i));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.io.IOException;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * Segunda ronda del modo exacto: las aristas llegan agrupadas y ordenadas por (u, v)
+ * y cada una se escribe una sola vez. Las aristas consecutivas del mismo origen se
+ * agrupan en un tramo antes de pasar al EdgeSink.
+ *
+ * Sirve también de combiner (Combiner), que descarta repetidas en el lado map.
+ */
+public class EdgeDedupReducer extends Reducer<LongWritable, NullWritable, Writable, Writable> {
+
+    private EdgeSink sink;
+    private long source = -1;
+    private long firstTarget;
+    private long count;
+    private long edges;
+
+    @Override
+    protected void setup(Context context) {
+        this.sink = EdgeSink.create(context);
+    }
+
+    @Override
+    public void reduce(LongWritable key, Iterable<NullWritable> values, Context context)
+            throws IOException, InterruptedException {
+        context.getCounter(StubMatchingReducer.Stubs.MULTI_EDGE).increment(2 * repeated(values));
+
+        long u = EdgeSpliterator.source(key.get());
+        long v = EdgeSpliterator.target(key.get());
+        edges++;
+        if (u == source && v == firstTarget + count) {
+            count++;
+            return;
+        }
+        sink.writeRange(source, firstTarget, count);
+        source = u;
+        firstTarget = v;
+        count = 1;
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        sink.writeRange(source, firstTarget, count);
+        sink.flush();
+        context.getCounter(GraphCounters.EDGES).increment(edges);
+    }
+
+    /**
+     * Copias de la arista además de la primera.
+     */
+    static long repeated(Iterable<NullWritable> values) {
+        long copies = -1;
+        for (NullWritable ignored : values) copies++;
+        return copies;
+    }
+
+    /**
+     * Combiner: deja una copia de cada arista por tarea map.
+     */
+    public static class Combiner extends Reducer<LongWritable, NullWritable, LongWritable, NullWritable> {
+        @Override
+        public void reduce(LongWritable key, Iterable<NullWritable> values, Context context)
+                throws IOException, InterruptedException {
+            context.getCounter(StubMatchingReducer.Stubs.MULTI_EDGE).increment(2 * repeated(values));
+            context.write(key, NullWritable.get());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+
+/**
+ * DegreeRangePartitioner para claves que son aristas empaquetadas
+ * (EdgeSpliterator.pack): reparte por el nodo origen.
+ */
+public class EdgeSourcePartitioner extends DegreeRangePartitioner {
+
+    @Override
+    public int getPartition(LongWritable key, Writable value, int numPartitions) {
+        return partitionOf((int) EdgeSpliterator.source(key.get()), numPartitions);
+    }
+}
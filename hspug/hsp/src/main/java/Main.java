@@ -1,10 +1,20 @@
 import java.io.*;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
 import org.apache.hadoop.conf.*;
 import org.apache.hadoop.fs.*;
 import org.apache.hadoop.io.*;
 import org.apache.hadoop.mapreduce.*;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
 import org.apache.hadoop.util.Tool;
 import org.apache.hadoop.util.ToolRunner;
 
@@ -12,6 +22,11 @@ import static java.lang.Math.*;
 
 public class Main extends Configured implements Tool {
 
+    // Extremos que caben en el long[] de runLocalExact
+    private static final long MAX_LOCAL_STUBS = Integer.MAX_VALUE - 8;
+
+    private final RunReport report = new RunReport();
+
     public static void main(String[] args) throws Exception {
         System.exit(ToolRunner.run(new Configuration(), new Main(), args));
     }
@@ -23,6 +38,21 @@ public class Main extends Configured implements Tool {
         int numNodes = 1000;
         int numWorkers = 1;
         boolean argHasW = false;
+        long seed = new SplittableRandom().nextLong();
+        boolean explicitSeed = false;
+        boolean distributed = false;
+        String outputFormat = "text";
+        boolean compress = false;
+        String engine = "auto";
+        String merge = "auto";
+        boolean exact = false;
+        Path reportPath = new Path("/graph_report.json");
+        boolean resumable = false;
+        Path batchSpec = null;
+        boolean both = false;
+        boolean symmetric = false;
+        String model = "sequence";
+        int edgesPerNode = 4;
 
         for (int i = 0; i < args.length; i++) {
             if ("-n".equals(args[i])) {
@@ -30,122 +60,812 @@ public class Main extends Configured implements Tool {
             } else if ("-w".equals(args[i])) {
                 numWorkers = Integer.parseInt(args[++i]);
                 argHasW = true;
+            } else if ("-seed".equals(args[i])) {
+                seed = Long.parseLong(args[++i]);
+                explicitSeed = true;
+            } else if ("-distributed".equals(args[i])) {
+                distributed = true;
+            } else if ("-format".equals(args[i]) && i + 1 < args.length
+                    && ("text".equals(args[i + 1]) || "intervals".equals(args[i + 1]) || "binary".equals(args[i + 1]) || "csr".equals(args[i + 1]))) {
+                outputFormat = args[++i];
+            } else if ("-compress".equals(args[i])) {
+                compress = true;
+            } else if ("-engine".equals(args[i]) && i + 1 < args.length
+                    && ("local".equals(args[i + 1]) || "hadoop".equals(args[i + 1]) || "auto".equals(args[i + 1]))) {
+                engine = args[++i];
+            } else if ("-merge".equals(args[i]) && i + 1 < args.length
+                    && ("auto".equals(args[i + 1]) || "copy".equals(args[i + 1]) || "concat".equals(args[i + 1])
+                        || "manifest".equals(args[i + 1]))) {
+                merge = args[++i];
+            } else if ("-exact".equals(args[i])) {
+                exact = true;
+            } else if ("-report".equals(args[i]) && i + 1 < args.length) {
+                reportPath = new Path(args[++i]);
+            } else if ("-checkpoint".equals(args[i])) {
+                resumable = true;
+            } else if ("-batch".equals(args[i]) && i + 1 < args.length) {
+                batchSpec = new Path(args[++i]);
+            } else if ("-both".equals(args[i])) {
+                both = true;
+            } else if ("-symmetric".equals(args[i])) {
+                symmetric = true;
+            } else if ("-model".equals(args[i]) && i + 1 < args.length
+                    && ("sequence".equals(args[i + 1]) || "ba".equals(args[i + 1]) || "copy".equals(args[i + 1]))) {
+                model = args[++i];
+            } else if ("-m".equals(args[i]) && i + 1 < args.length) {
+                edgesPerNode = Integer.parseInt(args[++i]);
             } else {
-                System.err.println("Uso: Main -n <num_nodos> [-w <num_workers>]");
+                System.err.println("Uso: Main -n <num_nodos> [-w <num_workers>] [-seed <semilla>] [-distributed]"
+                        + " [-format text|intervals|binary|csr] [-compress]"
+                        + " [-engine local|hadoop|auto] [-merge auto|copy|concat|manifest] [-exact] [-report <ruta>] [-checkpoint]"
+                        + " [-batch <fichero>] [-both] [-symmetric] [-model sequence|ba|copy] [-m <aristas_por_nodo>]");
                 return 1;
             }
         }
 
+        if (exact && ("binary".equals(outputFormat) || "csr".equals(outputFormat))) {
+            // El índice se calcula antes de generar: en modo exacto las aristas de cada nodo no se conocen
+            System.err.println("-format " + outputFormat + " no está disponible con -exact");
+            return 1;
+        }
+
+        boolean attachment = !"sequence".equals(model);
+        if (attachment && (exact || symmetric || both || batchSpec != null)) {
+            // Cada arista del modelo se escribe una vez desde el nodo más nuevo, sin reducción local
+            System.err.println("-model " + model + " no está disponible con -exact, -symmetric, -both ni -batch");
+            return 1;
+        }
+        if (attachment && edgesPerNode < 1) {
+            System.err.println("-m tiene que ser al menos 1");
+            return 1;
+        }
+
+        if (symmetric && (exact || resumable || both || batchSpec != null
+                || "binary".equals(outputFormat) || "csr".equals(outputFormat))) {
+            // Los índices de binary y csr cuentan solo las aristas de ida de cada nodo
+            System.err.println("-symmetric no está disponible con -exact, -checkpoint, -both, -batch ni -format binary|csr");
+            return 1;
+        }
+
+        if (both && (exact || resumable || batchSpec != null || "local".equals(engine))) {
+            // Un único job con los dos grafos: los demás modos tienen su propio job
+            System.err.println("-both no está disponible con -exact, -checkpoint, -batch ni -engine local");
+            return 1;
+        }
+
+        if (batchSpec != null && (exact || resumable || distributed || "local".equals(engine))) {
+            // El lote es un único job con los grados de cada grafo en la caché distribuida
+            System.err.println("-batch no está disponible con -exact, -checkpoint, -distributed ni -engine local");
+            return 1;
+        }
+
+        if (resumable && (exact || "local".equals(engine))) {
+            // Se reanuda por rangos de reducer confirmados por el job
+            System.err.println("-checkpoint no está disponible con " + (exact ? "-exact" : "-engine local"));
+            return 1;
+        }
+
+        // --- Ejecución reanudable: semilla, grados y rangos terminados en checkpoint.dir ---
+        Checkpoint checkpoint = null;
+        if (resumable) {
+            Map<String, String> params = new TreeMap<>();
+            params.put("nodes", Integer.toString(numNodes));
+            params.put("workers", numWorkers + (argHasW ? "" : " (auto)"));
+            params.put("distributed", Boolean.toString(distributed));
+            params.put("format", outputFormat);
+            params.put("compress", Boolean.toString(compress));
+            if (attachment) {
+                params.put("model", model);
+                params.put("edges_per_node", Integer.toString(edgesPerNode));
+            }
+            checkpoint = new Checkpoint(FileSystem.get(getConf()), getConf());
+            seed = checkpoint.begin(params, seed, explicitSeed);
+        }
+
+        if (batchSpec != null) {
+            return runBatch(getConf(), batchSpec, outputFormat, compress, numWorkers, argHasW, reportPath);
+        }
+
         System.out.println("=== Parámetros ===");
         System.out.println("Nodos: " + numNodes);
         System.out.println("Workers (flag -w): " + numWorkers);
+        System.out.println("Semilla: " + seed);
 
         long startTime = System.nanoTime();
 
-        // --- Generar el vector de grados ---
+        // --- Generar la secuencia de grados (por tramos, sin expandir) ---
         System.out.println("Generando vector de grados...");
-        int[] degrees = PowerLawGraph.generateDegrees(numNodes);
-        System.out.println("Vector generado.");
+        long phaseStart = System.nanoTime();
+        DegreeSequence sequence = checkpoint != null ? checkpoint.savedDegrees(numNodes) : null;
+        if (sequence == null) {
+            // -model ba|copy: m aristas por nodo, con los destinos del modelo
+            sequence = attachment ? AttachmentModel.sequence(numNodes, edgesPerNode)
+                    : PowerLawGraph.generateSequence(numNodes, seed);
+            if (checkpoint != null) checkpoint.saveDegrees(sequence);
+        }
+        report.phase("degrees", phaseStart);
+        System.out.println("Vector generado (" + sequence.numRuns() + " tramos).");
 
-        long totalEdges = 0;
-        for (int d : degrees) totalEdges += d;
+        if (exact) {
+            // Sin el corte, los hubs repiten aristas entre sí y se descarta un tercio de los extremos
+            int cutoff = getConf().getInt(StubMatchingMapper.CUTOFF,
+                    StubMatchingMapper.structuralCutoff(sequence.totalDegree()));
+            getConf().setInt(StubMatchingMapper.CUTOFF, cutoff);
+            long requested = sequence.totalDegree();
+            sequence = StubMatchingMapper.cutoff(sequence, cutoff);
+            report.param("exact_cutoff", cutoff).param("requested_degree", requested);
+            if (cutoff > 0) {
+                System.out.printf("Corte estructural en grado %d: se recortan %d extremos (%.4f%% de la suma de grados)%n",
+                        cutoff, requested - sequence.totalDegree(),
+                        requested == 0 ? 0.0 : 100.0 * (requested - sequence.totalDegree()) / requested);
+            }
+        }
+
+        long totalEdges = sequence.totalDegree();
         System.out.println("Suma total de grados: " + totalEdges);
 
         // --- Configuración del Job ---
         Configuration conf = getConf();
         conf.setInt("num.nodes", numNodes);
         conf.setInt("num.workers", numWorkers);
+        conf.setLong("degrees.seed", seed);
+        conf.setBoolean("degrees.distributed", distributed);
+        conf.set("output.format", outputFormat);
+        conf.setBoolean("output.compress", compress);
+        conf.setBoolean("graph.exact", exact);
+        conf.setBoolean("graph.symmetric", symmetric);
+        conf.set(AttachmentModel.MODEL, model);
+        conf.setInt(AttachmentModel.EDGES, edgesPerNode);
 
         // Selección automática de mappers
-        int numMappers;
-        if (numWorkers > 1 && !argHasW) {
-            numMappers = (int) max(numWorkers, round(log(numNodes)));
-        } else {
-            numMappers = numWorkers;
-        }
-        if (numMappers < 1) numMappers = 1;
+        int numMappers = numMappers(numNodes, numWorkers, argHasW);
         conf.setInt("num.mappers", numMappers);
 
         System.out.println("Map tasks: " + numMappers);
 
-        Path inputDir = new Path("/graph_input");
+        // El modo exacto local guarda todos los extremos en un long[]
+        boolean localFits = !exact || totalEdges <= MAX_LOCAL_STUBS;
+        if (!localFits && "local".equals(engine)) {
+            System.err.println("-exact con -engine local admite hasta " + MAX_LOCAL_STUBS + " extremos y hay " + totalEdges);
+            return 1;
+        }
+
+        // Motor local para grafos pequeños: mismo resultado sin enviar un job
+        boolean local = checkpoint == null && !both && localFits && LocalEngine.useLocal(engine, conf, totalEdges);
+        System.out.println("Motor: " + (local ? "local" : "hadoop"));
+
+        report.param("graph", "undirected").param("nodes", numNodes).param("workers", numWorkers)
+                .param("mappers", numMappers).param("seed", seed).param("engine", local ? "local" : "hadoop")
+                .param("format", outputFormat).param("compress", compress).param("distributed", distributed)
+                .param("exact", exact).param("merge", merge).param("checkpoint", resumable).param("both", both)
+                .param("symmetric", symmetric).param("model", model).param("total_degree", totalEdges);
+        if (attachment) report.param("edges_per_node", edgesPerNode);
+
         Path outputDir = new Path("/graph_output");
 
         FileSystem fs = FileSystem.get(conf);
 
-        // Solo borra salida previa si existe
-        if (fs.exists(outputDir)) {
+        // Solo borra salida previa si existe; al reanudar se conservan los rangos terminados
+        boolean[] done = null;
+        if (checkpoint != null) {
+            done = checkpoint.prepare(outputDir, numWorkers);
+            System.out.println("Checkpoint " + checkpoint.getDir() + ": " + (numWorkers - Checkpoint.countPending(done))
+                    + " de " + numWorkers + " rangos ya generados");
+        } else if (fs.exists(outputDir)) {
             System.out.println("Eliminando salida previa...");
             fs.delete(outputDir, true);
         }
 
-        // --- Guardar el vector de grados en caché distribuida ---
-        Path degreesPath = new Path(inputDir, "degrees.dat");
-        if (fs.exists(inputDir)) fs.delete(inputDir, true);
-        fs.mkdirs(inputDir);
+        boolean success;
+        if (local) {
+            // Sin job ni degrees.dat: los part-* se escriben directamente en disco local
+            phaseStart = System.nanoTime();
+            success = true;
+            if (exact) {
+                success = runLocalExact(conf, fs, sequence, outputDir);
+            } else if (attachment) {
+                AttachmentModel.runLocal(conf, fs, sequence, outputDir);
+            } else {
+                runLocal(conf, fs, sequence, outputDir);
+            }
+            report.phase("local", phaseStart);
+        } else if (checkpoint != null) {
+            success = runResumable(conf, fs, sequence, outputDir, checkpoint, done);
+        } else if (both) {
+            success = runBoth(conf, fs, sequence, outputDir);
+        } else {
+            success = exact ? runExactJobs(conf, fs, sequence, outputDir) : runJob(conf, fs, sequence, outputDir);
+        }
 
-        try (FSDataOutputStream out = fs.create(degreesPath, true);
-             BufferedOutputStream bos = new BufferedOutputStream(out);
-             DataOutputStream dos = new DataOutputStream(bos)) {
-            dos.writeInt(numNodes);
-            for (int deg : degrees) dos.writeInt(deg);
+        long durationNano = System.nanoTime() - startTime;
+        double seconds = durationNano / 1_000_000_000.0;
+        System.out.printf("Tiempo total: %.3f segundos%n", seconds);
+
+        // --- Estadísticas que calculan las tareas al emitir las aristas (en -both, DualGraphJob) ---
+        // El modo exacto ya da las suyas en el informe de emparejamiento
+        if (success && !both && !exact) {
+            phaseStart = System.nanoTime();
+            GraphStats stats = GraphStats.collect(fs, outputDir);
+            String label = symmetric ? "symmetric" : attachment ? "undirected-" + model : "undirected";
+            Path statsPath = stats.writeJson(fs, outputDir, label, totalEdges);
+            report.phase("stats", phaseStart);
+            System.out.println("Estadísticas: " + stats.summary() + " (" + statsPath + ")");
+        }
+
+        // --- Salida binaria: fragmentos nombrados por su primera arista y el índice, sin merge ---
+        if (success && !both && "binary".equals(outputFormat)) {
+            phaseStart = System.nanoTime();
+            EdgeIndex index = attachment ? EdgeIndex.fromDegrees(sequence)
+                    : UndirectedEdgeSpliterator.edgeIndex(sequence, numMappers);
+            if (!local) EdgeBinaryOutputFormat.nameShards(fs, outputDir, index);
+            index.write(fs, new Path(outputDir, EdgeBinaryOutputFormat.INDEX));
+            System.out.println("Índice de aristas escrito en " + new Path(outputDir, EdgeBinaryOutputFormat.INDEX));
+            report.phase("index", phaseStart);
+        }
+
+        // --- CSR: targets.bin de los reducers y offsets.bin de los grados reducidos ---
+        if (success && !both && "csr".equals(outputFormat)) {
+            phaseStart = System.nanoTime();
+            EdgeIndex index = attachment ? EdgeIndex.fromDegrees(sequence)
+                    : UndirectedEdgeSpliterator.edgeIndex(sequence, numMappers);
+            if (local) {
+                CsrOutput.finish(fs, outputDir, index);
+            } else {
+                CsrOutput.finishJob(fs, outputDir, index, sequence.balancedBounds(numWorkers));
+            }
+            System.out.println("CSR escrito en " + outputDir);
+            report.phase("csr", phaseStart);
+        }
+
+        // --- Combinar archivos de salida: concat, copia paralela o manifiesto ---
+        // Los tramos binarios no se concatenan: se leen por directorio con EdgeIntervalReader
+        if (success && !both && "text".equals(outputFormat)) {
+            phaseStart = System.nanoTime();
+            FileStatus[] parts = fs.listStatus(outputDir, path -> path.getName().startsWith("part-"));
+            Arrays.sort(parts);
+
+            System.out.println("Uniendo archivos de salida (" + merge + ") ...");
+            Path merged = PartMerger.merge(fs, outputDir, parts, new Path("/graph_output_final.txt"), merge);
+            report.phase("merge", phaseStart);
+            System.out.println("Merge completado exitosamente en " + merged);
+        }
+
+        // --- -both: cada grafo en su subdirectorio, completado como una ejecución suelta ---
+        // Las salidas de texto quedan en part-r-* ordenados, sin merge
+        if (success && both) {
+            phaseStart = System.nanoTime();
+            DualGraphJob.finish(conf, fs, outputDir, sequence, numWorkers, numMappers);
+            report.phase("finish", phaseStart);
+            System.out.println("Grafos dirigido y no dirigido en " + new Path(outputDir, DualGraphJob.DIRECTED)
+                    + " y " + new Path(outputDir, DualGraphJob.UNDIRECTED));
         }
 
+        // La salida está completa: el checkpoint ya no hace falta
+        if (success && checkpoint != null) checkpoint.delete();
+
+        // --- Informe de la ejecución en JSON ---
+        report.setSuccess(success);
+        report.write(fs, reportPath);
+        System.out.println("Informe de ejecución en " + fs.makeQualified(reportPath));
+
+        return success ? 0 : 1;
+    }
+
+    /**
+     * Genera el grafo con un job MapReduce sobre outputDir.
+     */
+    private boolean runJob(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws Exception {
+        int numWorkers = conf.getInt("num.workers", 1);
+
         // --- Crear Job Hadoop ---
         Job job = Job.getInstance(conf, "Undirected Power Law Graph Generation");
         job.setJarByClass(Main.class);
-        job.addCacheFile(degreesPath.toUri());
+        shareDegrees(job, fs, sequence);
 
         // --- Configurar clases ---
         job.setInputFormatClass(EmptyInputFormat.class);
-        job.setMapperClass(UndirectedGraphMapper.class);
-        job.setCombinerClass(UndirectedGraphCombiner.class);
-        job.setReducerClass(UndirectedGraphReducer.class);
+        if (AttachmentModel.fromConf(conf) != null) {
+            // -model ba|copy: cada arista una vez, desde el nodo más nuevo hacia el destino del modelo
+            job.setMapperClass(AttachmentGraphMapper.class);
+            job.setReducerClass(DirectedGraphReducer.class);
+        } else if (conf.getBoolean("graph.symmetric", false)) {
+            // Adyacencia completa de cada nodo; sin combiner, que sumaría los registros de hub
+            job.setMapperClass(SymmetricGraphMapper.class);
+            job.setReducerClass(SymmetricGraphReducer.class);
+        } else {
+            job.setMapperClass(UndirectedGraphMapper.class);
+            job.setCombinerClass(UndirectedGraphCombiner.class);
+            job.setReducerClass(UndirectedGraphReducer.class);
+        }
 
         // Reducers: igual al número de workers (más eficiente que 1 solo)
         job.setNumReduceTasks(numWorkers);
 
+        // Rangos contiguos de nodos por reducer, equilibrados por suma de grados
+        job.setPartitionerClass(DegreeRangePartitioner.class);
+        DegreeRangePartitioner.setBounds(job.getConfiguration(), sequence, numWorkers);
+
         // Tipos de salida intermedia y final
         job.setMapOutputKeyClass(LongWritable.class);
         job.setMapOutputValueClass(LongWritable.class);
-        job.setOutputKeyClass(LongWritable.class);
-        job.setOutputValueClass(LongWritable.class);
+        setOutputTypes(job);
 
         FileOutputFormat.setOutputPath(job, outputDir);
 
         // --- Ejecutar ---
+        long jobStart = System.nanoTime();
         boolean success = job.waitForCompletion(true);
+        report.phase("job", jobStart);
+        report.addCounters(job.getCounters());
+        return success;
+    }
 
-        long durationNano = System.nanoTime() - startTime;
-        double seconds = durationNano / 1_000_000_000.0;
-        System.out.printf("Tiempo total: %.3f segundos%n", seconds);
+    /**
+     * Modo -both: los grafos dirigido y no dirigido en un solo job (ver DualGraphJob).
+     */
+    private boolean runBoth(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws Exception {
+        Job job = Job.getInstance(conf, "Directed + Undirected Power Law Graph Generation");
+        job.setJarByClass(Main.class);
+        shareDegrees(job, fs, sequence);
+
+        setOutputTypes(job);
+        DualGraphJob.configure(job, sequence, conf.getInt("num.workers", 1));
+        FileOutputFormat.setOutputPath(job, outputDir);
+
+        long jobStart = System.nanoTime();
+        boolean success = job.waitForCompletion(true);
+        report.phase("job", jobStart);
+        report.addCounters(job.getCounters());
+        return success;
+    }
+
+    /**
+     * Job de una ejecución reanudable: genera solo los rangos de reducer que faltan en
+     * un directorio de intento del checkpoint. Con FileOutputCommitter v2 cada part-r-*
+     * se confirma al terminar su tarea, así que se recoge en outputDir aunque el job falle.
+     */
+    private boolean runResumable(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir,
+            Checkpoint checkpoint, boolean[] done) throws Exception {
+        if (Checkpoint.countPending(done) > 0) {
+            Checkpoint.setDoneRanges(conf, done);
+            conf.setInt("mapreduce.fileoutputcommitter.algorithm.version", 2);
+            conf.set(DegreeFile.PATH, fs.makeQualified(checkpoint.degreesPath()).toString());
 
-        // --- Combinar archivos de salida (getmerge por API Hadoop) ---
+            Path attempt = checkpoint.newAttempt();
+            try {
+                runJob(conf, fs, sequence, attempt);
+            } finally {
+                checkpoint.harvest(attempt, outputDir, done);
+            }
+        }
+
+        int pending = Checkpoint.countPending(done);
+        if (pending > 0) {
+            System.err.println("Faltan " + pending + " rangos: vuelve a ejecutar con -checkpoint para reanudar");
+            return false;
+        }
+        fs.create(new Path(outputDir, "_SUCCESS"), true).close();
+        return true;
+    }
+
+    /**
+     * Selección automática de mappers: con -w explícito, uno por worker.
+     */
+    private static int numMappers(int numNodes, int numWorkers, boolean argHasW) {
+        int numMappers;
+        if (numWorkers > 1 && !argHasW) {
+            numMappers = (int) max(numWorkers, round(log(numNodes)));
+        } else {
+            numMappers = numWorkers;
+        }
+        return max(numMappers, 1);
+    }
+
+    /**
+     * Modo lote (-batch): todos los grafos del fichero (ver GraphBatch) en un único job,
+     * con un solo envío y una sola subida de grados. Cada grafo usa los mappers de una
+     * ejecución suelta y numWorkers reducers; al terminar su salida se mueve a la ruta
+     * indicada y se completa como en una ejecución suelta (índice o CSR). Las salidas de
+     * texto quedan en part-r-* ordenados, sin merge.
+     */
+    private int runBatch(Configuration conf, Path spec, String outputFormat, boolean compress, int numWorkers,
+            boolean argHasW, Path reportPath) throws Exception {
+        conf.set("output.format", outputFormat);
+        conf.setBoolean("output.compress", compress);
+        FileSystem fs = FileSystem.get(conf);
+
+        List<GraphBatch.Entry> entries;
+        try {
+            entries = GraphBatch.read(fs, spec);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+        boolean undirected = false;
+        for (GraphBatch.Entry entry : entries) undirected |= "undirected".equals(entry.mode);
+        System.out.println("=== Lote: " + entries.size() + " grafos, " + numWorkers + " reducers por grafo ===");
+        report.param("graph", "batch").param("batch", spec.toString()).param("graphs", entries.size())
+                .param("workers", numWorkers).param("format", outputFormat).param("compress", compress);
+
+        long startTime = System.nanoTime();
+        Path inputDir = new Path("/graph_input/batch");
+        Path batchDir = new Path("/graph_batch");
+        if (fs.exists(inputDir)) fs.delete(inputDir, true);
+        if (fs.exists(batchDir)) fs.delete(batchDir, true);
+        fs.mkdirs(inputDir);
+
+        Job job = Job.getInstance(conf, "Power Law Graph Batch");
+        job.setJarByClass(Main.class);
+
+        // --- Grados de cada grafo: un degrees.dat por grafo en la caché distribuida ---
+        long phaseStart = System.nanoTime();
+        List<DegreeSequence> sequences = new ArrayList<>();
+        for (GraphBatch.Entry entry : entries) {
+            sequences.add(PowerLawGraph.generateSequence(entry.numNodes, entry.seed));
+        }
+        report.phase("degrees", phaseStart);
+
+        phaseStart = System.nanoTime();
+        for (int g = 0; g < entries.size(); g++) {
+            GraphBatch.Entry entry = entries.get(g);
+            Path degreesPath = new Path(inputDir, String.format("g%05d-degrees.dat", g));
+            DegreeFile.write(fs, degreesPath, sequences.get(g));
+            job.addCacheFile(degreesPath.toUri());
+            GraphBatch.setGraph(job.getConfiguration(), g, entry.mode, entry.numNodes, fs.makeQualified(degreesPath),
+                    numMappers(entry.numNodes, numWorkers, argHasW), sequences.get(g).balancedBounds(numWorkers));
+            System.out.println("Grafo " + g + ": " + entry.numNodes + " nodos, semilla " + entry.seed
+                    + ", " + sequences.get(g).totalDegree() + " grados, " + entry.mode + " -> " + entry.output);
+        }
+        report.phase("upload", phaseStart);
+
+        // --- Configurar clases ---
+        job.setInputFormatClass(BatchInputFormat.class);
+        job.setMapperClass(BatchGraphMapper.class);
+        // El combiner de una ejecución suelta no dirigida; la dirigida no lo usa
+        if (undirected) job.setCombinerClass(UndirectedGraphCombiner.class);
+        job.setReducerClass(BatchGraphReducer.class);
+        job.setPartitionerClass(BatchPartitioner.class);
+        job.setNumReduceTasks(entries.size() * numWorkers);
+        job.setMapOutputKeyClass(LongWritable.class);
+        job.setMapOutputValueClass(LongWritable.class);
+
+        // Cada reducer escribe con MultipleOutputs en el directorio de su grafo; sin
+        // LazyOutputFormat quedarían además part-r-* vacíos en la raíz del job
+        setOutputTypes(job);
+        LazyOutputFormat.setOutputFormatClass(job, job.getOutputFormatClass());
+        FileOutputFormat.setOutputPath(job, batchDir);
+
+        // --- Ejecutar ---
+        phaseStart = System.nanoTime();
+        boolean success = job.waitForCompletion(true);
+        report.phase("job", phaseStart);
+        report.addCounters(job.getCounters());
+
+        // --- Salida de cada grafo en su ruta ---
         if (success) {
-            Path mergedFile = new Path("/graph_output_final.txt");
-            System.out.println("Uniendo archivos de salida en " + mergedFile + " ...");
-
-            try (FSDataOutputStream out = fs.create(mergedFile, true)) {
-                FileStatus[] parts = fs.listStatus(outputDir);
-                byte[] buffer = new byte[8192];
-
-                for (FileStatus part : parts) {
-                    if (!part.isFile()) continue;
-                    String name = part.getPath().getName();
-                    if (!name.startsWith("part-")) continue;
-
-                    try (FSDataInputStream in = fs.open(part.getPath())) {
-                        int bytes;
-                        while ((bytes = in.read(buffer)) > 0) {
-                            out.write(buffer, 0, bytes);
-                        }
+            phaseStart = System.nanoTime();
+            for (int g = 0; g < entries.size(); g++) {
+                Path output = entries.get(g).output;
+                GraphBatch.publish(conf, fs, batchDir, g, numWorkers, output);
+                String mode = entries.get(g).mode;
+                GraphStats.collect(fs, output).writeJson(fs, output, mode, sequences.get(g).totalDegree());
+                if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+                    EdgeIndex index = "directed".equals(mode) ? EdgeIndex.fromDegrees(sequences.get(g))
+                            : UndirectedEdgeSpliterator.edgeIndex(sequences.get(g), GraphBatch.numMappers(job.getConfiguration(), g));
+                    if ("binary".equals(outputFormat)) {
+                        EdgeBinaryOutputFormat.nameShards(fs, output, index);
+                        index.write(fs, new Path(output, EdgeBinaryOutputFormat.INDEX));
+                    } else {
+                        CsrOutput.finishJob(fs, output, index, sequences.get(g).balancedBounds(numWorkers));
                     }
                 }
             }
-
-            System.out.println("Merge completado exitosamente en /graph_output_final.txt");
+            fs.delete(batchDir, true);
+            report.phase("publish", phaseStart);
+            System.out.println("Lote completado: " + entries.size() + " grafos");
         }
+        System.out.printf("Tiempo total: %.3f segundos%n", (System.nanoTime() - startTime) / 1_000_000_000.0);
 
+        report.setSuccess(success);
+        report.write(fs, reportPath);
+        System.out.println("Informe de ejecución en " + fs.makeQualified(reportPath));
         return success ? 0 : 1;
     }
+
+    /**
+     * Modo exacto (modelo de configuración) en dos rondas MapReduce:
+     *   1. Cada nodo emite un extremo por unidad de grado con clave aleatoria; el sort
+     *      los baraja y cada reducer empareja los consecutivos en aristas (u < v).
+     *   2. Las aristas se agrupan por (u, v), se escriben una sola vez y se reparten
+     *      por rangos de origen, así que los part-r-* quedan ordenados.
+     * El grafo es simple (sin lazos ni repetidas); cada nodo tiene como mucho el grado
+     * pedido, recortado al corte estructural, y el informe final da la fracción de
+     * extremos descartados. Si supera exact.max.dropped la ejecución falla.
+     */
+    private boolean runExactJobs(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws Exception {
+        int numWorkers = conf.getInt("num.workers", 1);
+        Path stubsDir = new Path("/graph_stubs");
+        if (fs.exists(stubsDir)) fs.delete(stubsDir, true);
+
+        // --- Ronda 1: barajar y emparejar extremos ---
+        Job pairing = Job.getInstance(conf, "Undirected Power Law Graph Stub Matching");
+        pairing.setJarByClass(Main.class);
+        shareDegrees(pairing, fs, sequence);
+
+        pairing.setInputFormatClass(EmptyInputFormat.class);
+        pairing.setMapperClass(StubMatchingMapper.class);
+        pairing.setPartitionerClass(StubPartitioner.class);
+        pairing.setReducerClass(StubMatchingReducer.class);
+        pairing.setNumReduceTasks(numWorkers);
+
+        pairing.setMapOutputKeyClass(LongWritable.class);
+        pairing.setMapOutputValueClass(NullWritable.class);
+        pairing.setOutputKeyClass(LongWritable.class);
+        pairing.setOutputValueClass(NullWritable.class);
+        pairing.setOutputFormatClass(SequenceFileOutputFormat.class);
+        FileOutputFormat.setOutputPath(pairing, stubsDir);
+
+        long jobStart = System.nanoTime();
+        boolean paired = pairing.waitForCompletion(true);
+        report.phase("stub_matching", jobStart);
+        report.addCounters(pairing.getCounters());
+        if (!paired) return false;
+
+        // --- Ronda 2: una copia de cada arista, por rangos de origen ---
+        Job dedup = Job.getInstance(conf, "Undirected Power Law Graph Edge Dedup");
+        dedup.setJarByClass(Main.class);
+
+        dedup.setInputFormatClass(SequenceFileInputFormat.class);
+        FileInputFormat.addInputPath(dedup, stubsDir);
+        dedup.setMapperClass(Mapper.class);
+        dedup.setCombinerClass(EdgeDedupReducer.Combiner.class);
+        dedup.setReducerClass(EdgeDedupReducer.class);
+        dedup.setNumReduceTasks(numWorkers);
+
+        dedup.setPartitionerClass(EdgeSourcePartitioner.class);
+        DegreeRangePartitioner.setBounds(dedup.getConfiguration(), sequence, numWorkers);
+
+        dedup.setMapOutputKeyClass(LongWritable.class);
+        dedup.setMapOutputValueClass(NullWritable.class);
+        setOutputTypes(dedup);
+        FileOutputFormat.setOutputPath(dedup, outputDir);
+
+        jobStart = System.nanoTime();
+        boolean success = dedup.waitForCompletion(true);
+        report.phase("dedup", jobStart);
+        report.addCounters(dedup.getCounters());
+        fs.delete(stubsDir, true);
+
+        if (success) {
+            Counters first = pairing.getCounters();
+            Counters second = dedup.getCounters();
+            success = checkStubs(conf, first.findCounter(StubMatchingReducer.Stubs.TOTAL).getValue(),
+                    first.findCounter(StubMatchingReducer.Stubs.SELF_LOOP).getValue(),
+                    second.findCounter(StubMatchingReducer.Stubs.MULTI_EDGE).getValue(),
+                    first.findCounter(StubMatchingReducer.Stubs.UNPAIRED).getValue());
+        }
+        return success;
+    }
+
+    /**
+     * Vector de grados para los mappers: en la caché distribuida (degrees.dat) o, en
+     * modo distribuido, regenerado en cada mapper a partir de la semilla.
+     */
+    private void shareDegrees(Job job, FileSystem fs, DegreeSequence sequence) throws IOException {
+        Configuration conf = job.getConfiguration();
+        if (conf.getBoolean("degrees.distributed", false)) {
+            System.out.println("Grados generados en los mappers (semilla " + conf.getLong("degrees.seed", 0L) + ")");
+            return;
+        }
+        if (conf.get(DegreeFile.PATH) != null) {
+            // Grados ya subidos (los del checkpoint)
+            job.addCacheFile(new Path(conf.get(DegreeFile.PATH)).toUri());
+            return;
+        }
+        long uploadStart = System.nanoTime();
+        Path inputDir = new Path("/graph_input");
+        Path degreesPath = new Path(inputDir, "degrees.dat");
+        if (fs.exists(inputDir)) fs.delete(inputDir, true);
+        fs.mkdirs(inputDir);
+
+        DegreeFile.write(fs, degreesPath, sequence);
+        conf.set(DegreeFile.PATH, fs.makeQualified(degreesPath).toString());
+        job.addCacheFile(degreesPath.toUri());
+        report.phase("upload", uploadStart);
+    }
+
+    private static void setOutputTypes(Job job) {
+        Configuration conf = job.getConfiguration();
+        String outputFormat = conf.get("output.format", "text");
+        if ("intervals".equals(outputFormat)) {
+            // Tramos (source, firstTarget, count) en SequenceFile; -compress activa compresión por bloques
+            EdgeIntervalOutputFormat.configure(job, conf.getBoolean("output.compress", false));
+        } else if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+            // Registros de ancho fijo: la posición de cada nodo sale del índice de aristas
+            EdgeBinaryOutputFormat.configure(job);
+        } else {
+            // EdgeSink escribe lotes de líneas "source\ttarget" con clave nula
+            job.setOutputKeyClass(NullWritable.class);
+            job.setOutputValueClass(Text.class);
+        }
+    }
+
+    /**
+     * Imprime los extremos descartados del modo exacto; devuelve false si superan
+     * exact.max.dropped.
+     */
+    private static boolean checkStubs(Configuration conf, long total, long selfLoops, long repeated, long unpaired) {
+        long dropped = selfLoops + repeated + unpaired;
+        double fraction = total == 0 ? 0.0 : (double) dropped / total;
+        System.out.printf("Extremos: %d; descartados %d (lazos %d, repetidas %d, sin pareja %d): %.4f%% de la suma de grados%n",
+                total, dropped, selfLoops, repeated, unpaired, 100.0 * fraction);
+        double maxDropped = conf.getDouble(StubMatchingReducer.MAX_DROPPED, StubMatchingReducer.DEFAULT_MAX_DROPPED);
+        if (fraction > maxDropped) {
+            System.err.printf("Los extremos descartados (%.4f%%) superan %s = %s%n",
+                    100.0 * fraction, StubMatchingReducer.MAX_DROPPED, maxDropped);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Motor local: reducción local en los rangos de los mappers y aristas en los
+     * bloques de los reducers, como el job, en hilos de este proceso. Cada bloque deja
+     * sus estadísticas en un _stats-r-* como los reducers.
+     */
+    private static void runLocal(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws IOException {
+        int numNodes = sequence.numNodes();
+
+        // Fase map: grados reducidos de cada rango de mapper
+        int[] reduced = new int[numNodes];
+        LocalEngine.forEachRange(sequence.balancedBounds(conf.getInt("num.mappers", 1)), (index, start, end) -> {
+            int[] local = UndirectedGraphMapper.reduceLocally(sequence.slice(start, end));
+            System.arraycopy(local, 0, reduced, start, local.length);
+        });
+
+        // Fase reduce: aristas de cada bloque contiguo de nodos
+        int[] blocks = sequence.balancedBounds(conf.getInt("num.workers", 1));
+        if (conf.getBoolean("graph.symmetric", false)) {
+            // Los hubs que recibiría cada reducer de SymmetricGraphMapper
+            long[] hubs = new long[16];
+            int numHubs = 0;
+            for (int b = 0; b + 1 < blocks.length; b++) {
+                for (int node = blocks[b]; node < blocks[b + 1]; node++) {
+                    if (blocks[b + 1] - blocks[b] - 1 < reduced[node]) {
+                        if (numHubs == hubs.length) hubs = Arrays.copyOf(hubs, numHubs * 2);
+                        hubs[numHubs++] = SymmetricGraphReducer.hubRecord(node, reduced[node]);
+                    }
+                }
+            }
+            long[] allHubs = Arrays.copyOf(hubs, numHubs);
+            LocalEngine.writeParts(conf, fs, outputDir, blocks, "part-r-", (start, end, sink) -> {
+                GraphStats blockStats = new GraphStats();
+                SymmetricGraphReducer.writeBlock(start, end, Arrays.copyOfRange(reduced, start, end), allHubs,
+                        numNodes, blockStats.track(sink), blockStats);
+                writeBlockStats(fs, outputDir, blocks, start, end, blockStats);
+            });
+            return;
+        }
+        LocalEngine.RangeWriter writer = (start, end, sink) -> {
+            GraphStats blockStats = new GraphStats();
+            EdgeSink tracked = blockStats.track(sink);
+            UndirectedGraphReducer.BorderDuplicates duplicates =
+                    new UndirectedGraphReducer.BorderDuplicates(start, end, numNodes);
+            for (int source = start; source < end; source++) {
+                if (reduced[source] > 0) {
+                    blockStats.node(source, reduced[source]);
+                    duplicates.node(source, reduced[source]);
+                    UndirectedGraphReducer.writeEdges(source, reduced[source], start, end, numNodes, tracked);
+                }
+            }
+            duplicates.finish(blockStats);
+            writeBlockStats(fs, outputDir, blocks, start, end, blockStats);
+        };
+
+        String outputFormat = conf.get("output.format", "text");
+        if ("binary".equals(outputFormat) || "csr".equals(outputFormat)) {
+            // Un único fichero: cada bloque escribe en el desplazamiento que da el índice
+            EdgeIndex.Builder index = new EdgeIndex.Builder();
+            for (int degree : reduced) index.add(degree);
+            Path file = new Path(outputDir, "csr".equals(outputFormat)
+                    ? CsrOutput.TARGETS : EdgeBinaryOutputFormat.shardName(0));
+            LocalEngine.writeAtOffsets(conf, fs, file, blocks, index.build(), writer);
+            fs.create(new Path(outputDir, "_SUCCESS"), true).close();
+        } else {
+            LocalEngine.writeParts(conf, fs, outputDir, blocks, "part-r-", writer);
+        }
+    }
+
+    /**
+     * _stats-r-* del bloque [start, end) de blocks, como el de su reducer.
+     */
+    private static void writeBlockStats(FileSystem fs, Path outputDir, int[] blocks, int start, int end,
+            GraphStats blockStats) throws IOException {
+        if (start == end) return;
+        blockStats.write(fs, new Path(outputDir, GraphStats.taskFile('r', DegreeRangePartitioner.rangeOf(blocks, start))));
+    }
+
+    /**
+     * Modo exacto en el motor local: las mismas claves, el mismo reparto por reducers
+     * y el mismo emparejamiento que runExactJobs, así que el grafo es idéntico.
+     * Devuelve false si se descartan más extremos de los admitidos.
+     */
+    private static boolean runLocalExact(Configuration conf, FileSystem fs, DegreeSequence sequence, Path outputDir)
+            throws IOException {
+        long seed = conf.getLong("degrees.seed", 0L);
+        int numWorkers = conf.getInt("num.workers", 1);
+        long total = sequence.totalDegree();
+        if (total > MAX_LOCAL_STUBS) {
+            throw new IllegalArgumentException("Demasiados extremos para el motor local: " + total);
+        }
+
+        // Ronda 1: claves de todos los extremos, ordenadas como en el shuffle
+        long[] stubs = new long[(int) total];
+        LocalEngine.forEachRange(sequence.balancedBounds(conf.getInt("num.mappers", 1)), (index, start, end) -> {
+            int k = (int) sequence.degreeSumBefore(start);
+            int[] degrees = sequence.slice(start, end);
+            for (int i = 0; i < degrees.length; i++) {
+                for (int j = 0; j < degrees[i]; j++) stubs[k++] = StubMatchingMapper.stubKey(seed, start + i, j);
+            }
+        });
+        Arrays.parallelSort(stubs);
+
+        // Emparejamiento de consecutivos dentro de cada reducer
+        long[] edges = new long[stubs.length / 2];
+        int numEdges = 0;
+        long selfLoops = 0;
+        long unpaired = 0;
+        int pending = -1;
+        int partition = 0;
+        for (long stub : stubs) {
+            int p = StubPartitioner.partition(stub, numWorkers);
+            if (p != partition) {
+                if (pending >= 0) unpaired++;
+                pending = -1;
+                partition = p;
+            }
+            int node = StubMatchingMapper.stubNode(stub);
+            if (pending < 0) {
+                pending = node;
+            } else if (pending == node) {
+                selfLoops += 2;
+                pending = -1;
+            } else {
+                edges[numEdges++] = EdgeSpliterator.pack(Math.min(node, pending), Math.max(node, pending));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) unpaired++;
+
+        // Ronda 2: aristas ordenadas por (u, v) y sin repetidas
+        Arrays.parallelSort(edges, 0, numEdges);
+        int unique = 0;
+        for (int i = 0; i < numEdges; i++) {
+            if (unique == 0 || edges[i] != edges[unique - 1]) edges[unique++] = edges[i];
+        }
+        boolean accepted = checkStubs(conf, total, selfLoops, 2L * (numEdges - unique), unpaired);
+
+        int numUnique = unique;
+        LocalEngine.writeParts(conf, fs, outputDir, sequence.balancedBounds(numWorkers), "part-r-", (start, end, sink) -> {
+            int i = firstEdgeFrom(edges, numUnique, start);
+            while (i < numUnique && EdgeSpliterator.source(edges[i]) < end) {
+                // Tramo de destinos consecutivos del mismo origen
+                int j = i + 1;
+                while (j < numUnique && edges[j] == edges[j - 1] + 1
+                        && EdgeSpliterator.source(edges[j]) == EdgeSpliterator.source(edges[i])) j++;
+                sink.writeRange(EdgeSpliterator.source(edges[i]), EdgeSpliterator.target(edges[i]), j - i);
+                i = j;
+            }
+        });
+        return accepted;
+    }
+
+    private static int firstEdgeFrom(long[] edges, int size, int source) {
+        int i = Arrays.binarySearch(edges, 0, size, EdgeSpliterator.pack(source, 0));
+        return i >= 0 ? i : -i - 1;
+    }
 }
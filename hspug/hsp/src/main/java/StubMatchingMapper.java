@@ -0,0 +1,87 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * Primera ronda del modo exacto (modelo de configuración): cada nodo de su rango
+ * emite un extremo ("stub") por unidad de grado, con una clave aleatoria. El sort
+ * del shuffle baraja así todos los extremos del grafo y StubMatchingReducer los
+ * empareja de dos en dos.
+ *
+ * La clave lleva un valor pseudoaleatorio de 32 bits en la parte alta y el nodo en
+ * la baja: ordenar por ella es una permutación aleatoria de los extremos, el nodo
+ * se recupera de la propia clave y el orden es el mismo en cualquier ejecución.
+ *
+ * Los grados se recortan al corte estructural (exact.degree.cutoff): por encima de
+ * sqrt(suma de grados) dos hubs se emparejan entre sí más de una vez y casi todos sus
+ * extremos acaban como aristas repetidas.
+ */
+public class StubMatchingMapper extends Mapper<NullWritable, NullWritable, LongWritable, NullWritable> {
+
+    // Grado máximo en modo exacto; sin fijar, el corte estructural; 0, sin corte
+    public static final String CUTOFF = "exact.degree.cutoff";
+
+    private int[] degrees;
+    private int start;
+    private long seed;
+
+    @Override
+    protected void setup(Context context) throws IOException {
+        Configuration conf = context.getConfiguration();
+        this.seed = conf.getLong("degrees.seed", 0L);
+
+        EmptyInputFormat.EmptySplit split = (EmptyInputFormat.EmptySplit) context.getInputSplit();
+        this.start = split.getStart();
+        long started = System.nanoTime();
+        this.degrees = cutoff(DegreeFile.load(context), conf.getInt(CUTOFF, 0)).slice(start, split.getEnd());
+        context.getCounter(GraphCounters.DEGREE_LOAD_MILLIS).increment((System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public void map(NullWritable key, NullWritable value, Context context) throws IOException, InterruptedException {
+        LongWritable stub = new LongWritable();
+        long stubs = 0;
+        for (int i = 0; i < degrees.length; i++) {
+            int node = start + i;
+            for (int j = 0; j < degrees[i]; j++) {
+                stub.set(stubKey(seed, node, j));
+                context.write(stub, NullWritable.get());
+            }
+            stubs += degrees[i];
+            // Un hub emite millones de extremos sin leer entrada
+            context.progress();
+        }
+        context.getCounter(StubMatchingReducer.Stubs.TOTAL).increment(stubs);
+    }
+
+    /**
+     * Corte estructural de un grafo simple sin correlaciones: floor(sqrt(suma de grados)).
+     */
+    static int structuralCutoff(long totalDegree) {
+        return (int) Math.max(1, (long) Math.sqrt((double) totalDegree));
+    }
+
+    /**
+     * La secuencia con los grados recortados a cutoff (0: sin recortar).
+     */
+    static DegreeSequence cutoff(DegreeSequence sequence, int cutoff) {
+        return cutoff > 0 ? sequence.capped(cutoff) : sequence;
+    }
+
+    /**
+     * Clave del extremo j de node: 32 bits de mezcla de (seed, node, j) y el nodo.
+     */
+    static long stubKey(long seed, int node, int stub) {
+        long z = seed + (((long) node << 32) | (stub & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z & 0xFFFFFFFF00000000L) | node;
+    }
+
+    static int stubNode(long key) {
+        return (int) key;
+    }
+}
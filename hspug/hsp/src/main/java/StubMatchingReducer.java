@@ -0,0 +1,51 @@
+import java.io.IOException;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * Empareja los extremos consecutivos en el orden aleatorio de sus claves. Cada par
+ * es una arista (u, v) que se emite normalizada, con u < v, empaquetada en un long
+ * (EdgeSpliterator.pack). Los lazos (u = v) se descartan; las aristas repetidas las
+ * elimina la segunda ronda (EdgeDedupReducer).
+ */
+public class StubMatchingReducer extends Reducer<LongWritable, NullWritable, LongWritable, NullWritable> {
+
+    /**
+     * Extremos generados y descartados, para medir la desviación de los grados.
+     */
+    public enum Stubs { TOTAL, SELF_LOOP, MULTI_EDGE, UNPAIRED }
+
+    // Fracción máxima de extremos descartados; por encima, la ejecución falla
+    public static final String MAX_DROPPED = "exact.max.dropped";
+    public static final double DEFAULT_MAX_DROPPED = 0.05;
+
+    private final LongWritable edge = new LongWritable();
+    private int pending = -1;
+
+    @Override
+    public void reduce(LongWritable key, Iterable<NullWritable> values, Context context)
+            throws IOException, InterruptedException {
+        int node = StubMatchingMapper.stubNode(key.get());
+        for (NullWritable ignored : values) {
+            if (pending < 0) {
+                pending = node;
+                continue;
+            }
+            int other = pending;
+            pending = -1;
+            if (other == node) {
+                context.getCounter(Stubs.SELF_LOOP).increment(2);
+            } else {
+                edge.set(EdgeSpliterator.pack(Math.min(node, other), Math.max(node, other)));
+                context.write(edge, NullWritable.get());
+            }
+        }
+    }
+
+    @Override
+    protected void cleanup(Context context) {
+        // Con un número impar de extremos en el reducer queda uno sin pareja
+        if (pending >= 0) context.getCounter(Stubs.UNPAIRED).increment(1);
+    }
+}
@@ -0,0 +1,21 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ * Reparte los extremos por rangos de la parte aleatoria de su clave: cada reducer
+ * recibe una muestra uniforme de extremos y, al ser rangos, el orden global de las
+ * claves se conserva entre reducers.
+ */
+public class StubPartitioner extends Partitioner<LongWritable, NullWritable> {
+
+    @Override
+    public int getPartition(LongWritable key, NullWritable value, int numPartitions) {
+        return partition(key.get(), numPartitions);
+    }
+
+    static int partition(long key, int numPartitions) {
+        // LongWritable ordena con signo: se invierte el bit de signo para que los rangos sigan ese orden
+        return (int) ((((key ^ Long.MIN_VALUE) >>> 33) * numPartitions) >>> 31);
+    }
+}
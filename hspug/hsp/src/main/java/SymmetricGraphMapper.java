@@ -0,0 +1,45 @@
+import java.io.IOException;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+
+/**
+ * Mapper del modo -symmetric: emite (nodo, grado reducido) como UndirectedGraphMapper
+ * y, para cada hub (nodo cuyo grado no cabe en su bloque y reparte aristas por todo
+ * [0, N)), un registro hub(nodo, grado) a cada reducer, con la clave del primer nodo
+ * de su bloque. Con eso cada reducer sabe qué aristas le llegan desde fuera.
+ */
+public class SymmetricGraphMapper extends UndirectedGraphMapper {
+
+    @Override
+    protected void map(NullWritable key, NullWritable value, Context context) throws IOException, InterruptedException {
+        int[] local = reduceLocally(degrees, context);
+        int numReducers = context.getNumReduceTasks();
+        int[] bounds = DegreeRangePartitioner.getBounds(context.getConfiguration(), numReducers);
+
+        LongWritable outKey = new LongWritable();
+        LongWritable outValue = new LongWritable();
+        long nodes = 0;
+        int block = DegreeRangePartitioner.rangeOf(bounds, start);
+        for (int i = 0; i < local.length; i++) {
+            if (local[i] <= 0) continue;
+            int node = start + i;
+            while (node >= bounds[block + 1]) block++;
+
+            outKey.set(node);
+            outValue.set(local[i]);
+            context.write(outKey, outValue);
+            nodes++;
+
+            // Misma condición que UndirectedGraphReducer.writeEdges para usar todos los nodos
+            if (bounds[block + 1] - bounds[block] - 1 < local[i]) {
+                outValue.set(SymmetricGraphReducer.hubRecord(node, local[i]));
+                for (int r = 0; r < numReducers; r++) {
+                    if (bounds[r] == bounds[r + 1]) continue;
+                    outKey.set(bounds[r]);
+                    context.write(outKey, outValue);
+                }
+            }
+        }
+        context.getCounter(GraphCounters.NODES_EMITTED).increment(nodes);
+    }
+}
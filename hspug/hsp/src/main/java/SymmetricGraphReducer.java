@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * Reducer del modo -symmetric: la misma regla de aristas que UndirectedGraphReducer,
+ * pero cada nodo se escribe con su lista de adyacencia completa, las aristas que
+ * genera él y las que le llegan de otros (la "vuelta"), sin un segundo job.
+ *
+ * Las aristas que llegan a un nodo se deducen de la regla: dentro del bloque, un nodo
+ * s con grado d cubre los d siguientes nodos (volviendo al inicio del bloque); un hub
+ * (SymmetricGraphMapper) cubre los siguientes de [0, N) sin contarse a sí mismo.
+ */
+public class SymmetricGraphReducer extends Reducer<LongWritable, LongWritable, Writable, Writable> {
+
+    private int N;
+    private int blockStart;
+    private int blockEnd;
+    private int[] degrees;
+    private long[] hubs = new long[16];
+    private int numHubs;
+
+    @Override
+    protected void setup(Context context) {
+        int numReducers = context.getNumReduceTasks();
+        int reducerId = context.getTaskAttemptID().getTaskID().getId() % numReducers;
+        int[] bounds = DegreeRangePartitioner.getBounds(context.getConfiguration(), numReducers);
+        this.blockStart = bounds[reducerId];
+        this.blockEnd = bounds[reducerId + 1];
+        this.N = context.getConfiguration().getInt("num.nodes", 1000);
+        this.degrees = new int[blockEnd - blockStart];
+    }
+
+    @Override
+    public void reduce(LongWritable key, Iterable<LongWritable> values, Context context) {
+        long degree = 0;
+        for (LongWritable v : values) {
+            if (v.get() < 0) {
+                if (numHubs == hubs.length) hubs = Arrays.copyOf(hubs, numHubs * 2);
+                hubs[numHubs++] = v.get();
+            } else {
+                degree += v.get();
+            }
+        }
+        if (degree > 0) degrees[(int) key.get() - blockStart] = (int) degree;
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        // Los grados de todo el bloque hacen falta antes de escribir el primer nodo
+        GraphStats stats = new GraphStats();
+        EdgeSink sink = stats.track(EdgeSink.create(context));
+        long edges = writeBlock(blockStart, blockEnd, degrees, Arrays.copyOf(hubs, numHubs), N, sink, stats);
+        sink.flush();
+        stats.write(context, null);
+
+        long nodes = 0;
+        for (int degree : degrees) if (degree > 0) nodes++;
+        context.getCounter(GraphCounters.NODES_EXPANDED).increment(nodes);
+        context.getCounter(GraphCounters.EDGES).increment(edges);
+    }
+
+    /**
+     * Registro de hub que el mapper envía a todos los reducers: negativo, para no
+     * confundirlo con un grado.
+     */
+    static long hubRecord(long hub, long degree) {
+        return -1 - ((hub << 32) | degree);
+    }
+
+    /**
+     * Escribe la adyacencia de cada nodo de [blockStart, blockEnd): sus tramos de
+     * UndirectedGraphReducer.writeEdges y, ordenados, los nodos que lo tienen como
+     * destino. degrees son los grados reducidos del bloque y hubs los registros de
+     * hubRecord. Devuelve las aristas generadas (cada una se escribe dos veces).
+     */
+    static long writeBlock(int blockStart, int blockEnd, int[] degrees, long[] hubs, long N, EdgeSink sink,
+            GraphStats stats) throws IOException, InterruptedException {
+        int m = blockEnd - blockStart;
+        long[] hubNodes = new long[hubs.length];
+        long[] hubDegrees = new long[hubs.length];
+        for (int i = 0; i < hubs.length; i++) {
+            long packed = -1 - hubs[i];
+            hubNodes[i] = packed >>> 32;
+            hubDegrees[i] = packed & 0xffffffffL;
+        }
+
+        // Nodos del bloque (posición relativa) que cubren al nodo en curso, por el último
+        // nodo que cubren: (fin << 32) | origen. before: origen anterior al nodo;
+        // wrapped: origen posterior cuyo tramo vuelve al inicio del bloque
+        PriorityQueue<Long> before = new PriorityQueue<>();
+        PriorityQueue<Long> wrapped = new PriorityQueue<>();
+        for (int s = 0; s < m; s++) {
+            int d = degrees[s];
+            if (d > 0 && d <= m - 1 && s + d >= m) wrapped.add(((long) (s + d - m) << 32) | s);
+        }
+
+        // Tramos del bloque que cubre cada hub, por su inicio; covering: los que cubren
+        // al nodo en curso, por su fin
+        HubCovers covers = new HubCovers(hubNodes.length);
+        for (int h = 0; h < hubNodes.length; h++) covers.add(h, hubNodes[h], hubDegrees[h], blockStart, blockEnd, N);
+        long[] coverStarts = Arrays.copyOf(covers.order, covers.size);
+        Arrays.sort(coverStarts);
+        PriorityQueue<Long> covering = new PriorityQueue<>();
+        int nextCover = 0;
+
+        int[] sources = new int[16];
+        long edges = 0;
+        for (int t = 0; t < m; t++) {
+            if (t > 0) {
+                int s = t - 1;
+                int d = degrees[s];
+                if (d > 0 && d <= m - 1) before.add(((long) (s + d) << 32) | s);
+            }
+            while (!before.isEmpty() && (before.peek() >>> 32) < t) before.poll();
+            while (!wrapped.isEmpty() && (wrapped.peek() >>> 32) < t) wrapped.poll();
+
+            int count = 0;
+            for (PriorityQueue<Long> queue : Arrays.asList(before, wrapped)) {
+                for (long entry : queue) {
+                    if (count == sources.length) sources = Arrays.copyOf(sources, count * 2);
+                    sources[count++] = blockStart + (int) entry;
+                }
+            }
+            while (nextCover < coverStarts.length && (coverStarts[nextCover] >>> 32) <= t) {
+                int c = (int) coverStarts[nextCover++];
+                covering.add(((long) covers.end[c] << 32) | c);
+            }
+            while (!covering.isEmpty() && (covering.peek() >>> 32) <= t) covering.poll();
+            long node = blockStart + t;
+            for (long entry : covering) {
+                int c = (int) entry;
+                long hub = hubNodes[covers.hub[c]];
+                if (hub == node) continue;
+                for (long k = 0; k < covers.times[c]; k++) {
+                    if (count == sources.length) sources = Arrays.copyOf(sources, count * 2);
+                    sources[count++] = (int) hub;
+                }
+            }
+            Arrays.sort(sources, 0, count);
+
+            int degree = degrees[t];
+            if (degree == 0 && count == 0) continue;
+            stats.node(node, degree + count);
+            if (degree > 0) {
+                UndirectedGraphReducer.writeEdges(node, degree, blockStart, blockEnd, N, sink);
+                edges += degree;
+            }
+            // Orígenes consecutivos en un solo tramo
+            for (int i = 0; i < count; ) {
+                int j = i + 1;
+                while (j < count && sources[j] == sources[j - 1] + 1) j++;
+                sink.writeRange(node, sources[i], j - i);
+                i = j;
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Cobertura de los hubs dentro de un bloque. Un hub s con grado d recorre [0, N)
+     * sin contarse a sí mismo: sus q = d / (N - 1) vueltas completas cubren q veces
+     * cada nodo del bloque (salvo s) y el resto r = d % (N - 1) cubre una vez más la
+     * ventana cíclica s + 1 .. s + r. Cada tramo es [inicio, fin) relativo al bloque.
+     */
+    private static class HubCovers {
+        int[] hub;
+        long[] times;
+        int[] end;
+        long[] order;   // (inicio << 32) | tramo
+        int size;
+
+        HubCovers(int hubs) {
+            hub = new int[3 * hubs];
+            times = new long[3 * hubs];
+            end = new int[3 * hubs];
+            order = new long[3 * hubs];
+        }
+
+        void add(int h, long node, long degree, long blockStart, long blockEnd, long N) {
+            long laps = degree / (N - 1);
+            long rest = degree % (N - 1);
+            if (laps > 0) addRange(h, blockStart, blockEnd, laps, blockStart, blockEnd);
+            if (rest == 0) return;
+            long last = node + rest;
+            addRange(h, node + 1, Math.min(last, N - 1) + 1, 1, blockStart, blockEnd);
+            if (last >= N) addRange(h, 0, last - N + 1, 1, blockStart, blockEnd);
+        }
+
+        private void addRange(int h, long from, long to, long count, long blockStart, long blockEnd) {
+            from = Math.max(from, blockStart);
+            to = Math.min(to, blockEnd);
+            if (from >= to) return;
+            hub[size] = h;
+            times[size] = count;
+            end[size] = (int) (to - blockStart);
+            order[size] = ((from - blockStart) << 32) | size;
+            size++;
+        }
+    }
+}
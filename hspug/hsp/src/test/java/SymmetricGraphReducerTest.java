@@ -0,0 +1,108 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+public class SymmetricGraphReducerTest {
+
+    @Test
+    public void adjacencyMatchesReversedUndirectedEdges() throws Exception {
+        int n = 60;
+        // Incluye un bloque vacío y uno de un solo nodo
+        int[] bounds = {0, 20, 25, 25, 26, 40, 60};
+        int[] degrees = new int[n];
+        SplittableRandom rand = new SplittableRandom(11);
+        for (int i = 0; i < n; i++) degrees[i] = rand.nextInt(4) == 0 ? 0 : 1 + rand.nextInt(6);
+        degrees[21] = 9;      // hub de un bloque de 5 nodos
+        degrees[25] = 3;      // hub de un bloque de un nodo
+        degrees[30] = 13;     // cabe justo en su bloque (14 nodos)
+        degrees[45] = 130;    // hub con más de una vuelta a [0, N)
+        degrees[59] = 59;     // hub cuya ventana empieza en el nodo 0
+
+        assertEquals(5, assertMatches(n, bounds, degrees));
+    }
+
+    @Test
+    public void manyHubsAcrossBlocks() throws Exception {
+        int n = 400;
+        int[] bounds = {0, 3, 50, 51, 180, 181, 300, 400};
+        int[] degrees = new int[n];
+        SplittableRandom rand = new SplittableRandom(5);
+        for (int i = 0; i < n; i++) {
+            degrees[i] = rand.nextInt(10) == 0 ? 1 + rand.nextInt(3 * n) : rand.nextInt(8);
+        }
+
+        assertTrue(assertMatches(n, bounds, degrees) > 20);
+    }
+
+    /**
+     * Compara writeBlock con las aristas de UndirectedGraphReducer.writeEdges y su
+     * vuelta; devuelve el número de hubs.
+     */
+    private static int assertMatches(int n, int[] bounds, int[] degrees) throws Exception {
+        Map<Long, List<Long>> expected = new HashMap<>();
+        List<Long> hubs = new ArrayList<>();
+        long expectedEdges = 0;
+        for (int b = 0; b + 1 < bounds.length; b++) {
+            for (int s = bounds[b]; s < bounds[b + 1]; s++) {
+                if (degrees[s] == 0) continue;
+                EdgeList forward = new EdgeList();
+                UndirectedGraphReducer.writeEdges(s, degrees[s], bounds[b], bounds[b + 1], n, forward);
+                for (long edge : forward.edges) {
+                    add(expected, EdgeSpliterator.source(edge), EdgeSpliterator.target(edge));
+                    add(expected, EdgeSpliterator.target(edge), EdgeSpliterator.source(edge));
+                }
+                expectedEdges += degrees[s];
+                if (bounds[b + 1] - bounds[b] - 1 < degrees[s]) hubs.add(SymmetricGraphReducer.hubRecord(s, degrees[s]));
+            }
+        }
+
+        Map<Long, List<Long>> actual = new HashMap<>();
+        long edges = 0;
+        long[] hubRecords = hubs.stream().mapToLong(Long::longValue).toArray();
+        for (int b = 0; b + 1 < bounds.length; b++) {
+            if (bounds[b] == bounds[b + 1]) continue;
+            int[] block = Arrays.copyOfRange(degrees, bounds[b], bounds[b + 1]);
+            EdgeList sink = new EdgeList();
+            edges += SymmetricGraphReducer.writeBlock(bounds[b], bounds[b + 1], block, hubRecords, n, sink,
+                    new GraphStats());
+            for (long edge : sink.edges) {
+                long source = EdgeSpliterator.source(edge);
+                assertTrue("nodo fuera del bloque: " + source, source >= bounds[b] && source < bounds[b + 1]);
+                add(actual, source, EdgeSpliterator.target(edge));
+            }
+        }
+
+        assertEquals(expectedEdges, edges);
+        for (List<Long> targets : expected.values()) targets.sort(null);
+        for (List<Long> targets : actual.values()) targets.sort(null);
+        assertEquals(expected, actual);
+        return hubs.size();
+    }
+
+    private static void add(Map<Long, List<Long>> adjacency, long source, long target) {
+        adjacency.computeIfAbsent(source, k -> new ArrayList<>()).add(target);
+    }
+
+    /**
+     * Sink que guarda cada arista como el long de EdgeSpliterator.pack.
+     */
+    private static class EdgeList extends EdgeSink {
+        final List<Long> edges = new ArrayList<>();
+
+        EdgeList() {
+            super(null);
+        }
+
+        @Override
+        public void writeRange(long source, long firstTarget, long count) {
+            for (long i = 0; i < count; i++) edges.add(EdgeSpliterator.pack(source, firstTarget + i));
+        }
+    }
+}